@@ -0,0 +1,19 @@
+package no.unit.nva.download.publication.file;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.UUID;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+
+public record BulkPresignFailure(@JsonProperty(RequestUtil.IDENTIFIER) String identifier,
+                                 @JsonProperty(RequestUtil.FILE_IDENTIFIER) UUID fileIdentifier,
+                                 @JsonProperty(BulkPresignFailure.STATUS) int status,
+                                 @JsonProperty(BulkPresignFailure.DETAIL) String detail) {
+
+    public static final String STATUS = "status";
+    public static final String DETAIL = "detail";
+
+    public static BulkPresignFailure create(FileReference fileReference, ApiGatewayException exception) {
+        return new BulkPresignFailure(fileReference.identifier(), fileReference.fileIdentifier(),
+                                      exception.getStatusCode(), exception.getMessage());
+    }
+}
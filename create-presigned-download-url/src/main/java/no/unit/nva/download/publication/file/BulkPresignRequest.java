@@ -0,0 +1,9 @@
+package no.unit.nva.download.publication.file;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record BulkPresignRequest(@JsonProperty(BulkPresignRequest.FILES) List<FileReference> files) {
+
+    public static final String FILES = "files";
+}
@@ -0,0 +1,24 @@
+package no.unit.nva.download.publication.file;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Result of a bulk presign request. Every requested file appears either in {@code files} or, when it could not be
+ * presigned, in {@code failures} together with the status a single file request would have returned.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+public record BulkPresignedUris(@JsonProperty(BulkPresignedUris.FILES) List<BulkPresignedFileUri> files,
+                                @JsonProperty(BulkPresignedUris.FAILURES) List<BulkPresignFailure> failures) {
+
+    public static final String FILES = "files";
+    public static final String FAILURES = "failures";
+
+    @JsonGetter(PresignedUri.CONTEXT)
+    public URI context() {
+        return PresignedUri.context;
+    }
+}
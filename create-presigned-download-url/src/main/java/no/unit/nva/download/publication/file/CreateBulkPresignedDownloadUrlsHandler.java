@@ -0,0 +1,242 @@
+package no.unit.nva.download.publication.file;
+
+import static java.net.HttpURLConnection.HTTP_OK;
+import static no.unit.nva.download.publication.file.CreatePresignedDownloadUrlHandler.DEFAULT_EXPIRATION_SECONDS;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.github.bibsysdev.urlshortener.service.ClientRegistry;
+import com.github.bibsysdev.urlshortener.service.UriShortener;
+import com.github.bibsysdev.urlshortener.service.UriShortenerImpl;
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.publication.PublicationAccessSnapshot;
+import no.unit.nva.download.publication.file.publication.RestPublicationService;
+import no.unit.nva.download.publication.file.publication.exception.InputException;
+import nva.commons.apigateway.ApiGatewayHandler;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.apigateway.exceptions.BadGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.parallel.ParallelMapper;
+import nva.commons.core.paths.UriWrapper;
+import org.crac.Core;
+
+/**
+ * Creates presigned download URLs for a list of (publication identifier, file identifier) pairs, as needed by search
+ * result pages and harvesters. Each distinct publication is fetched once, with a bounded number of publications
+ * fetched concurrently, and access is validated per pair. Pairs that cannot be presigned are reported as failures
+ * instead of failing the whole request.
+ */
+public class CreateBulkPresignedDownloadUrlsHandler extends ApiGatewayHandler<BulkPresignRequest, BulkPresignedUris> {
+
+    public static final String BULK_PRESIGN_PARALLELISM_ENV = "BULK_PRESIGN_PARALLELISM";
+    public static final String BULK_PRESIGN_MAX_FILES_ENV = "BULK_PRESIGN_MAX_FILES";
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final int DEFAULT_MAX_FILES = 500;
+    public static final String MISSING_FILES = "Request must contain at least one file";
+    public static final String TOO_MANY_FILES = "Request must not contain more than %d files";
+    public static final String INVALID_FILE_REFERENCE = "Every file must have an identifier and a fileIdentifier";
+    public static final String INVALID_PUBLICATION_IDENTIFIER = "Invalid publication identifier: %s";
+    public static final String PUBLICATION_FETCH_FAILED = "Could not fetch publication: ";
+    /**
+     * The forms of a SortableIdentifier: a UUID, optionally prefixed with a hexadecimal timestamp. The identifier
+     * becomes a path segment of the publication API and a cache key, so nothing else may pass. SortableIdentifier
+     * itself only checks the length.
+     */
+    private static final Pattern SORTABLE_IDENTIFIER = Pattern.compile(
+        "(\\p{XDigit}{12}-)?\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+
+    private final RestPublicationService publicationService;
+    private final AwsS3Service awsS3Service;
+    private final UriShortener uriShortener;
+    private final PresignPriming priming;
+    private final int parallelism;
+    private final int maxFiles;
+
+    /**
+     * Constructor for CreateBulkPresignedDownloadUrlsHandler.
+     *
+     * @param publicationService publicationService
+     * @param awsS3Service       awsS3Service
+     * @param environment        environment
+     * @param uriShortener       uriShortener
+     */
+    public CreateBulkPresignedDownloadUrlsHandler(RestPublicationService publicationService,
+                                                  AwsS3Service awsS3Service,
+                                                  Environment environment,
+                                                  UriShortener uriShortener) {
+        super(BulkPresignRequest.class, environment);
+        this.publicationService = publicationService;
+        this.awsS3Service = awsS3Service;
+        this.uriShortener = uriShortener;
+        this.priming = new PresignPriming(publicationService, awsS3Service, uriShortener);
+        this.parallelism = readInt(environment, BULK_PRESIGN_PARALLELISM_ENV, DEFAULT_PARALLELISM);
+        this.maxFiles = readInt(environment, BULK_PRESIGN_MAX_FILES_ENV, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * Default constructor for CreateBulkPresignedDownloadUrlsHandler.
+     */
+    @JacocoGenerated
+    public CreateBulkPresignedDownloadUrlsHandler() {
+        this(ClientRegistry.defaultRegistry());
+        Core.getGlobalContext().register(priming);
+    }
+
+    @JacocoGenerated
+    private CreateBulkPresignedDownloadUrlsHandler(ClientRegistry clientRegistry) {
+        this(new RestPublicationService(clientRegistry), new AwsS3Service(clientRegistry),
+             clientRegistry.environment(), UriShortenerImpl.createDefault(clientRegistry));
+    }
+
+    @Override
+    protected void validateRequest(BulkPresignRequest input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+        var files = Optional.ofNullable(input).map(BulkPresignRequest::files).orElse(List.of());
+        if (files.isEmpty()) {
+            throw new InputException(MISSING_FILES);
+        }
+        if (files.size() > maxFiles) {
+            throw new InputException(String.format(TOO_MANY_FILES, maxFiles));
+        }
+        if (files.stream().anyMatch(CreateBulkPresignedDownloadUrlsHandler::isIncomplete)) {
+            throw new InputException(INVALID_FILE_REFERENCE);
+        }
+        for (var fileReference : files) {
+            validatePublicationIdentifier(fileReference.identifier());
+        }
+    }
+
+    @Override
+    protected BulkPresignedUris processInput(BulkPresignRequest input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+
+        var publications = fetchPublications(input.files());
+        var requester = Requester.from(requestInfo);
+        var expiration = defaultExpiration();
+        var presignedFiles = new ArrayList<PresignedFile>();
+        var failures = new ArrayList<BulkPresignFailure>();
+        for (var fileReference : input.files()) {
+            try {
+                var publication = findPublication(publications, fileReference.identifier());
+                presignedFiles.add(presign(publication, fileReference, requester, expiration));
+            } catch (ApiGatewayException exception) {
+                failures.add(BulkPresignFailure.create(fileReference, exception));
+            }
+        }
+        return new BulkPresignedUris(shortenAll(presignedFiles, expiration), failures);
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(BulkPresignRequest input, BulkPresignedUris output) {
+        return HTTP_OK;
+    }
+
+    private Map<String, FetchedPublication> fetchPublications(List<FileReference> fileReferences)
+        throws BadGatewayException {
+        var identifiers = fileReferences.stream().map(FileReference::identifier).distinct().toList();
+        try {
+            return new ParallelMapper<>(identifiers, this::fetchPublication, parallelism)
+                       .map()
+                       .getSuccesses()
+                       .stream()
+                       .collect(Collectors.toMap(FetchedPublication::identifier, Function.identity()));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new BadGatewayException(PUBLICATION_FETCH_FAILED + exception.getMessage());
+        }
+    }
+
+    private FetchedPublication fetchPublication(String identifier) {
+        try {
+            return new FetchedPublication(identifier, publicationService.getAccessSnapshot(identifier), null);
+        } catch (ApiGatewayException exception) {
+            return new FetchedPublication(identifier, null, exception);
+        }
+    }
+
+    private static PublicationAccessSnapshot findPublication(Map<String, FetchedPublication> publications,
+                                                             String identifier)
+        throws ApiGatewayException {
+        var fetchedPublication = publications.get(identifier);
+        if (fetchedPublication == null) {
+            throw new BadGatewayException(PUBLICATION_FETCH_FAILED + identifier);
+        }
+        return fetchedPublication.publicationOrThrow();
+    }
+
+    private PresignedFile presign(PublicationAccessSnapshot snapshot, FileReference fileReference,
+                                  Requester requester, Date expiration) throws ApiGatewayException {
+        var accessValidation = FileAccessValidationUtil.create(fileReference.fileIdentifier(), snapshot);
+        accessValidation.validateAccess(requester);
+        var file = accessValidation.getFile();
+        var presignedUrl = awsS3Service.createPresignedDownloadUrl(file.getIdentifier().toString(),
+                                                                   file.getMimeType(),
+                                                                   expiration);
+        return new PresignedFile(fileReference, presignedUrl);
+    }
+
+    private List<BulkPresignedFileUri> shortenAll(List<PresignedFile> presignedFiles, Date expiration) {
+        var longUris = presignedFiles.stream().map(PresignedFile::uri).toList();
+        var shortenedUris = uriShortener.shortenAll(longUris, expiration.toInstant());
+        var presignedFileUris = new ArrayList<BulkPresignedFileUri>();
+        for (var index = 0; index < presignedFiles.size(); index++) {
+            var presignedFile = presignedFiles.get(index);
+            presignedFileUris.add(new BulkPresignedFileUri(presignedFile.fileReference().identifier(),
+                                                           presignedFile.fileReference().fileIdentifier(),
+                                                           presignedFile.presignedUrl(),
+                                                           expiration.toInstant(),
+                                                           shortenedUris.get(index).toString()));
+        }
+        return presignedFileUris;
+    }
+
+    private static boolean isIncomplete(FileReference fileReference) {
+        return Objects.isNull(fileReference)
+               || Objects.isNull(fileReference.identifier())
+               || Objects.isNull(fileReference.fileIdentifier());
+    }
+
+    private static void validatePublicationIdentifier(String identifier) throws InputException {
+        if (!SORTABLE_IDENTIFIER.matcher(identifier).matches()) {
+            throw new InputException(String.format(INVALID_PUBLICATION_IDENTIFIER, identifier));
+        }
+    }
+
+    private static int readInt(Environment environment, String name, int defaultValue) {
+        return environment.readEnvOpt(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    private static Date defaultExpiration() {
+        return Date.from(Instant.now().plus(DEFAULT_EXPIRATION_SECONDS, ChronoUnit.SECONDS));
+    }
+
+    private record FetchedPublication(String identifier, PublicationAccessSnapshot publication,
+                                      ApiGatewayException failure) {
+
+        public PublicationAccessSnapshot publicationOrThrow() throws ApiGatewayException {
+            if (failure != null) {
+                throw failure;
+            }
+            return publication;
+        }
+    }
+
+    private record PresignedFile(FileReference fileReference, String presignedUrl) {
+
+        public URI uri() {
+            return UriWrapper.fromUri(presignedUrl).getUri();
+        }
+    }
+}
@@ -3,22 +3,23 @@ package no.unit.nva.download.publication.file;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static no.unit.nva.download.publication.file.RequestUtil.getFileIdentifier;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.github.bibsysdev.urlshortener.service.ClientRegistry;
 import com.github.bibsysdev.urlshortener.service.UriShortener;
 import com.github.bibsysdev.urlshortener.service.UriShortenerImpl;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.UUID;
 import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.publication.PublicationAccessSnapshot;
 import no.unit.nva.download.publication.file.publication.RestPublicationService;
 import no.unit.nva.download.publication.file.publication.model.File;
-import no.unit.nva.download.publication.file.publication.model.Publication;
 import nva.commons.apigateway.ApiGatewayHandler;
 import nva.commons.apigateway.RequestInfo;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.paths.UriWrapper;
+import org.crac.Core;
 
 public class CreatePresignedDownloadUrlHandler extends ApiGatewayHandler<Void, PresignedUri> {
 
@@ -26,6 +27,8 @@ public class CreatePresignedDownloadUrlHandler extends ApiGatewayHandler<Void, P
     private final RestPublicationService publicationService;
     private final AwsS3Service awsS3Service;
     private final UriShortener uriShortener;
+    private final PresignedUriCache presignedUriCache;
+    private final PresignPriming priming;
 
     /**
      * Constructor for CreatePresignedDownloadUrlHandler.
@@ -35,10 +38,28 @@ public class CreatePresignedDownloadUrlHandler extends ApiGatewayHandler<Void, P
      */
     public CreatePresignedDownloadUrlHandler(RestPublicationService publicationService, AwsS3Service awsS3Service,
                                              Environment environment, UriShortener uriShortener) {
+        this(publicationService, awsS3Service, environment, uriShortener,
+             PresignedUriCache.fromEnvironment(environment));
+    }
+
+    /**
+     * Constructor for CreatePresignedDownloadUrlHandler.
+     *
+     * @param publicationService publicationService
+     * @param awsS3Service       awsS3Service
+     * @param environment        environment
+     * @param uriShortener       uriShortener
+     * @param presignedUriCache  cache of issued URLs for public files
+     */
+    public CreatePresignedDownloadUrlHandler(RestPublicationService publicationService, AwsS3Service awsS3Service,
+                                             Environment environment, UriShortener uriShortener,
+                                             PresignedUriCache presignedUriCache) {
         super(Void.class, environment);
         this.publicationService = publicationService;
         this.awsS3Service = awsS3Service;
         this.uriShortener = uriShortener;
+        this.presignedUriCache = presignedUriCache;
+        this.priming = new PresignPriming(publicationService, awsS3Service, uriShortener);
     }
 
     /**
@@ -46,8 +67,14 @@ public class CreatePresignedDownloadUrlHandler extends ApiGatewayHandler<Void, P
      */
     @JacocoGenerated
     public CreatePresignedDownloadUrlHandler() {
-        this(new RestPublicationService(new Environment()), new AwsS3Service(new Environment()), new Environment(),
-             UriShortenerImpl.createDefault());
+        this(ClientRegistry.defaultRegistry());
+        Core.getGlobalContext().register(priming);
+    }
+
+    @JacocoGenerated
+    private CreatePresignedDownloadUrlHandler(ClientRegistry clientRegistry) {
+        this(new RestPublicationService(clientRegistry), new AwsS3Service(clientRegistry),
+             clientRegistry.environment(), UriShortenerImpl.createDefault(clientRegistry));
     }
 
     @Override
@@ -59,20 +86,26 @@ public class CreatePresignedDownloadUrlHandler extends ApiGatewayHandler<Void, P
     protected PresignedUri processInput(Void input, RequestInfo requestInfo, Context context)
         throws ApiGatewayException {
 
-        var publication = publicationService.getPublication(RequestUtil.getIdentifier(requestInfo));
-        var fileIdentifier = getFileIdentifier(requestInfo);
+        var snapshot = publicationService.getAccessSnapshot(RequestUtil.getIdentifier(requestInfo));
+        var accessValidation = FileAccessValidationUtil.create(getFileIdentifier(requestInfo), snapshot);
 
-        FileAccessValidationUtil.create(fileIdentifier, publication).validateAccess(requestInfo);
+        accessValidation.validateAccess(Requester.from(requestInfo));
 
-        return createPresignedUrl(publication, fileIdentifier);
+        return createPresignedUrl(snapshot, accessValidation.getFile());
     }
 
-    private PresignedUri createPresignedUrl(Publication publication, UUID fileIdentifier) throws ApiGatewayException {
-        var file = publication.getFile(fileIdentifier);
+    private PresignedUri createPresignedUrl(PublicationAccessSnapshot snapshot, File file)
+        throws ApiGatewayException {
+        var cachedPresignedUri = presignedUriCache.get(snapshot, file);
+        if (cachedPresignedUri.isPresent()) {
+            return cachedPresignedUri.get();
+        }
         var expiration = defaultExpiration();
         var presignUriLong = getPresignedDownloadUrl(file, expiration);
-        var shortenedPresignUri = getShortenedVersion(presignUriLong, expiration);
-        return new PresignedUri(presignUriLong, expiration.toInstant(), shortenedPresignUri);
+        var shortenedPresignUri = getShortenedVersion(file, presignUriLong, expiration);
+        var presignedUri = new PresignedUri(presignUriLong, expiration.toInstant(), shortenedPresignUri);
+        presignedUriCache.put(snapshot, file, presignedUri);
+        return presignedUri;
     }
 
     @Override
@@ -80,8 +113,11 @@ public class CreatePresignedDownloadUrlHandler extends ApiGatewayHandler<Void, P
         return HTTP_OK;
     }
 
-    private String getShortenedVersion(String presignUriLong, Date expiration) {
-        return uriShortener.shorten(UriWrapper.fromUri(presignUriLong).getUri(), expiration.toInstant()).toString();
+    private String getShortenedVersion(File file, String presignUriLong, Date expiration) {
+        return uriShortener.shortenFile(file.getIdentifier(), expiration.toInstant())
+                   .orElseGet(() -> uriShortener.shorten(UriWrapper.fromUri(presignUriLong).getUri(),
+                                                         expiration.toInstant()))
+                   .toString();
     }
 
     private String getPresignedDownloadUrl(File file, Date expiration) throws ApiGatewayException {
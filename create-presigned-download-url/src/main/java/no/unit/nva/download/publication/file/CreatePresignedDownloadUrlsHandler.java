@@ -0,0 +1,129 @@
+package no.unit.nva.download.publication.file;
+
+import static java.net.HttpURLConnection.HTTP_OK;
+import static no.unit.nva.download.publication.file.CreatePresignedDownloadUrlHandler.DEFAULT_EXPIRATION_SECONDS;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.github.bibsysdev.urlshortener.service.ClientRegistry;
+import com.github.bibsysdev.urlshortener.service.UriShortener;
+import com.github.bibsysdev.urlshortener.service.UriShortenerImpl;
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.publication.RestPublicationService;
+import no.unit.nva.download.publication.file.publication.model.File;
+import no.unit.nva.download.publication.file.publication.PublicationAccessSnapshot;
+import nva.commons.apigateway.ApiGatewayHandler;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+import nva.commons.core.paths.UriWrapper;
+import org.crac.Core;
+
+/**
+ * Creates presigned download URLs for every file of a publication the requester may download. The publication is
+ * fetched and the requester is read from the request once, then access is decided for each file, and the short URLs
+ * of the accessible files are stored together.
+ */
+public class CreatePresignedDownloadUrlsHandler extends ApiGatewayHandler<Void, PresignedUris> {
+
+    private final RestPublicationService publicationService;
+    private final AwsS3Service awsS3Service;
+    private final UriShortener uriShortener;
+    private final PresignPriming priming;
+
+    /**
+     * Constructor for CreatePresignedDownloadUrlsHandler.
+     *
+     * @param publicationService publicationService
+     * @param awsS3Service       awsS3Service
+     * @param environment        environment
+     * @param uriShortener       uriShortener
+     */
+    public CreatePresignedDownloadUrlsHandler(RestPublicationService publicationService, AwsS3Service awsS3Service,
+                                              Environment environment, UriShortener uriShortener) {
+        super(Void.class, environment);
+        this.publicationService = publicationService;
+        this.awsS3Service = awsS3Service;
+        this.uriShortener = uriShortener;
+        this.priming = new PresignPriming(publicationService, awsS3Service, uriShortener);
+    }
+
+    /**
+     * Default constructor for CreatePresignedDownloadUrlsHandler.
+     */
+    @JacocoGenerated
+    public CreatePresignedDownloadUrlsHandler() {
+        this(ClientRegistry.defaultRegistry());
+        Core.getGlobalContext().register(priming);
+    }
+
+    @JacocoGenerated
+    private CreatePresignedDownloadUrlsHandler(ClientRegistry clientRegistry) {
+        this(new RestPublicationService(clientRegistry), new AwsS3Service(clientRegistry),
+             clientRegistry.environment(), UriShortenerImpl.createDefault(clientRegistry));
+    }
+
+    @Override
+    protected void validateRequest(Void unused, RequestInfo requestInfo, Context context) {
+        //Do nothing
+    }
+
+    @Override
+    protected PresignedUris processInput(Void input, RequestInfo requestInfo, Context context)
+        throws ApiGatewayException {
+
+        var snapshot = publicationService.getAccessSnapshot(RequestUtil.getIdentifier(requestInfo));
+        var accessibleFiles = accessibleFiles(snapshot, Requester.from(requestInfo));
+        return createPresignedUrls(accessibleFiles);
+    }
+
+    @Override
+    protected Integer getSuccessStatusCode(Void input, PresignedUris output) {
+        return HTTP_OK;
+    }
+
+    private static List<File> accessibleFiles(PublicationAccessSnapshot snapshot, Requester requester)
+        throws ApiGatewayException {
+        var accessibleFiles = new ArrayList<File>();
+        for (var file : snapshot.files()) {
+            if (FileAccessValidationUtil.create(file.getIdentifier(), snapshot).hasAccess(requester)) {
+                accessibleFiles.add(file);
+            }
+        }
+        return accessibleFiles;
+    }
+
+    private PresignedUris createPresignedUrls(List<File> files) throws ApiGatewayException {
+        var expiration = defaultExpiration();
+        var presignedUrls = new ArrayList<String>();
+        for (var file : files) {
+            presignedUrls.add(getPresignedDownloadUrl(file, expiration));
+        }
+        var shortenedUrls = uriShortener.shortenAll(toUris(presignedUrls), expiration.toInstant());
+        var presignedFileUris = new ArrayList<PresignedFileUri>();
+        for (var index = 0; index < files.size(); index++) {
+            presignedFileUris.add(new PresignedFileUri(files.get(index).getIdentifier(),
+                                                       presignedUrls.get(index),
+                                                       expiration.toInstant(),
+                                                       shortenedUrls.get(index).toString()));
+        }
+        return new PresignedUris(presignedFileUris);
+    }
+
+    private static List<URI> toUris(List<String> presignedUrls) {
+        return presignedUrls.stream().map(UriWrapper::fromUri).map(UriWrapper::getUri).toList();
+    }
+
+    private String getPresignedDownloadUrl(File file, Date expiration) throws ApiGatewayException {
+        return awsS3Service.createPresignedDownloadUrl(file.getIdentifier().toString(), file.getMimeType(), expiration);
+    }
+
+    private static Date defaultExpiration() {
+        return Date.from(Instant.now().plus(DEFAULT_EXPIRATION_SECONDS, ChronoUnit.SECONDS));
+    }
+}
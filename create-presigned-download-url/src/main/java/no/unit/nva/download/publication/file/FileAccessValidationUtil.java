@@ -1,93 +1,66 @@
 package no.unit.nva.download.publication.file;
 
-import static no.unit.nva.download.publication.file.RequestUtil.getPersonCristinId;
-import static no.unit.nva.download.publication.file.RequestUtil.getUser;
 import static nva.commons.apigateway.AccessRight.MANAGE_DEGREE_EMBARGO;
 import static nva.commons.apigateway.AccessRight.MANAGE_RESOURCES_STANDARD;
 import java.util.UUID;
-import java.util.function.Supplier;
-import java.util.stream.Stream;
 import no.unit.nva.download.publication.file.exception.NotFoundException;
+import no.unit.nva.download.publication.file.publication.PublicationAccessSnapshot;
 import no.unit.nva.download.publication.file.publication.model.File;
-import no.unit.nva.download.publication.file.publication.model.Publication;
-import no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants;
-import nva.commons.apigateway.RequestInfo;
 import nva.commons.apigateway.exceptions.ForbiddenException;
 
+/**
+ * Decides whether a request may download a file, against the compiled access snapshot of its publication. The checks
+ * run cheapest first: the file's own visibility, then ownership and contributorship, then the user's access rights.
+ * Requests on the public routes carry no identity, so they are decided on the file's visibility alone. The requester
+ * is passed in rather than read from the request, so that it is read once however many files are checked.
+ */
 public class FileAccessValidationUtil {
 
     private final UUID fileIdentifier;
-    private final Publication publication;
+    private final PublicationAccessSnapshot snapshot;
 
-    public FileAccessValidationUtil(UUID fileIdentifier, Publication publication) {
+    public FileAccessValidationUtil(UUID fileIdentifier, PublicationAccessSnapshot snapshot) {
         this.fileIdentifier = fileIdentifier;
-        this.publication = publication;
+        this.snapshot = snapshot;
     }
 
-    public static FileAccessValidationUtil create(UUID fileIdentifier, Publication publication) {
-        return new FileAccessValidationUtil(fileIdentifier, publication);
+    public static FileAccessValidationUtil create(UUID fileIdentifier, PublicationAccessSnapshot snapshot) {
+        return new FileAccessValidationUtil(fileIdentifier, snapshot);
     }
 
-    public void validateAccess(RequestInfo requestInfo) throws NotFoundException, ForbiddenException {
-        if (!hasAccess(requestInfo)) {
+    public void validateAccess(Requester requester) throws NotFoundException, ForbiddenException {
+        if (!hasAccess(requester)) {
             throw new ForbiddenException();
         }
     }
 
-    private boolean hasAccess(RequestInfo requestInfo) throws NotFoundException {
+    public boolean hasAccess(Requester requester) throws NotFoundException {
         var file = getFile();
+        if (requester.isAnonymousRoute()) {
+            return snapshot.isPubliclyDownloadable(file);
+        }
         return file.hasActiveEmbargo()
-                   ? hasAccessToFileWithActiveEmbargo(requestInfo)
-                   : hasAccessToFile(file, requestInfo);
-    }
-
-    private boolean hasAccessToFile(File file, RequestInfo requestInfo) {
-        return accessCheckSuppliers(file, requestInfo).anyMatch(Supplier::get);
-    }
-
-    private Stream<Supplier<Boolean>> accessCheckSuppliers(File file, RequestInfo requestInfo) {
-        return Stream.of(
-            () -> fileIsVisibleForNonOwner(file, publication),
-            () -> isOwner(publication, requestInfo),
-            () -> isContributor(publication, requestInfo),
-            () -> isEditor(requestInfo)
-        );
-    }
-
-    private boolean isContributor(Publication publication, RequestInfo requestInfo) {
-        return getPersonCristinId(requestInfo).map(publication::hasContributorWithId).orElse(false);
-    }
-
-    private boolean isOwner(Publication publication, RequestInfo requestInfo) {
-        return publication.resourceOwner().owner().equals(getUser(requestInfo));
-    }
-
-    private boolean isEditor(RequestInfo requestInfo) {
-        return requestInfo.userIsAuthorized(MANAGE_RESOURCES_STANDARD);
+                   ? hasAccessToFileWithActiveEmbargo(requester)
+                   : hasAccessToFile(file, requester);
     }
 
-    private boolean fileIsVisibleForNonOwner(File file, Publication publication) {
-        return PublicationStatusConstants.PUBLISHED.equals(publication.status()) && file.isVisibleForNonOwner();
+    public File getFile() throws NotFoundException {
+        return snapshot.file(fileIdentifier).orElseThrow(NotFoundException::new);
     }
 
-    private boolean hasAccessToFileWithActiveEmbargo(RequestInfo requestInfo) {
-        return Stream.of(isOwner(publication, requestInfo),
-                         isContributor(publication, requestInfo),
-                         canManageDegreeWithEmbargo(requestInfo))
-                   .anyMatch(Boolean::booleanValue);
+    private boolean hasAccessToFile(File file, Requester requester) {
+        return snapshot.isPubliclyDownloadable(file)
+               || isOwnerOrContributor(requester)
+               || requester.isAuthorized(MANAGE_RESOURCES_STANDARD);
     }
 
-    private boolean canManageDegreeWithEmbargo(RequestInfo requestInfo) {
-        return publication.isThesis() && requestInfo.userIsAuthorized(MANAGE_DEGREE_EMBARGO);
+    private boolean hasAccessToFileWithActiveEmbargo(Requester requester) {
+        return isOwnerOrContributor(requester)
+               || snapshot.isThesis() && requester.isAuthorized(MANAGE_DEGREE_EMBARGO);
     }
 
-    private File getFile() throws NotFoundException {
-        return publication.associatedArtifacts()
-                   .stream()
-                   .filter(File.class::isInstance)
-                   .map(File.class::cast)
-                   .filter(file -> file.getIdentifier().equals(this.fileIdentifier))
-                   .findFirst()
-                   .orElseThrow(NotFoundException::new);
+    private boolean isOwnerOrContributor(Requester requester) {
+        return snapshot.isOwnedBy(requester.user())
+               || requester.personCristinId().map(snapshot::hasContributorWithId).orElse(false);
     }
 }
@@ -0,0 +1,9 @@
+package no.unit.nva.download.publication.file;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.UUID;
+
+public record FileReference(@JsonProperty(RequestUtil.IDENTIFIER) String identifier,
+                            @JsonProperty(RequestUtil.FILE_IDENTIFIER) UUID fileIdentifier) {
+
+}
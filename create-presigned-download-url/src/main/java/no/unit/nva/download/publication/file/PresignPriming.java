@@ -0,0 +1,61 @@
+package no.unit.nva.download.publication.file;
+
+import com.github.bibsysdev.urlshortener.service.UriShortener;
+import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.publication.RestPublicationService;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Primes the presign handlers before Lambda SnapStart takes a snapshot of the initialized execution environment.
+ *
+ * <p>Before the snapshot a sample publication is deserialized, a sample key is presigned, a sample UriMap is mapped
+ * to a DynamoDB item, and the HTTP and DynamoDB requests are built without being sent. After restore, state derived
+ * from the time or credentials of the snapshot is dropped, as are the short URI identifiers reserved before it, and a
+ * connection to the publication API is opened in the background. No connections are opened before the snapshot, so
+ * none are carried over into restored instances.
+ */
+public class PresignPriming implements Resource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PresignPriming.class);
+
+    private final RestPublicationService publicationService;
+    private final AwsS3Service awsS3Service;
+    private final UriShortener uriShortener;
+
+    /**
+     * Constructor for PresignPriming.
+     *
+     * @param publicationService publicationService
+     * @param awsS3Service       awsS3Service
+     * @param uriShortener       uriShortener
+     */
+    public PresignPriming(RestPublicationService publicationService, AwsS3Service awsS3Service,
+                          UriShortener uriShortener) {
+        this.publicationService = publicationService;
+        this.awsS3Service = awsS3Service;
+        this.uriShortener = uriShortener;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        publicationService.prime();
+        uriShortener.prime();
+        try {
+            awsS3Service.prime();
+        } catch (ApiGatewayException e) {
+            LOGGER.warn("Could not prime presigning before checkpoint", e);
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        publicationService.clearCache();
+        awsS3Service.reset();
+        uriShortener.reset();
+        publicationService.warmUp();
+    }
+}
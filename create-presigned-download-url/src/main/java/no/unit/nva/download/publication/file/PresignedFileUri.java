@@ -0,0 +1,13 @@
+package no.unit.nva.download.publication.file;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Instant;
+import java.util.UUID;
+
+public record PresignedFileUri(@JsonProperty(FILE_IDENTIFIER) UUID fileIdentifier,
+                               @JsonProperty(PresignedUri.ID) String id,
+                               @JsonProperty(PresignedUri.EXPIRES) Instant expires,
+                               @JsonProperty(PresignedUri.SHORTENED_VERSION) String shortenedVersion) {
+
+    public static final String FILE_IDENTIFIER = "fileIdentifier";
+}
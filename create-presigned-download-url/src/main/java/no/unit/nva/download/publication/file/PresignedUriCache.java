@@ -0,0 +1,142 @@
+package no.unit.nva.download.publication.file;
+
+import com.github.bibsysdev.urlshortener.service.BoundedAccessOrderMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import no.unit.nva.download.publication.file.publication.PublicationAccessSnapshot;
+import no.unit.nva.download.publication.file.publication.model.File;
+import nva.commons.core.Environment;
+
+/**
+ * Reuses presigned and shortened download URLs of public files while they remain valid long enough.
+ *
+ * <p>A presigned URL for a file anyone may download is the same for every requester, so handing out an issued URL
+ * again saves signing it and writing another short URL to DynamoDB. URLs are keyed by file identifier, mime type and
+ * access class, and only files of the {@link AccessClass#PUBLIC} access class are cached. An issued URL is reused
+ * until less than the minimum remaining lifetime is left, so clients always get a URL they have time to follow.
+ */
+public class PresignedUriCache {
+
+    public static final String PRESIGNED_URI_CACHE_MAX_ENTRIES_ENV = "PRESIGNED_URI_CACHE_MAX_ENTRIES";
+    public static final String PRESIGNED_URI_MIN_REMAINING_SECONDS_ENV = "PRESIGNED_URI_MIN_REMAINING_SECONDS";
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final Duration DEFAULT_MIN_REMAINING_LIFETIME = Duration.ofSeconds(60);
+
+    private final Map<Key, PresignedUri> entries;
+    private final Duration minRemainingLifetime;
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor for PresignedUriCache.
+     *
+     * @param maxEntries           maximum number of URLs held before the least recently used is evicted
+     * @param minRemainingLifetime how long an issued URL must remain valid to be handed out again
+     * @param clock                clock used to check remaining lifetime
+     */
+    public PresignedUriCache(int maxEntries, Duration minRemainingLifetime, Clock clock) {
+        this.entries = new BoundedAccessOrderMap<>(maxEntries, evictions);
+        this.minRemainingLifetime = minRemainingLifetime;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a cache configured from the environment, falling back to the defaults for unset variables.
+     *
+     * @param environment environment
+     * @return a PresignedUriCache
+     */
+    public static PresignedUriCache fromEnvironment(Environment environment) {
+        return new PresignedUriCache(
+            environment.readEnvOpt(PRESIGNED_URI_CACHE_MAX_ENTRIES_ENV).map(Integer::parseInt)
+                .orElse(DEFAULT_MAX_ENTRIES),
+            environment.readEnvOpt(PRESIGNED_URI_MIN_REMAINING_SECONDS_ENV).map(Long::parseLong)
+                .map(Duration::ofSeconds)
+                .orElse(DEFAULT_MIN_REMAINING_LIFETIME),
+            Clock.systemUTC());
+    }
+
+    /**
+     * Look up an issued URL for a public file that remains valid long enough to be handed out again.
+     *
+     * @param snapshot publication the file belongs to
+     * @param file     file to download
+     * @return the issued URL, or empty when a new URL must be created
+     */
+    public Optional<PresignedUri> get(PublicationAccessSnapshot snapshot, File file) {
+        var key = Key.create(snapshot, file);
+        if (key.accessClass() != AccessClass.PUBLIC) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            var presignedUri = entries.get(key);
+            if (presignedUri == null || !hasEnoughLifetimeLeft(presignedUri)) {
+                entries.remove(key);
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(presignedUri);
+        }
+    }
+
+    /**
+     * Remember an issued URL. URLs for files that are not public are ignored.
+     *
+     * @param snapshot     publication the file belongs to
+     * @param file         downloaded file
+     * @param presignedUri the issued URL
+     */
+    public void put(PublicationAccessSnapshot snapshot, File file, PresignedUri presignedUri) {
+        var key = Key.create(snapshot, file);
+        if (key.accessClass() == AccessClass.PUBLIC) {
+            synchronized (entries) {
+                entries.put(key, presignedUri);
+            }
+        }
+    }
+
+    public Statistics statistics() {
+        synchronized (entries) {
+            return new Statistics(hits.get(), misses.get(), evictions.get(), entries.size());
+        }
+    }
+
+    private boolean hasEnoughLifetimeLeft(PresignedUri presignedUri) {
+        return clock.instant().plus(minRemainingLifetime).isBefore(presignedUri.getExpires());
+    }
+
+    public enum AccessClass {
+        PUBLIC,
+        RESTRICTED;
+
+        /**
+         * A file is public when anyone may download it, as decided by
+         * {@link PublicationAccessSnapshot#isPubliclyDownloadable(File)}.
+         *
+         * @param snapshot publication the file belongs to
+         * @param file     file
+         * @return the access class of the file
+         */
+        public static AccessClass classify(PublicationAccessSnapshot snapshot, File file) {
+            return snapshot.isPubliclyDownloadable(file) ? PUBLIC : RESTRICTED;
+        }
+    }
+
+    public record Key(UUID fileIdentifier, String mimeType, AccessClass accessClass) {
+
+        public static Key create(PublicationAccessSnapshot snapshot, File file) {
+            return new Key(file.getIdentifier(), file.getMimeType(), AccessClass.classify(snapshot, file));
+        }
+    }
+
+    public record Statistics(long hits, long misses, long evictions, int size) {
+
+    }
+}
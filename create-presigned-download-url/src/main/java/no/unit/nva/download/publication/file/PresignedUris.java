@@ -0,0 +1,18 @@
+package no.unit.nva.download.publication.file;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.net.URI;
+import java.util.List;
+
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+public record PresignedUris(@JsonProperty(FILES) List<PresignedFileUri> files) {
+
+    public static final String FILES = "files";
+
+    @JsonGetter(PresignedUri.CONTEXT)
+    public URI context() {
+        return PresignedUri.context;
+    }
+}
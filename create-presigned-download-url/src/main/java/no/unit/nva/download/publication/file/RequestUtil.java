@@ -1,5 +1,6 @@
 package no.unit.nva.download.publication.file;
 
+import com.fasterxml.jackson.core.JsonPointer;
 import java.net.URI;
 import no.unit.nva.download.publication.file.publication.exception.InputException;
 import nva.commons.apigateway.RequestInfo;
@@ -19,6 +20,8 @@ public final class RequestUtil {
     public static final String MISSING_FILE_IDENTIFIER = "Missing file identifier in request";
 
     public static final String ANONYMOUS = "anonymous";
+    public static final String PUBLIC_ROUTE_PREFIX = "/public/";
+    public static final JsonPointer RESOURCE_PATH = JsonPointer.compile("/resourcePath");
 
 
     private RequestUtil() {
@@ -70,6 +73,19 @@ public final class RequestUtil {
         return fileIdentifier;
     }
 
+    /**
+     * Whether the request came in on one of the public routes, which API Gateway serves without an authorizer. Such
+     * requests never carry an identity.
+     *
+     * @param requestInfo requestInfo
+     * @return true if the resource path of the request is below the public prefix
+     */
+    public static boolean isAnonymousRoute(RequestInfo requestInfo) {
+        return requestInfo.getRequestContextParameterOpt(RESOURCE_PATH)
+                   .map(resourcePath -> resourcePath.startsWith(PUBLIC_ROUTE_PREFIX))
+                   .orElse(false);
+    }
+
     public static String getUser(RequestInfo requestInfo) {
         return attempt(requestInfo::getUserName).orElse(user -> ANONYMOUS);
     }
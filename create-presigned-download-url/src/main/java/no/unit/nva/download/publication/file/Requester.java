@@ -0,0 +1,80 @@
+package no.unit.nva.download.publication.file;
+
+import static java.util.Objects.isNull;
+import static no.unit.nva.download.publication.file.RequestUtil.getPersonCristinId;
+import static no.unit.nva.download.publication.file.RequestUtil.getUser;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import nva.commons.apigateway.AccessRight;
+import nva.commons.apigateway.RequestInfo;
+
+/**
+ * Who a request is made by, read from the request at most once, so that deciding access to several files does not
+ * read the principal again for every file. Each part is read the first time it is needed, so that a request for a
+ * public file never reads the principal at all.
+ */
+public final class Requester {
+
+    private final RequestInfo requestInfo;
+    private final boolean anonymousRoute;
+    private final Map<AccessRight, Boolean> authorizations = new EnumMap<>(AccessRight.class);
+    private String userName;
+    private URI cristinId;
+    private boolean cristinIdRead;
+
+    private Requester(RequestInfo requestInfo) {
+        this.requestInfo = requestInfo;
+        this.anonymousRoute = RequestUtil.isAnonymousRoute(requestInfo);
+    }
+
+    /**
+     * The requester of a request.
+     *
+     * @param requestInfo the request
+     * @return the requester
+     */
+    public static Requester from(RequestInfo requestInfo) {
+        return new Requester(requestInfo);
+    }
+
+    public boolean isAnonymousRoute() {
+        return anonymousRoute;
+    }
+
+    /**
+     * The user name of the requester.
+     *
+     * @return the user name, or {@value RequestUtil#ANONYMOUS} when the request carries none
+     */
+    public String user() {
+        if (isNull(userName)) {
+            userName = getUser(requestInfo);
+        }
+        return userName;
+    }
+
+    /**
+     * The Cristin identifier of the requester.
+     *
+     * @return the Cristin identifier, or empty when the request carries none
+     */
+    public Optional<URI> personCristinId() {
+        if (!cristinIdRead) {
+            cristinId = getPersonCristinId(requestInfo).orElse(null);
+            cristinIdRead = true;
+        }
+        return Optional.ofNullable(cristinId);
+    }
+
+    /**
+     * Whether the requester has an access right.
+     *
+     * @param accessRight the access right
+     * @return true if the requester is authorized
+     */
+    public boolean isAuthorized(AccessRight accessRight) {
+        return authorizations.computeIfAbsent(accessRight, requestInfo::userIsAuthorized);
+    }
+}
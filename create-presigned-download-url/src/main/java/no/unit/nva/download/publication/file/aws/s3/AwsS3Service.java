@@ -1,27 +1,28 @@
 package no.unit.nva.download.publication.file.aws.s3;
 
-import com.amazonaws.HttpMethod;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
-import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.github.bibsysdev.urlshortener.service.ClientRegistry;
 import no.unit.nva.download.publication.file.aws.s3.exception.S3ServiceException;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
-import org.apache.http.HttpHeaders;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 
-import static java.util.Objects.nonNull;
-
 
 public class AwsS3Service {
     public static final String AWS_REGION_ENV = "AWS_REGION";
     public static final String BUCKET_NAME_ENV = "BUCKET_NAME";
+    public static final String PRESIGNED_URL_GENERATOR = "presignedUrlGenerator";
+    private static final String PRIMING_KEY = "priming";
+    private static final String PRIMING_MIME_TYPE = "application/pdf";
+    private static final Duration PRIMING_EXPIRATION = Duration.ofMinutes(1);
 
-    private final String bucketName;
-
-    private final AmazonS3 s3Client;
+    private final PresignedUrlGenerator presignedUrlGenerator;
 
     /**
      * Constructor for AwsS3Service.
@@ -30,19 +31,26 @@ public class AwsS3Service {
      * @param bucketName bucketKey
      */
     public AwsS3Service(AmazonS3 s3Client, String bucketName) {
-        this.s3Client = s3Client;
-        this.bucketName = bucketName;
+        this(new SdkPresignedUrlGenerator(s3Client, bucketName));
+    }
+
+    /**
+     * Constructor for AwsS3Service.
+     *
+     * @param presignedUrlGenerator presignedUrlGenerator
+     */
+    public AwsS3Service(PresignedUrlGenerator presignedUrlGenerator) {
+        this.presignedUrlGenerator = presignedUrlGenerator;
     }
 
     /**
      * Constructor for AwsS3Service.
      *
-     * @param environment environment
+     * @param clientRegistry clientRegistry providing the shared presigner and the environment
      */
     @JacocoGenerated
-    public AwsS3Service(Environment environment) {
-        this(AmazonS3ClientBuilder.standard().withRegion(environment.readEnv(AWS_REGION_ENV)).build(),
-             environment.readEnv(BUCKET_NAME_ENV));
+    public AwsS3Service(ClientRegistry clientRegistry) {
+        this(clientRegistry.getOrCreate(PRESIGNED_URL_GENERATOR, AwsS3Service::createPresignedUrlGenerator));
     }
 
     /**
@@ -55,27 +63,32 @@ public class AwsS3Service {
      */
     public String createPresignedDownloadUrl(String key, String mimeType, Date expiration) throws ApiGatewayException {
         try {
-            GeneratePresignedUrlRequest generatePresignedUrlRequest =
-                createGeneratePresignedUrlRequest(key, mimeType, expiration);
-
-            return s3Client.generatePresignedUrl(generatePresignedUrlRequest).toExternalForm();
+            return presignedUrlGenerator.generatePresignedUrl(key, mimeType, expiration);
         } catch (Exception e) {
             e.printStackTrace();
             throw new S3ServiceException(e.getMessage(), e);
         }
     }
 
-    private GeneratePresignedUrlRequest createGeneratePresignedUrlRequest(String key,
-                                                                          String mimeType,
-                                                                          Date expiration) {
-        GeneratePresignedUrlRequest generatePresignedUrlRequest = new GeneratePresignedUrlRequest(bucketName, key,
-                                                                                                  HttpMethod.GET);
-        generatePresignedUrlRequest.setExpiration(expiration);
+    /**
+     * Presign a sample key, so that credentials are resolved and the signing classes initialized ahead of the first
+     * request.
+     *
+     * @throws ApiGatewayException if the sample key could not be presigned
+     */
+    public void prime() throws ApiGatewayException {
+        createPresignedDownloadUrl(PRIMING_KEY, PRIMING_MIME_TYPE, Date.from(Instant.now().plus(PRIMING_EXPIRATION)));
+    }
 
-        if (nonNull(mimeType)) {
-            generatePresignedUrlRequest.addRequestParameter(HttpHeaders.CONTENT_TYPE, mimeType);
-        }
+    public void reset() {
+        presignedUrlGenerator.reset();
+    }
 
-        return generatePresignedUrlRequest;
+    @JacocoGenerated
+    private static PresignedUrlGenerator createPresignedUrlGenerator(Environment environment) {
+        return new SigV4PresignedUrlGenerator(DefaultAWSCredentialsProviderChain.getInstance(),
+                                              environment.readEnv(BUCKET_NAME_ENV),
+                                              environment.readEnv(AWS_REGION_ENV),
+                                              Clock.systemUTC());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package no.unit.nva.download.publication.file.aws.s3;
+
+import java.util.Date;
+
+/**
+ * Creates presigned GET URLs for objects in the download bucket.
+ */
+public interface PresignedUrlGenerator {
+
+    /**
+     * Generate a presigned download URL.
+     *
+     * @param key        object key
+     * @param mimeType   mimeType, or null
+     * @param expiration when the URL stops being valid
+     * @return A presigned download URL
+     */
+    String generatePresignedUrl(String key, String mimeType, Date expiration);
+
+    /**
+     * Drop state derived from the signing time or credentials, such as cached signing keys.
+     */
+    default void reset() {
+        // Nothing cached by default
+    }
+}
@@ -0,0 +1,42 @@
+package no.unit.nva.download.publication.file.aws.s3;
+
+import static java.util.Objects.nonNull;
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import java.util.Date;
+import org.apache.http.HttpHeaders;
+
+/**
+ * Presigns URLs through {@link AmazonS3#generatePresignedUrl(GeneratePresignedUrlRequest)}.
+ */
+public class SdkPresignedUrlGenerator implements PresignedUrlGenerator {
+
+    private final AmazonS3 s3Client;
+    private final String bucketName;
+
+    public SdkPresignedUrlGenerator(AmazonS3 s3Client, String bucketName) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public String generatePresignedUrl(String key, String mimeType, Date expiration) {
+        return s3Client.generatePresignedUrl(createGeneratePresignedUrlRequest(key, mimeType, expiration))
+                   .toExternalForm();
+    }
+
+    private GeneratePresignedUrlRequest createGeneratePresignedUrlRequest(String key,
+                                                                          String mimeType,
+                                                                          Date expiration) {
+        GeneratePresignedUrlRequest generatePresignedUrlRequest = new GeneratePresignedUrlRequest(bucketName, key,
+                                                                                                  HttpMethod.GET);
+        generatePresignedUrlRequest.setExpiration(expiration);
+
+        if (nonNull(mimeType)) {
+            generatePresignedUrlRequest.addRequestParameter(HttpHeaders.CONTENT_TYPE, mimeType);
+        }
+
+        return generatePresignedUrlRequest;
+    }
+}
@@ -0,0 +1,218 @@
+package no.unit.nva.download.publication.file.aws.s3;
+
+import static java.util.Objects.nonNull;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSSessionCredentials;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Presigns S3 GET URLs with AWS Signature Version 4 query authentication, without going through the SDK request
+ * pipeline.
+ *
+ * <p>Everything that only depends on the bucket is computed once. The derived signing key only changes with the date
+ * and the secret key, so it is cached and each URL costs one SHA-256 digest and one HMAC. The URLs carry the same
+ * signed parameters as those created by {@link SdkPresignedUrlGenerator}, including {@code Content-Type} when a mime
+ * type is given, in canonical order.
+ */
+public class SigV4PresignedUrlGenerator implements PresignedUrlGenerator {
+
+    public static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    public static final Duration MAX_EXPIRATION = Duration.ofDays(7);
+    public static final String US_EAST_1 = "us-east-1";
+    public static final String EXPIRATION_OUT_OF_RANGE = "Expiration must be between now and %s from now: %s";
+
+    private static final String SERVICE = "s3";
+    private static final String TERMINATOR = "aws4_request";
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String SHA256 = "SHA-256";
+    private static final String SECRET_KEY_PREFIX = "AWS4";
+    private static final String HTTPS = "https://";
+    private static final String NEWLINE = "\n";
+    private static final String SLASH = "/";
+    private static final String ENCODED_SLASH = "%2F";
+    private static final int DATE_LENGTH = 8;
+    private static final int MAX_URL_LENGTH = 1024;
+    private static final DateTimeFormatter AMZ_DATE_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final HexFormat UPPER_CASE_HEX = HexFormat.of().withUpperCase();
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(SigV4PresignedUrlGenerator::newMac);
+    private static final ThreadLocal<MessageDigest> DIGEST =
+        ThreadLocal.withInitial(SigV4PresignedUrlGenerator::newMessageDigest);
+    private static final SigningKey NO_SIGNING_KEY = new SigningKey("", "", null);
+
+    private final AWSCredentialsProvider credentialsProvider;
+    private final String region;
+    private final Clock clock;
+    private final String urlPrefix;
+    private final String canonicalUriPrefix;
+    private final String scopeSuffix;
+    private final String canonicalRequestSuffix;
+    private final Object signingKeyLock = new Object();
+    private SigningKey cachedSigningKey = NO_SIGNING_KEY;
+
+    /**
+     * Constructor for SigV4PresignedUrlGenerator.
+     *
+     * @param credentialsProvider credentials used to sign URLs
+     * @param bucketName          bucket the URLs point into
+     * @param region              region of the bucket
+     * @param clock               clock used as the signing time
+     */
+    public SigV4PresignedUrlGenerator(AWSCredentialsProvider credentialsProvider, String bucketName, String region,
+                                      Clock clock) {
+        this.credentialsProvider = credentialsProvider;
+        this.region = region;
+        this.clock = clock;
+        var endpoint = US_EAST_1.equals(region) ? "s3.amazonaws.com" : "s3." + region + ".amazonaws.com";
+        var virtualHostedStyle = !bucketName.contains(".");
+        var host = virtualHostedStyle ? bucketName + "." + endpoint : endpoint;
+        this.urlPrefix = HTTPS + host;
+        this.canonicalUriPrefix = virtualHostedStyle ? SLASH : SLASH + uriEncode(bucketName) + SLASH;
+        this.scopeSuffix = SLASH + region + SLASH + SERVICE + SLASH + TERMINATOR;
+        this.canonicalRequestSuffix = NEWLINE + "host:" + host + NEWLINE + NEWLINE + "host" + NEWLINE
+                                      + UNSIGNED_PAYLOAD;
+    }
+
+    @Override
+    public String generatePresignedUrl(String key, String mimeType, Date expiration) {
+        var now = clock.instant();
+        var credentials = credentialsProvider.getCredentials();
+        var amzDate = AMZ_DATE_FORMAT.format(now);
+        var date = amzDate.substring(0, DATE_LENGTH);
+        var scope = date + scopeSuffix;
+        var canonicalUri = canonicalUriPrefix + uriEncodePath(key);
+        var canonicalQuery = canonicalQuery(credentials, scope, amzDate, expiresInSeconds(now, expiration), mimeType);
+
+        var canonicalRequest = "GET" + NEWLINE + canonicalUri + NEWLINE + canonicalQuery + canonicalRequestSuffix;
+        var stringToSign = ALGORITHM + NEWLINE + amzDate + NEWLINE + scope + NEWLINE + HEX.formatHex(
+            DIGEST.get().digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+        var signature = HEX.formatHex(hmac(signingKey(date, credentials.getAWSSecretKey()), stringToSign));
+
+        return new StringBuilder(MAX_URL_LENGTH)
+                   .append(urlPrefix).append(canonicalUri)
+                   .append('?').append(canonicalQuery)
+                   .append("&X-Amz-Signature=").append(signature)
+                   .toString();
+    }
+
+    @Override
+    public void reset() {
+        synchronized (signingKeyLock) {
+            cachedSigningKey = NO_SIGNING_KEY;
+        }
+    }
+
+    private static String canonicalQuery(AWSCredentials credentials, String scope, String amzDate,
+                                         long expiresInSeconds, String mimeType) {
+        var query = new StringBuilder(MAX_URL_LENGTH);
+        if (nonNull(mimeType)) {
+            query.append("Content-Type=").append(uriEncode(mimeType)).append('&');
+        }
+        query.append("X-Amz-Algorithm=").append(ALGORITHM)
+            .append("&X-Amz-Credential=").append(uriEncode(credentials.getAWSAccessKeyId()))
+            .append(ENCODED_SLASH).append(uriEncode(scope))
+            .append("&X-Amz-Date=").append(amzDate)
+            .append("&X-Amz-Expires=").append(expiresInSeconds);
+        if (credentials instanceof AWSSessionCredentials sessionCredentials) {
+            query.append("&X-Amz-Security-Token=").append(uriEncode(sessionCredentials.getSessionToken()));
+        }
+        return query.append("&X-Amz-SignedHeaders=host").toString();
+    }
+
+    private static long expiresInSeconds(Instant now, Date expiration) {
+        var expiresIn = Duration.between(now, expiration.toInstant());
+        if (expiresIn.isNegative() || expiresIn.compareTo(MAX_EXPIRATION) > 0) {
+            throw new IllegalArgumentException(String.format(EXPIRATION_OUT_OF_RANGE, MAX_EXPIRATION, expiration));
+        }
+        return expiresIn.toSeconds();
+    }
+
+    private SecretKeySpec signingKey(String date, String secretKey) {
+        synchronized (signingKeyLock) {
+            if (!cachedSigningKey.isFor(date, secretKey)) {
+                cachedSigningKey = new SigningKey(date, secretKey, deriveSigningKey(date, secretKey));
+            }
+            return cachedSigningKey.key();
+        }
+    }
+
+    private SecretKeySpec deriveSigningKey(String date, String secretKey) {
+        var secret = new SecretKeySpec((SECRET_KEY_PREFIX + secretKey).getBytes(StandardCharsets.UTF_8), HMAC_SHA256);
+        var dateKey = new SecretKeySpec(hmac(secret, date), HMAC_SHA256);
+        var regionKey = new SecretKeySpec(hmac(dateKey, region), HMAC_SHA256);
+        var serviceKey = new SecretKeySpec(hmac(regionKey, SERVICE), HMAC_SHA256);
+        return new SecretKeySpec(hmac(serviceKey, TERMINATOR), HMAC_SHA256);
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String data) {
+        var mac = MAC.get();
+        try {
+            mac.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String uriEncodePath(String key) {
+        return uriEncode(key).replace(ENCODED_SLASH, SLASH);
+    }
+
+    private static String uriEncode(String value) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        var encoded = new StringBuilder(bytes.length * 3);
+        for (var b : bytes) {
+            var character = (char) (b & 0xFF);
+            if (isUnreserved(character)) {
+                encoded.append(character);
+            } else {
+                encoded.append('%').append(UPPER_CASE_HEX.toHexDigits(b));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static boolean isUnreserved(char character) {
+        return character >= 'A' && character <= 'Z'
+               || character >= 'a' && character <= 'z'
+               || character >= '0' && character <= '9'
+               || character == '-' || character == '_' || character == '.' || character == '~';
+    }
+
+    private static Mac newMac() {
+        try {
+            return Mac.getInstance(HMAC_SHA256);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(SHA256);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record SigningKey(String date, String secretKey, SecretKeySpec key) {
+
+        public boolean isFor(String date, String secretKey) {
+            return this.date.equals(date) && this.secretKey.equals(secretKey);
+        }
+    }
+}
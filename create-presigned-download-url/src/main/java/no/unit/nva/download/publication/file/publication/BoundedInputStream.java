@@ -0,0 +1,48 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that fails once more than a fixed number of bytes has been read, so that an unexpectedly large
+ * response cannot exhaust the heap of the Lambda function.
+ */
+public class BoundedInputStream extends FilterInputStream {
+
+    public static final String LIMIT_EXCEEDED_MESSAGE = "Response body exceeds %d bytes";
+    private static final int END_OF_STREAM = -1;
+
+    private final long maxBytes;
+    private long bytesRead;
+
+    public BoundedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        var value = super.read();
+        if (value != END_OF_STREAM) {
+            count(1);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        var count = super.read(buffer, offset, length);
+        if (count != END_OF_STREAM) {
+            count(count);
+        }
+        return count;
+    }
+
+    private void count(long read) throws IOException {
+        bytesRead += read;
+        if (bytesRead > maxBytes) {
+            throw new IOException(String.format(LIMIT_EXCEEDED_MESSAGE, maxBytes));
+        }
+    }
+}
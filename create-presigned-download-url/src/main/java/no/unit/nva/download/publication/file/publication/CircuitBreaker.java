@@ -0,0 +1,126 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import nva.commons.core.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker for calls to the publication API.
+ *
+ * <p>The circuit opens after a number of consecutive failed calls, and calls are then rejected without reaching the
+ * publication API. Once the circuit has been open for the open duration, a single trial call is let through: the
+ * circuit closes if it succeeds, and opens again if it fails.
+ */
+public class CircuitBreaker {
+
+    public static final String PUBLICATION_API_CIRCUIT_FAILURE_THRESHOLD_ENV =
+        "PUBLICATION_API_CIRCUIT_FAILURE_THRESHOLD";
+    public static final String PUBLICATION_API_CIRCUIT_OPEN_SECONDS_ENV = "PUBLICATION_API_CIRCUIT_OPEN_SECONDS";
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final Object lock = new Object();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+    private State currentState = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt = Instant.MIN;
+
+    /**
+     * Constructor for CircuitBreaker.
+     *
+     * @param failureThreshold number of consecutive failures that opens the circuit
+     * @param openDuration     how long the circuit stays open before a trial call is let through
+     * @param clock            clock
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a circuit breaker configured from the environment, falling back to the defaults for unset variables.
+     *
+     * @param environment environment
+     * @return a CircuitBreaker
+     */
+    public static CircuitBreaker fromEnvironment(Environment environment) {
+        return new CircuitBreaker(
+            environment.readEnvOpt(PUBLICATION_API_CIRCUIT_FAILURE_THRESHOLD_ENV).map(Integer::parseInt)
+                .orElse(DEFAULT_FAILURE_THRESHOLD),
+            environment.readEnvOpt(PUBLICATION_API_CIRCUIT_OPEN_SECONDS_ENV).map(Long::parseLong)
+                .map(Duration::ofSeconds).orElse(DEFAULT_OPEN_DURATION),
+            Clock.systemUTC());
+    }
+
+    /**
+     * Check whether a call may be made. A call that is allowed must be followed by a call to {@link #recordSuccess()}
+     * or {@link #recordFailure()}.
+     *
+     * @return true when the call may be made, false when it must be rejected
+     */
+    public boolean allowRequest() {
+        synchronized (lock) {
+            if (currentState == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+                currentState = State.HALF_OPEN;
+                return true;
+            }
+            if (currentState != State.CLOSED) {
+                rejectedRequests.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    public void recordSuccess() {
+        synchronized (lock) {
+            currentState = State.CLOSED;
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * Record a failed call, opening the circuit when the failure threshold is reached or a trial call failed.
+     */
+    public void recordFailure() {
+        synchronized (lock) {
+            consecutiveFailures++;
+            if (currentState == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                if (currentState != State.OPEN) {
+                    LOGGER.warn("Opening circuit to the publication API after {} consecutive failures",
+                                consecutiveFailures);
+                }
+                currentState = State.OPEN;
+                openedAt = clock.instant();
+            }
+        }
+    }
+
+    public State state() {
+        synchronized (lock) {
+            return currentState;
+        }
+    }
+
+    public long rejections() {
+        return rejectedRequests.get();
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
@@ -0,0 +1,230 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends requests to the publication API, hedging slow requests according to a {@link HedgingPolicy}.
+ *
+ * <p>A hedged request is sent again when it has not answered within the hedge delay, and the first successful
+ * response of the two is used. The other request is cancelled, and its response body closed if it arrives anyway.
+ * Requests are not hedged until enough response times have been seen to estimate the delay.
+ */
+public class HedgedRequestSender {
+
+    public static final int MIN_SAMPLES = 20;
+    public static final int MAX_SAMPLES = 100;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HedgedRequestSender.class);
+    private static final double HEDGE_COST = 1;
+    private static final double MAX_ALLOWANCE = 10;
+    private static final double PERCENT = 100;
+
+    private final HttpClient client;
+    private final HedgingPolicy policy;
+    private final long[] samples = new long[MAX_SAMPLES];
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private int sampleCount;
+    private int nextSample;
+    private double allowance;
+
+    public HedgedRequestSender(HttpClient client, HedgingPolicy policy) {
+        this.client = client;
+        this.policy = policy;
+    }
+
+    /**
+     * Send a request, hedging it if it is slow and the budget allows.
+     *
+     * @param request an idempotent request
+     * @return the first successful response
+     * @throws IOException          if no request succeeded
+     * @throws InterruptedException if interrupted while waiting for a response
+     */
+    public HttpResponse<InputStream> send(HttpRequest request) throws IOException, InterruptedException {
+        if (!policy.enabled()) {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        }
+        requests.incrementAndGet();
+        depositAllowance();
+        var hedgeDelay = hedgeDelay();
+        var start = System.nanoTime();
+        var primary = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        primary.thenRun(() -> recordSample(System.nanoTime() - start));
+        if (hedgeDelay.isEmpty()) {
+            return awaitOrCancel(primary, primary);
+        }
+        try {
+            return primary.get(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return hedge(request, primary);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            throw e;
+        }
+    }
+
+    public Statistics statistics() {
+        return new Statistics(requests.get(), hedges.get(), hedgeWins.get());
+    }
+
+    private HttpResponse<InputStream> hedge(HttpRequest request, CompletableFuture<HttpResponse<InputStream>> primary)
+        throws IOException, InterruptedException {
+        if (!withdrawAllowance()) {
+            return awaitOrCancel(primary, primary);
+        }
+        hedges.incrementAndGet();
+        var secondary = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        var firstSuccessful = new CompletableFuture<HttpResponse<InputStream>>();
+        completeWithFirstSuccess(firstSuccessful, primary, secondary);
+        completeWithFirstSuccess(firstSuccessful, secondary, primary);
+        var response = awaitOrCancel(firstSuccessful, primary, secondary);
+        if (isResponseOf(secondary, response)) {
+            hedgeWins.incrementAndGet();
+        }
+        LOGGER.debug("Hedged request to {}, hedge won: {}", request.uri(), isResponseOf(secondary, response));
+        discardOther(primary, response);
+        discardOther(secondary, response);
+        return response;
+    }
+
+    private static void completeWithFirstSuccess(CompletableFuture<HttpResponse<InputStream>> result,
+                                                 CompletableFuture<HttpResponse<InputStream>> attempt,
+                                                 CompletableFuture<HttpResponse<InputStream>> otherAttempt) {
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+            } else if (otherAttempt.isCompletedExceptionally()) {
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    private static boolean isResponseOf(CompletableFuture<HttpResponse<InputStream>> attempt,
+                                        HttpResponse<InputStream> response) {
+        return attempt.isDone() && !attempt.isCompletedExceptionally() && response.equals(attempt.join());
+    }
+
+    private static void discardOther(CompletableFuture<HttpResponse<InputStream>> attempt,
+                                     HttpResponse<InputStream> winner) {
+        attempt.thenAccept(response -> {
+            if (!response.equals(winner)) {
+                closeQuietly(response.body());
+            }
+        });
+        attempt.cancel(true);
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            LOGGER.debug("Could not close response body of discarded request", e);
+        }
+    }
+
+    private static HttpResponse<InputStream> await(CompletableFuture<HttpResponse<InputStream>> response)
+        throws IOException, InterruptedException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Wait for a response, cancelling the requests still in flight if the wait is interrupted.
+     */
+    private static HttpResponse<InputStream> awaitOrCancel(CompletableFuture<HttpResponse<InputStream>> response,
+                                                           CompletableFuture<?>... inFlight)
+        throws IOException, InterruptedException {
+        try {
+            return await(response);
+        } catch (InterruptedException e) {
+            for (var request : inFlight) {
+                request.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    private static IOException unwrap(ExecutionException exception) {
+        return exception.getCause() instanceof IOException ioException
+                   ? ioException
+                   : new IOException(exception.getCause());
+    }
+
+    private Optional<Duration> hedgeDelay() {
+        synchronized (samples) {
+            if (sampleCount < MIN_SAMPLES) {
+                return Optional.empty();
+            }
+            var sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            var index = (int) Math.ceil(policy.percentile() / PERCENT * sampleCount) - 1;
+            var percentileDelay = Duration.ofNanos(sorted[Math.max(0, Math.min(index, sampleCount - 1))]);
+            return Optional.of(percentileDelay.compareTo(policy.minimumDelay()) > 0
+                                   ? percentileDelay
+                                   : policy.minimumDelay());
+        }
+    }
+
+    private void recordSample(long responseTimeNanos) {
+        synchronized (samples) {
+            samples[nextSample] = responseTimeNanos;
+            nextSample = (nextSample + 1) % MAX_SAMPLES;
+            sampleCount = Math.min(sampleCount + 1, MAX_SAMPLES);
+        }
+    }
+
+    private void depositAllowance() {
+        synchronized (samples) {
+            allowance = Math.min(MAX_ALLOWANCE, allowance + policy.budget());
+        }
+    }
+
+    private boolean withdrawAllowance() {
+        synchronized (samples) {
+            if (allowance < HEDGE_COST) {
+                return false;
+            }
+            allowance -= HEDGE_COST;
+            return true;
+        }
+    }
+
+    /**
+     * Statistics of hedged requests.
+     *
+     * @param requests  number of requests sent with hedging enabled
+     * @param hedges    number of requests that were hedged
+     * @param hedgeWins number of hedged requests answered by the hedge
+     */
+    public record Statistics(long requests, long hedges, long hedgeWins) {
+
+        public double hedgeRate() {
+            return requests == 0 ? 0 : (double) hedges / requests;
+        }
+
+        public double winRate() {
+            return hedges == 0 ? 0 : (double) hedgeWins / hedges;
+        }
+    }
+}
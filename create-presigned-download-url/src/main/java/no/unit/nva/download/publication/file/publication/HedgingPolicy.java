@@ -0,0 +1,65 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.time.Duration;
+import nva.commons.core.Environment;
+
+/**
+ * When to hedge a request to the publication API with a second, identical request.
+ *
+ * <p>A request is hedged when it has not answered within the given percentile of recent response times, but never
+ * sooner than the minimum delay. Each request adds the budget fraction of a hedge to an allowance, and each hedge uses
+ * up a whole one, so over time at most that fraction of the requests is hedged. The budget is capped at one, so hedging
+ * never more than doubles the load on the publication API.
+ *
+ * @param enabled      whether requests are hedged at all
+ * @param percentile   percentile of recent response times to wait for before hedging
+ * @param minimumDelay shortest time to wait before hedging
+ * @param budget       largest fraction of requests that may be hedged
+ */
+public record HedgingPolicy(boolean enabled, double percentile, Duration minimumDelay, double budget) {
+
+    public static final String PUBLICATION_API_HEDGING_ENABLED_ENV = "PUBLICATION_API_HEDGING_ENABLED";
+    public static final String PUBLICATION_API_HEDGE_PERCENTILE_ENV = "PUBLICATION_API_HEDGE_PERCENTILE";
+    public static final String PUBLICATION_API_HEDGE_MIN_DELAY_MILLIS_ENV = "PUBLICATION_API_HEDGE_MIN_DELAY_MILLIS";
+    public static final String PUBLICATION_API_HEDGE_BUDGET_ENV = "PUBLICATION_API_HEDGE_BUDGET";
+    public static final double DEFAULT_PERCENTILE = 95;
+    public static final Duration DEFAULT_MINIMUM_DELAY = Duration.ofMillis(50);
+    public static final double DEFAULT_BUDGET = 0.1;
+    public static final double MAX_BUDGET = 1;
+
+    /**
+     * Constructor for HedgingPolicy.
+     *
+     * @param enabled      whether requests are hedged at all
+     * @param percentile   percentile of recent response times to wait for before hedging
+     * @param minimumDelay shortest time to wait before hedging
+     * @param budget       largest fraction of requests that may be hedged, capped at one
+     */
+    public HedgingPolicy(boolean enabled, double percentile, Duration minimumDelay, double budget) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minimumDelay = minimumDelay;
+        this.budget = Math.max(0, Math.min(MAX_BUDGET, budget));
+    }
+
+    public static HedgingPolicy disabled() {
+        return new HedgingPolicy(false, DEFAULT_PERCENTILE, DEFAULT_MINIMUM_DELAY, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Read the policy from the environment, falling back to the defaults for unset variables. Hedging is disabled
+     * unless enabled explicitly.
+     *
+     * @param environment environment
+     * @return the policy
+     */
+    public static HedgingPolicy fromEnvironment(Environment environment) {
+        return new HedgingPolicy(
+            environment.readEnvOpt(PUBLICATION_API_HEDGING_ENABLED_ENV).map(Boolean::parseBoolean).orElse(false),
+            environment.readEnvOpt(PUBLICATION_API_HEDGE_PERCENTILE_ENV).map(Double::parseDouble)
+                .orElse(DEFAULT_PERCENTILE),
+            environment.readEnvOpt(PUBLICATION_API_HEDGE_MIN_DELAY_MILLIS_ENV).map(Long::parseLong)
+                .map(Duration::ofMillis).orElse(DEFAULT_MINIMUM_DELAY),
+            environment.readEnvOpt(PUBLICATION_API_HEDGE_BUDGET_ENV).map(Double::parseDouble).orElse(DEFAULT_BUDGET));
+    }
+}
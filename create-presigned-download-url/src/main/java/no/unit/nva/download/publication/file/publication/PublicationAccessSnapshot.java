@@ -0,0 +1,142 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import no.unit.nva.download.publication.file.publication.model.Contributor;
+import no.unit.nva.download.publication.file.publication.model.EntityDescription;
+import no.unit.nva.download.publication.file.publication.model.File;
+import no.unit.nva.download.publication.file.publication.model.Identity;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants;
+import no.unit.nva.download.publication.file.publication.model.ResourceOwner;
+
+/**
+ * Immutable view of the parts of a publication that file access checks depend on, compiled once per fetched
+ * publication so that looking up a file or a contributor is a hash lookup instead of a scan of the publication.
+ *
+ * <p>Whether a file is under embargo depends on the time of the request, so embargoes are not compiled and are still
+ * evaluated on every check. The snapshot instead knows when the next embargo lifts, so that caches can let go of the
+ * publication exactly when an access decision could change.
+ *
+ * <p>Files without an embargo date are visible or not regardless of time, so the snapshot holds the set of those that
+ * anyone may download. Requests without an identity are decided from that set and the publication status alone.
+ */
+public final class PublicationAccessSnapshot {
+
+    private final Publication sourcePublication;
+    private final Map<UUID, File> filesByIdentifier;
+    private final Set<URI> contributorIds;
+    private final NavigableSet<Instant> embargoDates;
+    private final Set<UUID> publiclyDownloadableFiles;
+    private final String owner;
+    private final boolean published;
+    private final boolean thesis;
+
+    private PublicationAccessSnapshot(Publication publication, Map<UUID, File> files, Set<URI> contributorIds) {
+        this.sourcePublication = publication;
+        this.filesByIdentifier = Collections.unmodifiableMap(files);
+        this.contributorIds = Collections.unmodifiableSet(contributorIds);
+        this.embargoDates = files.values().stream()
+                                .map(File::getEmbargoDate)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toCollection(TreeSet::new));
+        this.published = PublicationStatusConstants.PUBLISHED.equals(publication.status());
+        this.publiclyDownloadableFiles = published
+                                             ? files.values().stream()
+                                                   .filter(PublicationAccessSnapshot::isVisibleForNonOwnerAtAllTimes)
+                                                   .map(File::getIdentifier)
+                                                   .collect(Collectors.toUnmodifiableSet())
+                                             : Set.of();
+        this.owner = Optional.ofNullable(publication.resourceOwner()).map(ResourceOwner::owner).orElse(null);
+        this.thesis = publication.isThesis();
+    }
+
+    /**
+     * Compile the access snapshot of a publication.
+     *
+     * @param publication publication
+     * @return a PublicationAccessSnapshot
+     */
+    public static PublicationAccessSnapshot compile(Publication publication) {
+        var files = new LinkedHashMap<UUID, File>();
+        for (var file : publication.files()) {
+            files.putIfAbsent(file.getIdentifier(), file);
+        }
+        var contributorIds = Optional.ofNullable(publication.entityDescription())
+                                 .map(EntityDescription::contributors)
+                                 .orElse(List.of())
+                                 .stream()
+                                 .filter(Objects::nonNull)
+                                 .map(Contributor::identity)
+                                 .filter(Objects::nonNull)
+                                 .map(Identity::id)
+                                 .filter(Objects::nonNull)
+                                 .collect(Collectors.toSet());
+        return new PublicationAccessSnapshot(publication, files, contributorIds);
+    }
+
+    public Publication publication() {
+        return sourcePublication;
+    }
+
+    public Collection<File> files() {
+        return filesByIdentifier.values();
+    }
+
+    public Optional<File> file(UUID fileIdentifier) {
+        return Optional.ofNullable(filesByIdentifier.get(fileIdentifier));
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+
+    public boolean isThesis() {
+        return thesis;
+    }
+
+    public boolean isOwnedBy(String user) {
+        return owner != null && owner.equals(user);
+    }
+
+    public boolean hasContributorWithId(URI id) {
+        return contributorIds.contains(id);
+    }
+
+    /**
+     * Whether anyone may download a file of the publication, without regard to who is asking.
+     *
+     * @param file file of the publication
+     * @return true if the publication is published and the file is visible for non-owners
+     */
+    public boolean isPubliclyDownloadable(File file) {
+        return publiclyDownloadableFiles.contains(file.getIdentifier())
+               || published && file.getEmbargoDate() != null && file.isVisibleForNonOwner();
+    }
+
+    /**
+     * The first instant after the given one at which an embargo on one of the files lifts.
+     *
+     * @param instant instant to look from
+     * @return when the next embargo lifts, or empty when no file is under embargo after the instant
+     */
+    public Optional<Instant> nextEmbargoLiftAfter(Instant instant) {
+        return Optional.ofNullable(embargoDates.higher(instant));
+    }
+
+    private static boolean isVisibleForNonOwnerAtAllTimes(File file) {
+        return file.getEmbargoDate() == null && file.isVisibleForNonOwner();
+    }
+}
@@ -0,0 +1,97 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import nva.commons.core.Environment;
+
+/**
+ * Settings of the HTTP client used to call the publication API.
+ *
+ * <p>The client prefers HTTP/2, so requests to the publication API share one multiplexed connection. Opening a
+ * connection and waiting for a response are bounded separately, so that a slow publication API fails the request
+ * well before the function timeout. Asynchronous work of the client runs on a small pool of daemon threads instead
+ * of the shared common pool.
+ *
+ * @param connectTimeout  longest time to wait for a connection to be established
+ * @param requestTimeout  longest time to wait for the response headers of a request
+ * @param executorThreads number of threads of the executor of the client
+ */
+public record PublicationApiClientSettings(Duration connectTimeout, Duration requestTimeout, int executorThreads) {
+
+    public static final String PUBLICATION_API_CONNECT_TIMEOUT_MILLIS_ENV = "PUBLICATION_API_CONNECT_TIMEOUT_MILLIS";
+    public static final String PUBLICATION_API_REQUEST_TIMEOUT_MILLIS_ENV = "PUBLICATION_API_REQUEST_TIMEOUT_MILLIS";
+    public static final String PUBLICATION_API_EXECUTOR_THREADS_ENV = "PUBLICATION_API_EXECUTOR_THREADS";
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    public static final int DEFAULT_EXECUTOR_THREADS = 2;
+    public static final String THREAD_NAME_PREFIX = "publication-api-";
+
+    public static PublicationApiClientSettings defaultSettings() {
+        return new PublicationApiClientSettings(DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT,
+                                                DEFAULT_EXECUTOR_THREADS);
+    }
+
+    /**
+     * Read the settings from the environment, falling back to the defaults for unset variables.
+     *
+     * @param environment environment
+     * @return the settings
+     */
+    public static PublicationApiClientSettings fromEnvironment(Environment environment) {
+        return new PublicationApiClientSettings(
+            readMillis(environment, PUBLICATION_API_CONNECT_TIMEOUT_MILLIS_ENV, DEFAULT_CONNECT_TIMEOUT),
+            readMillis(environment, PUBLICATION_API_REQUEST_TIMEOUT_MILLIS_ENV, DEFAULT_REQUEST_TIMEOUT),
+            environment.readEnvOpt(PUBLICATION_API_EXECUTOR_THREADS_ENV).map(Integer::parseInt)
+                .orElse(DEFAULT_EXECUTOR_THREADS));
+    }
+
+    /**
+     * Build an HTTP client configured from the environment.
+     *
+     * @param environment environment
+     * @return an HTTP client for the publication API
+     */
+    public static HttpClient createHttpClient(Environment environment) {
+        return fromEnvironment(environment).newHttpClient();
+    }
+
+    /**
+     * Build an HTTP client with these settings.
+     *
+     * @return an HTTP client for the publication API
+     */
+    public HttpClient newHttpClient() {
+        return HttpClient.newBuilder()
+                   .version(HttpClient.Version.HTTP_2)
+                   .connectTimeout(connectTimeout)
+                   .followRedirects(HttpClient.Redirect.NEVER)
+                   .executor(newExecutor())
+                   .build();
+    }
+
+    @SuppressWarnings("PMD.DoNotUseThreads") // The J2EE restriction does not apply to a Lambda function
+    private ExecutorService newExecutor() {
+        return Executors.newFixedThreadPool(executorThreads, new DaemonThreadFactory());
+    }
+
+    private static Duration readMillis(Environment environment, String name, Duration defaultValue) {
+        return environment.readEnvOpt(name).map(Long::parseLong).map(Duration::ofMillis).orElse(defaultValue);
+    }
+
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package no.unit.nva.download.publication.file.publication;
+
+import com.github.bibsysdev.urlshortener.service.BoundedAccessOrderMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import no.unit.nva.download.publication.file.publication.exception.NotFoundException;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import nva.commons.core.Environment;
+
+/**
+ * Bounded, in-process cache of publications keyed by publication identifier.
+ *
+ * <p>The cache is owned by the {@link RestPublicationService}, which lives as long as the Lambda handler instance,
+ * so entries survive across warm invocations. Entries are evicted least recently used first when the cache is full,
+ * and expire after a configurable time to live. Publications the publication API reported as missing are cached for
+ * a shorter time, so repeated requests for unknown identifiers do not reach the API either.
+ *
+ * <p>Expired publications that came with an entity tag are kept until evicted, so that they can be revalidated with
+ * a conditional request and refreshed without downloading and parsing the publication again. Expired publications
+ * are also kept for a configurable staleness bound past their expiry, and offered as a fallback while the
+ * publication API is failing.
+ *
+ * <p>Each cached publication is held together with its {@link PublicationAccessSnapshot}, compiled when the
+ * publication is stored, so that access checks against a cached publication do not compile it again. A publication
+ * never stays fresh past the moment an embargo on one of its files lifts, so the time to live can be long while
+ * embargo lifts still take effect on time.
+ */
+public class PublicationCache {
+
+    public static final String PUBLICATION_CACHE_MAX_ENTRIES_ENV = "PUBLICATION_CACHE_MAX_ENTRIES";
+    public static final String PUBLICATION_CACHE_TTL_SECONDS_ENV = "PUBLICATION_CACHE_TTL_SECONDS";
+    public static final String PUBLICATION_CACHE_NOT_FOUND_TTL_SECONDS_ENV = "PUBLICATION_CACHE_NOT_FOUND_TTL_SECONDS";
+    public static final String PUBLICATION_CACHE_MAX_STALENESS_SECONDS_ENV = "PUBLICATION_CACHE_MAX_STALENESS_SECONDS";
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(60);
+    public static final Duration DEFAULT_NOT_FOUND_TIME_TO_LIVE = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_MAX_STALENESS = Duration.ofMinutes(5);
+
+    private final Map<String, Entry> entries;
+    private final Clock clock;
+    private final Duration timeToLive;
+    private final Duration notFoundTimeToLive;
+    private final Duration maxStaleness;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+
+    /**
+     * Constructor for PublicationCache.
+     *
+     * @param maxEntries         maximum number of publications held before the least recently used is evicted
+     * @param timeToLive         how long a fetched publication is served from the cache
+     * @param notFoundTimeToLive how long a missing publication is remembered
+     * @param clock              clock used to expire entries
+     */
+    public PublicationCache(int maxEntries, Duration timeToLive, Duration notFoundTimeToLive, Clock clock) {
+        this(maxEntries, timeToLive, notFoundTimeToLive, Duration.ZERO, clock);
+    }
+
+    /**
+     * Constructor for PublicationCache.
+     *
+     * @param maxEntries         maximum number of publications held before the least recently used is evicted
+     * @param timeToLive         how long a fetched publication is served from the cache
+     * @param notFoundTimeToLive how long a missing publication is remembered
+     * @param maxStaleness       how long past its expiry a publication may be served as a fallback
+     * @param clock              clock used to expire entries
+     */
+    public PublicationCache(int maxEntries, Duration timeToLive, Duration notFoundTimeToLive, Duration maxStaleness,
+                            Clock clock) {
+        this.entries = new BoundedAccessOrderMap<>(maxEntries, evictions);
+        this.timeToLive = timeToLive;
+        this.notFoundTimeToLive = notFoundTimeToLive;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    public PublicationCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TIME_TO_LIVE, DEFAULT_NOT_FOUND_TIME_TO_LIVE, DEFAULT_MAX_STALENESS,
+             Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache configured from the environment, falling back to the defaults for unset variables.
+     *
+     * @param environment environment
+     * @return a PublicationCache
+     */
+    public static PublicationCache fromEnvironment(Environment environment) {
+        return new PublicationCache(
+            environment.readEnvOpt(PUBLICATION_CACHE_MAX_ENTRIES_ENV).map(Integer::parseInt)
+                .orElse(DEFAULT_MAX_ENTRIES),
+            readDuration(environment, PUBLICATION_CACHE_TTL_SECONDS_ENV, DEFAULT_TIME_TO_LIVE),
+            readDuration(environment, PUBLICATION_CACHE_NOT_FOUND_TTL_SECONDS_ENV, DEFAULT_NOT_FOUND_TIME_TO_LIVE),
+            readDuration(environment, PUBLICATION_CACHE_MAX_STALENESS_SECONDS_ENV, DEFAULT_MAX_STALENESS),
+            Clock.systemUTC());
+    }
+
+    /**
+     * Look up a publication that has not yet expired.
+     *
+     * @param identifier publication identifier
+     * @return the cached publication, or empty when the publication must be fetched
+     * @throws NotFoundException if the publication API recently reported the publication as missing
+     */
+    public Optional<Publication> get(String identifier) throws NotFoundException {
+        var entry = findUnexpired(identifier);
+        if (entry.isEmpty()) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry.get().publicationOrThrow());
+    }
+
+    /**
+     * Look up an expired publication that can be revalidated with its entity tag.
+     *
+     * @param identifier publication identifier
+     * @return the expired publication and its entity tag, or empty when there is nothing to revalidate
+     */
+    public Optional<StalePublication> getStale(String identifier) {
+        synchronized (entries) {
+            return Optional.ofNullable(entries.get(identifier))
+                       .filter(Entry::isRevalidatable)
+                       .filter(entry -> entry.isExpiredAt(clock.instant()))
+                       .map(entry -> new StalePublication(entry.publication(), entry.etag()));
+        }
+    }
+
+    /**
+     * Look up a publication that expired no longer ago than the staleness bound, to serve while the publication API
+     * is unavailable.
+     *
+     * @param identifier publication identifier
+     * @return the cached publication, or empty when no sufficiently fresh publication is held
+     */
+    public Optional<Publication> getFallback(String identifier) {
+        synchronized (entries) {
+            return Optional.ofNullable(entries.get(identifier))
+                       .filter(entry -> entry.isServableAsFallbackAt(clock.instant(), maxStaleness))
+                       .map(Entry::publication);
+        }
+    }
+
+    /**
+     * Look up the access snapshot compiled for a publication, compiling it when the publication is not the one held
+     * by the cache.
+     *
+     * @param identifier  publication identifier
+     * @param publication publication returned by the cache or the publication API
+     * @return the access snapshot of the publication
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals") // The snapshot belongs to this exact instance
+    public PublicationAccessSnapshot snapshotOf(String identifier, Publication publication) {
+        synchronized (entries) {
+            var entry = entries.get(identifier);
+            if (entry != null && entry.publication() == publication) {
+                return entry.snapshot();
+            }
+        }
+        return PublicationAccessSnapshot.compile(publication);
+    }
+
+    public void put(String identifier, Publication publication, String etag) {
+        storePublication(identifier, PublicationAccessSnapshot.compile(publication), etag);
+    }
+
+    public void putNotFound(String identifier, String notFoundMessage) {
+        store(identifier, new Entry(null, null, null, notFoundMessage, clock.instant().plus(notFoundTimeToLive)));
+    }
+
+    /**
+     * Extend the lifetime of a publication the publication API confirmed as unchanged.
+     *
+     * @param identifier       publication identifier
+     * @param stalePublication the revalidated publication
+     */
+    public void refresh(String identifier, StalePublication stalePublication) {
+        revalidations.incrementAndGet();
+        storePublication(identifier, snapshotOf(identifier, stalePublication.publication()), stalePublication.etag());
+    }
+
+    /**
+     * Remove every entry, for instance when entries may have expired while the execution environment was suspended.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Statistics statistics() {
+        synchronized (entries) {
+            return new Statistics(hits.get(), misses.get(), evictions.get(), revalidations.get(), entries.size());
+        }
+    }
+
+    private Optional<Entry> findUnexpired(String identifier) {
+        synchronized (entries) {
+            var entry = entries.get(identifier);
+            if (entry != null && entry.isExpiredAt(clock.instant())) {
+                if (!entry.isRevalidatable() && !entry.isServableAsFallbackAt(clock.instant(), maxStaleness)) {
+                    entries.remove(identifier);
+                }
+                return Optional.empty();
+            }
+            return Optional.ofNullable(entry);
+        }
+    }
+
+    private void storePublication(String identifier, PublicationAccessSnapshot snapshot, String etag) {
+        var now = clock.instant();
+        var endOfTimeToLive = now.plus(timeToLive);
+        var expires = snapshot.nextEmbargoLiftAfter(now).filter(endOfTimeToLive::isAfter).orElse(endOfTimeToLive);
+        store(identifier, new Entry(snapshot.publication(), snapshot, etag, null, expires));
+    }
+
+    private void store(String identifier, Entry entry) {
+        synchronized (entries) {
+            entries.put(identifier, entry);
+        }
+    }
+
+    private static Duration readDuration(Environment environment, String name, Duration defaultValue) {
+        return environment.readEnvOpt(name).map(Long::parseLong).map(Duration::ofSeconds).orElse(defaultValue);
+    }
+
+    public record Statistics(long hits, long misses, long evictions, long revalidations, int size) {
+
+    }
+
+    public record StalePublication(Publication publication, String etag) {
+
+    }
+
+    private record Entry(Publication publication, PublicationAccessSnapshot snapshot, String etag,
+                         String notFoundMessage, Instant expires) {
+
+        public boolean isExpiredAt(Instant instant) {
+            return !instant.isBefore(expires);
+        }
+
+        public boolean isServableAsFallbackAt(Instant instant, Duration maxStaleness) {
+            return publication != null && instant.isBefore(expires.plus(maxStaleness));
+        }
+
+        public boolean isRevalidatable() {
+            return publication != null && etag != null;
+        }
+
+        public Publication publicationOrThrow() throws NotFoundException {
+            if (publication == null) {
+                throw new NotFoundException(notFoundMessage);
+            }
+            return publication;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static nva.commons.core.attempt.Try.attempt;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+import no.unit.nva.download.publication.file.publication.model.Contributor;
+import no.unit.nva.download.publication.file.publication.model.EntityDescription;
+import no.unit.nva.download.publication.file.publication.model.Identity;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.publication.model.PublicationInstance;
+import no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants;
+import no.unit.nva.download.publication.file.publication.model.PublishedFile;
+import no.unit.nva.download.publication.file.publication.model.Reference;
+import no.unit.nva.download.publication.file.publication.model.ResourceOwner;
+import no.unit.nva.identifiers.SortableIdentifier;
+
+/**
+ * Reads a sample publication the way a publication API response is read, so that the classes involved are loaded and
+ * initialized before a SnapStart snapshot is taken instead of on the first request.
+ */
+final class PublicationServicePrimer {
+
+    private static final URI PRIMING_URI = URI.create("https://example.org/priming");
+    private static final String PRIMING_MIME_TYPE = "application/pdf";
+    private static final String PRIMING_INSTANCE_TYPE = "AcademicArticle";
+    private static final String PRIMING_OWNER = "priming";
+
+    private final ObjectMapper objectMapper;
+    private final long maxResponseBytes;
+
+    PublicationServicePrimer(ObjectMapper objectMapper, long maxResponseBytes) {
+        this.objectMapper = objectMapper;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    /**
+     * Serialize the sample publication and read it back through a bounded stream.
+     *
+     * @return the sample publication as read back
+     */
+    Publication readSamplePublication() {
+        var body = attempt(() -> objectMapper.writeValueAsBytes(samplePublication())).orElseThrow();
+        return attempt(() -> objectMapper.readValue(new BoundedInputStream(new ByteArrayInputStream(body),
+                                                                           maxResponseBytes), Publication.class))
+                   .orElseThrow();
+    }
+
+    private static Publication samplePublication() {
+        var file = new PublishedFile(UUID.randomUUID(), PRIMING_MIME_TYPE, null, false);
+        var entityDescription = new EntityDescription(new Reference(new PublicationInstance(PRIMING_INSTANCE_TYPE)),
+                                                      List.of(new Contributor(new Identity(PRIMING_URI))));
+        return new Publication(SortableIdentifier.next(), PublicationStatusConstants.PUBLISHED,
+                               new ResourceOwner(PRIMING_OWNER, PRIMING_URI), entityDescription, List.of(file));
+    }
+}
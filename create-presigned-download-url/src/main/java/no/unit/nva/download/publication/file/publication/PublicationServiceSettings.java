@@ -0,0 +1,60 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.time.Duration;
+import nva.commons.core.Environment;
+
+/**
+ * Settings of {@link RestPublicationService}: where the publication API is, and how requests to it are bounded and
+ * hedged.
+ *
+ * @param apiScheme        scheme of the publication API
+ * @param apiHost          host of the publication API
+ * @param maxResponseBytes largest publication response that will be read
+ * @param requestTimeout   longest time to wait for the publication API to respond to a request
+ * @param hedgingPolicy    when to hedge slow requests to the publication API
+ */
+public record PublicationServiceSettings(String apiScheme, String apiHost, long maxResponseBytes,
+                                         Duration requestTimeout, HedgingPolicy hedgingPolicy) {
+
+    public static final String API_HOST_ENV = "API_HOST";
+    public static final String API_SCHEME_ENV = "API_SCHEME";
+    public static final String MAX_RESPONSE_BYTES_ENV = "PUBLICATION_MAX_RESPONSE_BYTES";
+    public static final long DEFAULT_MAX_RESPONSE_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * The default settings for a publication API, with hedging disabled.
+     *
+     * @param apiScheme scheme of the publication API
+     * @param apiHost   host of the publication API
+     * @return the settings
+     */
+    public static PublicationServiceSettings defaultSettings(String apiScheme, String apiHost) {
+        return new PublicationServiceSettings(apiScheme, apiHost, DEFAULT_MAX_RESPONSE_BYTES,
+                                              PublicationApiClientSettings.DEFAULT_REQUEST_TIMEOUT,
+                                              HedgingPolicy.disabled());
+    }
+
+    /**
+     * Read the settings from the environment. The scheme and host are required, the other settings fall back to the
+     * defaults when unset.
+     *
+     * @param environment environment
+     * @return the settings
+     */
+    public static PublicationServiceSettings fromEnvironment(Environment environment) {
+        return new PublicationServiceSettings(
+            environment.readEnv(API_SCHEME_ENV),
+            environment.readEnv(API_HOST_ENV),
+            environment.readEnvOpt(MAX_RESPONSE_BYTES_ENV).map(Long::parseLong).orElse(DEFAULT_MAX_RESPONSE_BYTES),
+            PublicationApiClientSettings.fromEnvironment(environment).requestTimeout(),
+            HedgingPolicy.fromEnvironment(environment));
+    }
+
+    public PublicationServiceSettings withMaxResponseBytes(long maxResponseBytes) {
+        return new PublicationServiceSettings(apiScheme, apiHost, maxResponseBytes, requestTimeout, hedgingPolicy);
+    }
+
+    public PublicationServiceSettings withRequestTimeout(Duration requestTimeout) {
+        return new PublicationServiceSettings(apiScheme, apiHost, maxResponseBytes, requestTimeout, hedgingPolicy);
+    }
+}
@@ -0,0 +1,66 @@
+package no.unit.nva.download.publication.file.publication;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Time to first byte and protocol of the responses from the publication API.
+ *
+ * <p>The time to first byte is the time until the status line and headers of a response arrived, which is when
+ * {@code send} returns for a streamed body.
+ */
+public class ResponseMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseMetrics.class);
+
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong http2Responses = new AtomicLong();
+    private final AtomicLong totalTimeToFirstByteNanos = new AtomicLong();
+    private final AtomicLong maxTimeToFirstByteNanos = new AtomicLong();
+
+    /**
+     * Record a response.
+     *
+     * @param response             the response
+     * @param timeToFirstByteNanos time from sending the request until the response headers arrived
+     */
+    public void record(HttpResponse<?> response, long timeToFirstByteNanos) {
+        responses.incrementAndGet();
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            http2Responses.incrementAndGet();
+        }
+        totalTimeToFirstByteNanos.addAndGet(timeToFirstByteNanos);
+        maxTimeToFirstByteNanos.accumulateAndGet(timeToFirstByteNanos, Math::max);
+        LOGGER.debug("Publication API responded with {} over {} after {} ms", response.statusCode(),
+                     response.version(), Duration.ofNanos(timeToFirstByteNanos).toMillis());
+    }
+
+    /**
+     * Statistics of the responses recorded so far.
+     *
+     * @return response statistics
+     */
+    public Statistics statistics() {
+        var count = responses.get();
+        var meanNanos = count == 0 ? 0 : totalTimeToFirstByteNanos.get() / count;
+        return new Statistics(count, http2Responses.get(), Duration.ofNanos(meanNanos),
+                              Duration.ofNanos(maxTimeToFirstByteNanos.get()));
+    }
+
+    /**
+     * Statistics of the responses from the publication API.
+     *
+     * @param requests            number of requests that got a response
+     * @param http2Responses      number of responses received over a shared HTTP/2 connection
+     * @param meanTimeToFirstByte mean time until the response headers arrived
+     * @param maxTimeToFirstByte  longest time until the response headers arrived
+     */
+    public record Statistics(long requests, long http2Responses, Duration meanTimeToFirstByte,
+                             Duration maxTimeToFirstByte) {
+
+    }
+}
@@ -2,21 +2,27 @@ package no.unit.nva.download.publication.file.publication;
 
 import static nva.commons.core.attempt.Try.attempt;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bibsysdev.urlshortener.service.ClientRegistry;
 import io.mikael.urlbuilder.UrlBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.Optional;
 
 import no.unit.nva.commons.json.JsonUtils;
+import no.unit.nva.download.publication.file.publication.PublicationCache.StalePublication;
 import no.unit.nva.download.publication.file.publication.exception.NotFoundException;
+import no.unit.nva.download.publication.file.publication.exception.ServiceUnavailableException;
 import no.unit.nva.download.publication.file.publication.model.Publication;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.apigateway.exceptions.BadGatewayException;
-import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.attempt.Failure;
 import org.apache.http.HttpHeaders;
@@ -29,22 +35,30 @@ public class RestPublicationService {
 
     public static final String PATH = "/publication/";
     public static final String APPLICATION_JSON = "application/json";
+    public static final String HEAD = "HEAD";
 
-    public static final String API_HOST_ENV = "API_HOST";
-    public static final String API_SCHEME_ENV = "API_SCHEME";
+    public static final String HTTP_CLIENT = "publicationApiHttpClient";
     public static final String ERROR_COMMUNICATING_WITH_REMOTE_SERVICE = "Error communicating with remote service: ";
     public static final String ERROR_PUBLICATION_NOT_FOUND_FOR_IDENTIFIER = "Publication not found for identifier: ";
     public static final String EXTERNAL_ERROR_MESSAGE_DECORATION = "Error fetching downloading link for publication:";
     public static final String ERROR_MESSAGE_DELIMITER = " ";
     public static final String RESPONSE_PARSING_ERROR = "Publication service returned an invalid response: ";
+    public static final String ERROR_CIRCUIT_OPEN = "Publication service is unavailable, not fetching publication: ";
+    public static final String RESPONSE_TOO_LARGE_ERROR = "Publication service response exceeds %d bytes: %s";
 
     private final ObjectMapper objectMapper;
     private final HttpClient client;
     private final String apiScheme;
     private final String apiHost;
+    private final PublicationCache publicationCache;
+    private final long maxResponseBytes;
+    private final Duration requestTimeout;
+    private final HedgedRequestSender requestSender;
+    private final CircuitBreaker circuitBreaker;
+    private final ResponseMetrics responseMetrics = new ResponseMetrics();
 
     /**
-     * Constructor for RestPublicationService.
+     * Constructor for RestPublicationService with the default settings, publication cache and circuit breaker.
      *
      * @param client       client
      * @param objectMapper objectMapper
@@ -52,25 +66,53 @@ public class RestPublicationService {
      * @param apiHost      apiHost
      */
     public RestPublicationService(HttpClient client, ObjectMapper objectMapper, String apiScheme, String apiHost) {
+        this(client, objectMapper, PublicationServiceSettings.defaultSettings(apiScheme, apiHost),
+             new PublicationCache(), new CircuitBreaker());
+    }
+
+    /**
+     * Constructor for RestPublicationService.
+     *
+     * @param client           client
+     * @param objectMapper     objectMapper
+     * @param settings         where the publication API is and how requests to it are bounded and hedged
+     * @param publicationCache publicationCache
+     * @param circuitBreaker   circuit breaker guarding the publication API
+     */
+    public RestPublicationService(HttpClient client, ObjectMapper objectMapper, PublicationServiceSettings settings,
+                                  PublicationCache publicationCache, CircuitBreaker circuitBreaker) {
         this.client = client;
         this.objectMapper = objectMapper;
-        this.apiScheme = apiScheme;
-        this.apiHost = apiHost;
+        this.apiScheme = settings.apiScheme();
+        this.apiHost = settings.apiHost();
+        this.publicationCache = publicationCache;
+        this.maxResponseBytes = settings.maxResponseBytes();
+        this.requestTimeout = settings.requestTimeout();
+        this.requestSender = new HedgedRequestSender(client, settings.hedgingPolicy());
+        this.circuitBreaker = circuitBreaker;
     }
 
     /**
      * Constructor for RestPublicationService.
      *
-     * @param environment environment
+     * @param clientRegistry clientRegistry providing the shared HTTP client and the environment
      */
     @JacocoGenerated
-    public RestPublicationService(Environment environment) {
-        this(HttpClient.newHttpClient(), JsonUtils.dtoObjectMapper, environment.readEnv(API_SCHEME_ENV),
-             environment.readEnv(API_HOST_ENV));
+    public RestPublicationService(ClientRegistry clientRegistry) {
+        this(clientRegistry.getOrCreate(HTTP_CLIENT, PublicationApiClientSettings::createHttpClient),
+             JsonUtils.dtoObjectMapper,
+             PublicationServiceSettings.fromEnvironment(clientRegistry.environment()),
+             PublicationCache.fromEnvironment(clientRegistry.environment()),
+             CircuitBreaker.fromEnvironment(clientRegistry.environment()));
     }
 
     /**
-     * Retrieve publication metadata.
+     * Retrieve publication metadata, served from the publication cache when a fresh copy is held. An expired copy
+     * is revalidated with a conditional request and reused when the publication API reports it as unchanged.
+     *
+     * <p>Calls to the publication API go through a circuit breaker. While the circuit is open, or when the call fails,
+     * a cached publication that expired within the staleness bound is served instead. An unexpected exception counts
+     * as a failed call, so that a trial call which throws one opens the circuit again.
      *
      * @param identifier           identifier
      * @return A publication
@@ -79,24 +121,133 @@ public class RestPublicationService {
     public Publication getPublication(String identifier)
         throws ApiGatewayException {
 
-        URI uri = buildUriToPublicationService(identifier);
-        HttpRequest httpRequest = buildHttpRequest(uri);
-        return fetchPublicationFromService(identifier, httpRequest);
+        var cachedPublication = publicationCache.get(identifier);
+        if (cachedPublication.isPresent()) {
+            return cachedPublication.get();
+        }
+        if (!circuitBreaker.allowRequest()) {
+            return fallback(identifier, new ServiceUnavailableException(ERROR_CIRCUIT_OPEN + identifier));
+        }
+        var stalePublication = publicationCache.getStale(identifier);
+        try {
+            URI uri = buildUriToPublicationService(identifier);
+            HttpRequest httpRequest = buildHttpRequest(uri, stalePublication);
+            var publication = fetchPublicationFromService(identifier, httpRequest, stalePublication);
+            circuitBreaker.recordSuccess();
+            return publication;
+        } catch (NotFoundException e) {
+            circuitBreaker.recordSuccess();
+            throw e;
+        } catch (BadGatewayException e) {
+            circuitBreaker.recordFailure();
+            return fallback(identifier, e);
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieve a publication like {@link #getPublication(String)}, together with its compiled access snapshot. The
+     * snapshot is reused for as long as the publication is served from the publication cache.
+     *
+     * @param identifier           identifier
+     * @return the access snapshot of the publication
+     * @throws ApiGatewayException exception thrown if value is missing
+     */
+    public PublicationAccessSnapshot getAccessSnapshot(String identifier) throws ApiGatewayException {
+        return publicationCache.snapshotOf(identifier, getPublication(identifier));
     }
 
-    private Publication fetchPublicationFromService(String identifier, HttpRequest httpRequest)
+    /**
+     * Deserialize a sample publication the way a publication API response is read, and build a request for it,
+     * without sending it. This loads and initializes the classes involved ahead of the first request.
+     */
+    public void prime() {
+        var publication = new PublicationServicePrimer(objectMapper, maxResponseBytes).readSamplePublication();
+        buildHttpRequest(buildUriToPublicationService(publication.identifier().toString()), Optional.empty());
+    }
+
+    /**
+     * Open a connection to the publication API without waiting for it, so that the first request does not pay for
+     * connecting. The response, and any failure, is ignored.
+     */
+    public void warmUp() {
+        var request = HttpRequest.newBuilder()
+                          .uri(buildUriToPublicationService(""))
+                          .timeout(requestTimeout)
+                          .method(HEAD, HttpRequest.BodyPublishers.noBody())
+                          .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    public void clearCache() {
+        publicationCache.clear();
+    }
+
+    public PublicationCache.Statistics cacheStatistics() {
+        return publicationCache.statistics();
+    }
+
+    public HedgedRequestSender.Statistics hedgingStatistics() {
+        return requestSender.statistics();
+    }
+
+    /**
+     * Statistics of the requests sent to the publication API by this service.
+     *
+     * @return request statistics
+     */
+    public ResponseMetrics.Statistics requestStatistics() {
+        return responseMetrics.statistics();
+    }
+
+    private Publication fallback(String identifier, ApiGatewayException failure) throws ApiGatewayException {
+        var fallbackPublication = publicationCache.getFallback(identifier).orElseThrow(() -> failure);
+        LOGGER.warn("Serving stale publication {}: {}", identifier, failure.getMessage());
+        return fallbackPublication;
+    }
+
+    private Publication fetchPublicationFromService(String identifier, HttpRequest httpRequest,
+                                                    Optional<StalePublication> stalePublication)
             throws NotFoundException, BadGatewayException {
 
-        HttpResponse<String> httpResponse = sendHttpRequest(httpRequest);
+        HttpResponse<InputStream> httpResponse = sendHttpRequest(httpRequest);
+        try (InputStream body = new BoundedInputStream(httpResponse.body(), maxResponseBytes)) {
+            return handleResponse(identifier, httpResponse, body, stalePublication);
+        } catch (IOException e) {
+            throw new BadGatewayException(ERROR_COMMUNICATING_WITH_REMOTE_SERVICE + httpRequest.uri().toString());
+        }
+    }
+
+    private Publication handleResponse(String identifier, HttpResponse<InputStream> httpResponse, InputStream body,
+                                       Optional<StalePublication> stalePublication)
+        throws NotFoundException, BadGatewayException {
+        if (httpResponse.statusCode() == SC_NOT_MODIFIED && stalePublication.isPresent()) {
+            publicationCache.refresh(identifier, stalePublication.get());
+            return stalePublication.get().publication();
+        }
         if (httpResponse.statusCode() == SC_NOT_FOUND) {
-            String externalErrorMessage = extractExternalErrorMessage(identifier, httpResponse);
+            String externalErrorMessage = extractExternalErrorMessage(identifier, body);
+            publicationCache.putNotFound(identifier, externalErrorMessage);
             throw new NotFoundException(externalErrorMessage);
         }
-        return parseJsonObjectToPublication(identifier, httpResponse);
+        rejectOversizedResponse(identifier, httpResponse);
+        var publication = parseJsonObjectToPublication(identifier, body);
+        publicationCache.put(identifier, publication, httpResponse.headers().firstValue(HttpHeaders.ETAG).orElse(null));
+        return publication;
     }
 
-    private String extractExternalErrorMessage(String identifier, HttpResponse<String> httpResponse) {
-        String externalErrorMessage = parseResponseBody(httpResponse.body())
+    private void rejectOversizedResponse(String identifier, HttpResponse<InputStream> httpResponse)
+        throws BadGatewayException {
+        var contentLength = httpResponse.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength.isPresent() && contentLength.getAsLong() > maxResponseBytes) {
+            throw new BadGatewayException(String.format(RESPONSE_TOO_LARGE_ERROR, maxResponseBytes, identifier));
+        }
+    }
+
+    private String extractExternalErrorMessage(String identifier, InputStream body) {
+        String externalErrorMessage = parseResponseBody(body)
             .map(Problem::getDetail)
             .orElse(ERROR_PUBLICATION_NOT_FOUND_FOR_IDENTIFIER + identifier);
         return decorateExternalErrorMessage(identifier, externalErrorMessage);
@@ -110,37 +261,46 @@ public class RestPublicationService {
         return EXTERNAL_ERROR_MESSAGE_DECORATION + identifier;
     }
 
-    private Optional<Problem> parseResponseBody(String body) {
+    private Optional<Problem> parseResponseBody(InputStream body) {
         return attempt(() -> objectMapper.readValue(body, Problem.class))
             .toOptional();
     }
 
-    private HttpResponse<String> sendHttpRequest(HttpRequest httpRequest)
+    private HttpResponse<InputStream> sendHttpRequest(HttpRequest httpRequest)
         throws BadGatewayException {
         try {
-            return client.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            var start = System.nanoTime();
+            var response = requestSender.send(httpRequest);
+            responseMetrics.record(response, System.nanoTime() - start);
+            return response;
         } catch (Exception e) {
             throw new BadGatewayException(ERROR_COMMUNICATING_WITH_REMOTE_SERVICE + httpRequest.uri().toString());
         }
     }
 
-    private Publication parseJsonObjectToPublication(String requestedIdentifier, HttpResponse<String> httpResponse)
+    /**
+     * Binds the publication straight from the response stream. Jackson skips every field the publication model does
+     * not declare while streaming, so only the projection used for access control is materialised.
+     */
+    private Publication parseJsonObjectToPublication(String requestedIdentifier, InputStream body)
             throws BadGatewayException {
-        return attempt(() -> objectMapper.readValue(httpResponse.body(), Publication.class))
-                .orElseThrow(fail -> handleParsingError(requestedIdentifier, fail, httpResponse.body()));
+        return attempt(() -> objectMapper.readValue(body, Publication.class))
+                .orElseThrow(fail -> handleParsingError(requestedIdentifier, fail));
     }
 
-    private BadGatewayException handleParsingError(String identifier, Failure<Publication> fail, String body) {
+    private BadGatewayException handleParsingError(String identifier, Failure<Publication> fail) {
         LOGGER.warn(String.format("Failed to look up publication: %s", identifier), fail.getException());
-        return new BadGatewayException(RESPONSE_PARSING_ERROR + body);
+        return new BadGatewayException(RESPONSE_PARSING_ERROR + identifier);
     }
 
-    private HttpRequest buildHttpRequest(URI uri) {
-        return HttpRequest.newBuilder()
+    private HttpRequest buildHttpRequest(URI uri, Optional<StalePublication> stalePublication) {
+        var builder = HttpRequest.newBuilder()
                 .uri(uri)
+                .timeout(requestTimeout)
                 .header(HttpHeaders.ACCEPT, APPLICATION_JSON)
-                .GET()
-                .build();
+                .GET();
+        stalePublication.ifPresent(stale -> builder.header(HttpHeaders.IF_NONE_MATCH, stale.etag()));
+        return builder.build();
     }
 
     private URI buildUriToPublicationService(String identifier) {
@@ -0,0 +1,241 @@
+package no.unit.nva.download.publication.file;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static no.unit.nva.download.publication.file.CreateBulkPresignedDownloadUrlsHandler.BULK_PRESIGN_MAX_FILES_ENV;
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.PUBLISHED;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static nva.commons.apigateway.ApiGatewayHandler.ALLOWED_ORIGIN_ENV;
+import static org.apache.http.HttpStatus.SC_BAD_GATEWAY;
+import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
+import static org.apache.http.HttpStatus.SC_FORBIDDEN;
+import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.s3.AmazonS3;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.publication.RestPublicationService;
+import no.unit.nva.download.publication.file.publication.model.AssociatedArtifact;
+import no.unit.nva.download.publication.file.publication.model.Contributor;
+import no.unit.nva.download.publication.file.publication.model.EntityDescription;
+import no.unit.nva.download.publication.file.publication.model.File;
+import no.unit.nva.download.publication.file.publication.model.Identity;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.publication.model.PublicationInstance;
+import no.unit.nva.download.publication.file.publication.model.PublishedFile;
+import no.unit.nva.download.publication.file.publication.model.Reference;
+import no.unit.nva.download.publication.file.publication.model.ResourceOwner;
+import no.unit.nva.download.publication.file.publication.model.UnpublishedFile;
+import no.unit.nva.download.publication.file.utils.FakeUriShortener;
+import no.unit.nva.identifiers.SortableIdentifier;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.zalando.problem.Problem;
+
+class CreateBulkPresignedDownloadUrlsHandlerTest {
+
+    private static final String OWNER = "owner@unit.no";
+    private static final String ANY_ORIGIN = "*";
+    private static final String ANY_BUCKET = "aBucket";
+    private static final String API_HOST = "example.org";
+    private static final String API_SCHEME = "https";
+    private static final String APPLICATION_PDF = "application/pdf";
+    private static final String PRESIGNED_DOWNLOAD_URL = "https://example.com/download/12345";
+
+    private HttpClient httpClient;
+    private Context context;
+    private ByteArrayOutputStream output;
+    private FakeUriShortener uriShortener;
+    private Environment environment;
+
+    @BeforeEach
+    void setUp() {
+        httpClient = mock(HttpClient.class);
+        context = mock(Context.class);
+        output = new ByteArrayOutputStream();
+        uriShortener = new FakeUriShortener();
+        environment = mock(Environment.class);
+        when(environment.readEnv(ALLOWED_ORIGIN_ENV)).thenReturn(ANY_ORIGIN);
+    }
+
+    @Test
+    void shouldPresignAccessibleFilesAndReportFailuresForTheRest() throws IOException, InterruptedException {
+        var visibleFile = publishedFile();
+        var unpublishedFile = new UnpublishedFile(UUID.randomUUID(), APPLICATION_PDF, null, false);
+        var publication = buildPublication(List.of(visibleFile, unpublishedFile));
+        var otherFile = publishedFile();
+        var otherPublication = buildPublication(List.of(otherFile));
+        var missingPublicationIdentifier = SortableIdentifier.next().toString();
+        mockPublicationRequests(publication, otherPublication);
+        var request = new BulkPresignRequest(List.of(
+            new FileReference(publication.identifier().toString(), visibleFile.getIdentifier()),
+            new FileReference(publication.identifier().toString(), unpublishedFile.getIdentifier()),
+            new FileReference(otherPublication.identifier().toString(), otherFile.getIdentifier()),
+            new FileReference(publication.identifier().toString(), UUID.randomUUID()),
+            new FileReference(missingPublicationIdentifier, UUID.randomUUID())));
+
+        createHandler(createPublicationService()).handleRequest(createRequest(request), output, context);
+
+        var response = GatewayResponse.fromOutputStream(output, BulkPresignedUris.class);
+        assertThat(response.getStatusCode(), is(equalTo(SC_OK)));
+        var body = response.getBodyObject(BulkPresignedUris.class);
+        assertThat(body.files().stream().map(BulkPresignedFileUri::fileIdentifier).toList(),
+                   containsInAnyOrder(visibleFile.getIdentifier(), otherFile.getIdentifier()));
+        assertThat(body.failures().stream().map(BulkPresignFailure::status).toList(),
+                   containsInAnyOrder(SC_FORBIDDEN, SC_NOT_FOUND, SC_NOT_FOUND));
+        assertThat(uriShortener.getWriteRequests(), is(equalTo(1)));
+        verify(httpClient, times(3)).send(any(), any());
+    }
+
+    @Test
+    void shouldReportBadGatewayForPairsWhosePublicationCouldNotBeFetched() throws Exception {
+        var publicationService = mock(RestPublicationService.class);
+        when(publicationService.getAccessSnapshot(anyString())).thenThrow(new IllegalStateException("Broken"));
+        var request = new BulkPresignRequest(List.of(new FileReference(SortableIdentifier.next().toString(),
+                                                                       UUID.randomUUID())));
+
+        createHandler(publicationService).handleRequest(createRequest(request), output, context);
+
+        var body = GatewayResponse.fromOutputStream(output, BulkPresignedUris.class)
+                       .getBodyObject(BulkPresignedUris.class);
+        assertThat(body.files(), is(empty()));
+        assertThat(body.failures().get(0).status(), is(equalTo(SC_BAD_GATEWAY)));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenNoFilesAreRequested() throws IOException {
+        createHandler(createPublicationService())
+            .handleRequest(createRequest(new BulkPresignRequest(List.of())), output, context);
+
+        assertThat(GatewayResponse.fromOutputStream(output, Problem.class).getStatusCode(),
+                   is(equalTo(SC_BAD_REQUEST)));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenMoreFilesThanAllowedAreRequested() throws IOException {
+        when(environment.readEnvOpt(BULK_PRESIGN_MAX_FILES_ENV)).thenReturn(Optional.of("1"));
+        var request = new BulkPresignRequest(List.of(new FileReference(randomIdentifier(), UUID.randomUUID()),
+                                                     new FileReference(randomIdentifier(), UUID.randomUUID())));
+
+        createHandler(createPublicationService()).handleRequest(createRequest(request), output, context);
+
+        assertThat(GatewayResponse.fromOutputStream(output, Problem.class).getStatusCode(),
+                   is(equalTo(SC_BAD_REQUEST)));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenFileReferenceIsIncomplete() throws IOException {
+        var files = new ArrayList<FileReference>();
+        files.add(new FileReference(randomIdentifier(), null));
+        files.add(new FileReference(null, UUID.randomUUID()));
+        files.add(null);
+
+        createHandler(createPublicationService())
+            .handleRequest(createRequest(new BulkPresignRequest(files)), output, context);
+
+        assertThat(GatewayResponse.fromOutputStream(output, Problem.class).getStatusCode(),
+                   is(equalTo(SC_BAD_REQUEST)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"../x", "../../cristin/000000000000000000000000000000000000", "not-an-identifier",
+        "0123456789ab-0123456789ab-0123-0123-0123-0123456789ab"})
+    void shouldReturnBadRequestWhenPublicationIdentifierIsInvalid(String identifier) throws IOException {
+        var publicationService = mock(RestPublicationService.class);
+        var request = new BulkPresignRequest(List.of(new FileReference(randomIdentifier(), UUID.randomUUID()),
+                                                     new FileReference(identifier, UUID.randomUUID())));
+
+        createHandler(publicationService).handleRequest(createRequest(request), output, context);
+
+        assertThat(GatewayResponse.fromOutputStream(output, Problem.class).getStatusCode(),
+                   is(equalTo(SC_BAD_REQUEST)));
+        verifyNoInteractions(publicationService);
+    }
+
+    private CreateBulkPresignedDownloadUrlsHandler createHandler(RestPublicationService publicationService)
+        throws IOException {
+        var amazonS3 = mock(AmazonS3.class);
+        when(amazonS3.generatePresignedUrl(any())).thenReturn(new URL(PRESIGNED_DOWNLOAD_URL));
+        return new CreateBulkPresignedDownloadUrlsHandler(publicationService, new AwsS3Service(amazonS3, ANY_BUCKET),
+                                                          environment, uriShortener);
+    }
+
+    private RestPublicationService createPublicationService() {
+        return new RestPublicationService(httpClient, dtoObjectMapper, API_SCHEME, API_HOST);
+    }
+
+    private void mockPublicationRequests(Publication... publications) throws IOException, InterruptedException {
+        when(httpClient.<InputStream>send(any(), any())).thenAnswer(invocation -> {
+            HttpRequest request = invocation.getArgument(0);
+            for (var publication : publications) {
+                if (request.uri().getPath().endsWith(publication.identifier().toString())) {
+                    return publicationResponse(SC_OK, dtoObjectMapper.writeValueAsString(publication));
+                }
+            }
+            return publicationResponse(SC_NOT_FOUND, "");
+        });
+    }
+
+    private static HttpResponse<InputStream> publicationResponse(int statusCode, String body) {
+        @SuppressWarnings("unchecked")
+        var httpResponse = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(statusCode);
+        when(httpResponse.body()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        return httpResponse;
+    }
+
+    private static File publishedFile() {
+        return new PublishedFile(UUID.randomUUID(), APPLICATION_PDF, null, false);
+    }
+
+    private static Publication buildPublication(List<AssociatedArtifact> associatedArtifacts) {
+        var entityDescription = new EntityDescription(new Reference(new PublicationInstance("AcademicMonograph")),
+                                                      List.of(new Contributor(new Identity(randomUri()))));
+        return new Publication(SortableIdentifier.next(), PUBLISHED,
+                               new ResourceOwner(OWNER, URI.create("https://my.affiliation.com")),
+                               entityDescription, associatedArtifacts);
+    }
+
+    private static String randomIdentifier() {
+        return SortableIdentifier.next().toString();
+    }
+
+    private static InputStream createRequest(BulkPresignRequest request) throws IOException {
+        return new HandlerRequestBuilder<BulkPresignRequest>(dtoObjectMapper)
+                   .withBody(request)
+                   .build();
+    }
+}
@@ -17,23 +17,31 @@ import static nva.commons.apigateway.AccessRight.MANAGE_DEGREE_EMBARGO;
 import static nva.commons.apigateway.AccessRight.MANAGE_RESOURCES_STANDARD;
 import static nva.commons.apigateway.ApiGatewayHandler.ALLOWED_ORIGIN_ENV;
 import static org.apache.http.HttpHeaders.AUTHORIZATION;
+import static org.apache.http.HttpHeaders.CONTENT_LENGTH;
 import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+import static org.apache.http.HttpHeaders.ETAG;
+import static org.apache.http.HttpHeaders.IF_NONE_MATCH;
 import static org.apache.http.HttpStatus.SC_BAD_GATEWAY;
 import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
 import static org.apache.http.HttpStatus.SC_FORBIDDEN;
 import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
 import static org.apache.http.HttpStatus.SC_OK;
+import static org.apache.http.HttpStatus.SC_SERVICE_UNAVAILABLE;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.zalando.problem.Status.BAD_GATEWAY;
 import static org.zalando.problem.Status.BAD_REQUEST;
@@ -44,6 +52,7 @@ import com.amazonaws.services.kms.model.NotFoundException;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.s3.AmazonS3;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -51,7 +60,11 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
@@ -62,6 +75,10 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.publication.CircuitBreaker;
+import no.unit.nva.download.publication.file.publication.PublicationApiClientSettings;
+import no.unit.nva.download.publication.file.publication.PublicationCache;
+import no.unit.nva.download.publication.file.publication.PublicationServiceSettings;
 import no.unit.nva.download.publication.file.publication.RestPublicationService;
 import no.unit.nva.download.publication.file.publication.model.AssociatedLink;
 import no.unit.nva.download.publication.file.publication.model.Contributor;
@@ -76,6 +93,7 @@ import no.unit.nva.download.publication.file.publication.model.Reference;
 import no.unit.nva.download.publication.file.publication.model.ResourceOwner;
 import no.unit.nva.download.publication.file.publication.model.UnpublishableFile;
 import no.unit.nva.download.publication.file.publication.model.UnpublishedFile;
+import no.unit.nva.download.publication.file.utils.FakeTokenUriShortener;
 import no.unit.nva.download.publication.file.utils.FakeUriShortener;
 import no.unit.nva.download.publication.file.utils.FakeUriShortenerThrowingException;
 import no.unit.nva.identifiers.SortableIdentifier;
@@ -89,6 +107,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer;
 import org.zalando.problem.Problem;
 
@@ -116,6 +135,7 @@ class CreatePresignedDownloadUrlHandlerTest {
     private static final String HTTP_EXAMPLE_ORG_PUBLICATION = "https://example.org/publication/";
     private static final String APPLICATION_JSON = "application/json; charset=utf-8";
     private static final String APPLICATION_PDF = "application/pdf";
+    private static final String SOME_ENTITY_TAG = "\"some-entity-tag\"";
     private HttpClient httpClient;
     private Context context;
     private ByteArrayOutputStream output;
@@ -380,6 +400,34 @@ class CreatePresignedDownloadUrlHandlerTest {
         assertProblemEquivalence(gatewayResponse, getForbiddenProblem());
     }
 
+    @ParameterizedTest(name = "Should return OK on the public route for a visible file: {0}")
+    @MethodSource("publiclyDownloadableFileProvider")
+    void shouldReturnOkOnPublicRouteForPubliclyDownloadableFile(File file)
+        throws IOException, InterruptedException {
+        var publication = buildPublication(PUBLISHED, file);
+        var publicationService = mockSuccessfulPublicationRequest(dtoObjectMapper.writeValueAsString(publication));
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), new FakeUriShortener());
+
+        handler.handleRequest(createPublicRouteRequest(publication.identifier(), null), output, context);
+
+        var gatewayResponse = GatewayResponse.fromOutputStream(output, PresignedUri.class);
+        assertThat(gatewayResponse.getStatusCode(), is(equalTo(SC_OK)));
+    }
+
+    @Test
+    void shouldIgnoreIdentityOnPublicRoute() throws IOException, InterruptedException {
+        var publication = buildPublication(PUBLISHED, fileWithEmbargo(FILE_IDENTIFIER));
+        var publicationService = mockSuccessfulPublicationRequest(dtoObjectMapper.writeValueAsString(publication));
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), new FakeUriShortener());
+
+        handler.handleRequest(createPublicRouteRequest(publication.identifier(), OWNER_USER_ID), output, context);
+
+        var gatewayResponse = GatewayResponse.fromOutputStream(output, Problem.class);
+        assertBasicRestRequirements(gatewayResponse, SC_FORBIDDEN, APPLICATION_PROBLEM_JSON);
+    }
+
     @ParameterizedTest
     @MethodSource("badRequestProvider")
     void shouldReturnBadRequestWhenRequestIsBad(InputStream request, String detail) throws IOException,
@@ -541,6 +589,225 @@ class CreatePresignedDownloadUrlHandlerTest {
         assertThat(logAppender.getMessages(), not(containsString("Could not authorize user")));
     }
 
+    @Test
+    void shouldServeRepeatedRequestsForSamePublicationFromCache() throws IOException, InterruptedException {
+        var s3Service = getAwsS3ServiceReturningPresignedUrl();
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var publicationService = mockSuccessfulPublicationRequest(dtoObjectMapper.writeValueAsString(publication));
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, s3Service, mockEnvironment(),
+                                                            new FakeUriShortener());
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), new ByteArrayOutputStream(), context);
+
+        verify(httpClient, times(1)).send(any(), any());
+        assertThat(publicationService.cacheStatistics().hits(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldBoundPublicationRequestsWithTimeoutAndRecordTimeToFirstByte() throws IOException,
+                                                                                  InterruptedException {
+        var s3Service = getAwsS3ServiceReturningPresignedUrl();
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var publicationService = mockSuccessfulPublicationRequest(dtoObjectMapper.writeValueAsString(publication));
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, s3Service, mockEnvironment(),
+                                                            new FakeUriShortener());
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+
+        var request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(request.capture(), any());
+        assertThat(request.getValue().timeout().orElseThrow(),
+                   is(equalTo(PublicationApiClientSettings.DEFAULT_REQUEST_TIMEOUT)));
+        var statistics = publicationService.requestStatistics();
+        assertThat(statistics.requests(), is(equalTo(1L)));
+        assertThat(statistics.maxTimeToFirstByte(), is(equalTo(statistics.meanTimeToFirstByte())));
+        assertThat(publicationService.hedgingStatistics().hedges(), is(equalTo(0L)));
+    }
+
+    @Test
+    void shouldServeStalePublicationWhenPublicationApiFails() throws IOException, InterruptedException {
+        var s3Service = getAwsS3ServiceReturningPresignedUrl();
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var publicationService = mockPublicationServiceFailingAfterFirstRequest(
+            dtoObjectMapper.writeValueAsString(publication), new CircuitBreaker());
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, s3Service, mockEnvironment(),
+                                                            new FakeUriShortener());
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), new ByteArrayOutputStream(), context);
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+
+        var gatewayResponse = GatewayResponse.fromString(output.toString(), PresignedUri.class);
+        assertBasicRestRequirements(gatewayResponse, SC_OK, APPLICATION_JSON);
+        verify(httpClient, times(2)).send(any(), any());
+    }
+
+    @Test
+    void shouldFailFastWithoutCallingPublicationApiWhenCircuitIsOpen() throws IOException, InterruptedException {
+        var s3Service = getAwsS3ServiceReturningPresignedUrl();
+        var circuitBreaker = new CircuitBreaker(1, Duration.ofMinutes(1), Clock.systemUTC());
+        var publicationService = new RestPublicationService(httpClient, dtoObjectMapper,
+                                                            settings().withRequestTimeout(Duration.ofSeconds(1)),
+                                                            new PublicationCache(), circuitBreaker);
+        when(httpClient.<InputStream>send(any(), any())).thenThrow(IOException.class);
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, s3Service, mockEnvironment(),
+                                                            new FakeUriShortener());
+        var identifier = SortableIdentifier.next();
+
+        handler.handleRequest(createAnonymousRequest(identifier), new ByteArrayOutputStream(), context);
+        handler.handleRequest(createAnonymousRequest(identifier), output, context);
+
+        var gatewayResponse = GatewayResponse.fromOutputStream(output, Problem.class);
+        assertBasicRestRequirements(gatewayResponse, SC_SERVICE_UNAVAILABLE, APPLICATION_PROBLEM_JSON);
+        verify(httpClient, times(1)).send(any(), any());
+        assertThat(circuitBreaker.state(), is(equalTo(CircuitBreaker.State.OPEN)));
+    }
+
+    @Test
+    void shouldLetCallsThroughAgainWhenTrialCallThrowsUnexpectedException() throws IOException, InterruptedException {
+        var s3Service = getAwsS3ServiceReturningPresignedUrl();
+        var circuitBreaker = new CircuitBreaker(1, Duration.ZERO, Clock.systemUTC());
+        var publicationService = new RestPublicationService(httpClient, dtoObjectMapper,
+                                                            settings().withRequestTimeout(Duration.ofSeconds(1)),
+                                                            new PublicationCache(), circuitBreaker);
+        when(httpClient.<InputStream>send(any(), any())).thenThrow(IOException.class)
+            .thenThrow(IllegalStateException.class);
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, s3Service, mockEnvironment(),
+                                                            new FakeUriShortener());
+        var identifier = SortableIdentifier.next();
+
+        handler.handleRequest(createAnonymousRequest(identifier), new ByteArrayOutputStream(), context);
+        handler.handleRequest(createAnonymousRequest(identifier), new ByteArrayOutputStream(), context);
+        handler.handleRequest(createAnonymousRequest(identifier), output, context);
+
+        verify(httpClient, times(3)).send(any(), any());
+        assertThat(circuitBreaker.state(), is(equalTo(CircuitBreaker.State.OPEN)));
+    }
+
+    @Test
+    void shouldRevalidateExpiredPublicationWithEntityTag() throws IOException, InterruptedException {
+        var s3Service = getAwsS3ServiceReturningPresignedUrl();
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var publicationService = mockRevalidatingPublicationService(dtoObjectMapper.writeValueAsString(publication));
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService, s3Service, mockEnvironment(),
+                                                            new FakeUriShortener());
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), new ByteArrayOutputStream(), context);
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+
+        var gatewayResponse = GatewayResponse.fromString(output.toString(), PresignedUri.class);
+        assertBasicRestRequirements(gatewayResponse, SC_OK, APPLICATION_JSON);
+        var requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient, times(2)).send(requests.capture(), any());
+        assertThat(requests.getAllValues().get(1).headers().firstValue(IF_NONE_MATCH).orElseThrow(),
+                   is(equalTo(SOME_ENTITY_TAG)));
+        assertThat(publicationService.cacheStatistics().revalidations(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldReturnBadGatewayWhenPublicationResponseDeclaresTooLargeBody() throws IOException,
+                                                                                   InterruptedException {
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var body = dtoObjectMapper.writeValueAsString(publication);
+        var publicationService = mockPublicationRequestWithLimitedBodySize(body, Map.of(
+            CONTENT_LENGTH, List.of(String.valueOf(body.length()))), body.length() - 1);
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService,
+                                                            getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), new FakeUriShortener());
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+
+        var gatewayResponse = GatewayResponse.fromOutputStream(output, Problem.class);
+        assertBasicRestRequirements(gatewayResponse, SC_BAD_GATEWAY, APPLICATION_PROBLEM_JSON);
+    }
+
+    @Test
+    void shouldReturnBadGatewayWhenPublicationResponseBodyExceedsLimit() throws IOException,
+                                                                               InterruptedException {
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var body = dtoObjectMapper.writeValueAsString(publication);
+        var publicationService = mockPublicationRequestWithLimitedBodySize(body, Map.of(), body.length() - 1);
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService,
+                                                            getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), new FakeUriShortener());
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+
+        var gatewayResponse = GatewayResponse.fromOutputStream(output, Problem.class);
+        assertBasicRestRequirements(gatewayResponse, SC_BAD_GATEWAY, APPLICATION_PROBLEM_JSON);
+    }
+
+    @Test
+    void shouldRememberMissingPublicationBetweenRequests() throws IOException, InterruptedException {
+        var publicationIdentifier = SortableIdentifier.next();
+        var publicationService = mockNotFoundPublicationService(publicationIdentifier);
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService,
+                                                            getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), new FakeUriShortener());
+
+        handler.handleRequest(createAnonymousRequest(publicationIdentifier), new ByteArrayOutputStream(), context);
+        handler.handleRequest(createAnonymousRequest(publicationIdentifier), output, context);
+
+        var gatewayResponse = GatewayResponse.fromOutputStream(output, Problem.class);
+        assertBasicRestRequirements(gatewayResponse, SC_NOT_FOUND, APPLICATION_PROBLEM_JSON);
+        verify(httpClient, times(1)).send(any(), any());
+    }
+
+    @Test
+    void shouldReusePresignedUriForPublicFileWhileItRemainsValid() throws IOException, InterruptedException {
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var publicationService = mockSuccessfulPublicationRequest(dtoObjectMapper.writeValueAsString(publication));
+        var uriShortener = new FakeUriShortener();
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService,
+                                                            getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), uriShortener);
+        var firstOutput = new ByteArrayOutputStream();
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), firstOutput, context);
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+
+        var first = GatewayResponse.fromOutputStream(firstOutput, PresignedUri.class);
+        var second = GatewayResponse.fromOutputStream(output, PresignedUri.class);
+        assertThat(second.getBodyObject(PresignedUri.class), is(equalTo(first.getBodyObject(PresignedUri.class))));
+        assertThat(uriShortener.getWriteRequests(), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldShortenFileAsTokenWithoutStoringMappingWhenTokensAreEnabled() throws IOException,
+                                                                                  InterruptedException {
+        var publication = buildPublication(PUBLISHED, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var publicationService = mockSuccessfulPublicationRequest(dtoObjectMapper.writeValueAsString(publication));
+        var uriShortener = new FakeTokenUriShortener();
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService,
+                                                            getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), uriShortener);
+
+        handler.handleRequest(createAnonymousRequest(publication.identifier()), output, context);
+
+        var presignedUri = GatewayResponse.fromOutputStream(output, PresignedUri.class)
+                               .getBodyObject(PresignedUri.class);
+        assertThat(presignedUri.getShortenedVersion(),
+                   startsWith(FakeTokenUriShortener.TOKEN_DOMAIN + FILE_IDENTIFIER + "."));
+        assertThat(uriShortener.getWriteRequests(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldNotReusePresignedUriForRestrictedFile() throws IOException, InterruptedException {
+        var publication = buildPublication(DRAFT, fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER));
+        var publicationService = mockSuccessfulPublicationRequest(dtoObjectMapper.writeValueAsString(publication));
+        var uriShortener = new FakeUriShortener();
+        var handler = new CreatePresignedDownloadUrlHandler(publicationService,
+                                                            getAwsS3ServiceReturningPresignedUrl(),
+                                                            mockEnvironment(), uriShortener);
+        var owner = publication.resourceOwner().owner();
+
+        handler.handleRequest(createRequest(owner, publication.identifier(), FILE_IDENTIFIER),
+                              new ByteArrayOutputStream(), context);
+        handler.handleRequest(createRequest(owner, publication.identifier(), FILE_IDENTIFIER), output, context);
+
+        assertThat(uriShortener.getWriteRequests(), is(equalTo(2)));
+    }
+
     private static Stream<String> userSupplier() {
         return Stream.of(
             OWNER_USER_ID,
@@ -607,6 +874,12 @@ class CreatePresignedDownloadUrlHandlerTest {
         );
     }
 
+    private static Stream<File> publiclyDownloadableFileProvider() {
+        return Stream.of(fileWithoutEmbargo(APPLICATION_PDF, FILE_IDENTIFIER),
+                         new PublishedFile(FILE_IDENTIFIER, APPLICATION_PDF, Instant.now().minus(Duration.ofDays(1L)),
+                                           false));
+    }
+
     private static File fileWithEmbargo(UUID fileIdentifier) {
         var embargo = Instant.now().plus(Duration.ofDays(3L));
         return new PublishedFile(
@@ -649,6 +922,15 @@ class CreatePresignedDownloadUrlHandlerTest {
                    .build();
     }
 
+    private static InputStream createPublicRouteRequest(SortableIdentifier publicationIdentifier, String userName)
+        throws JsonProcessingException {
+        var builder = new HandlerRequestBuilder<Void>(dtoObjectMapper)
+                          .withRequestContextValue("resourcePath", "/public/{identifier}/files/{fileIdentifier}")
+                          .withPathParameters(Map.of(IDENTIFIER, publicationIdentifier.toString(),
+                                                     IDENTIFIER_FILE, FILE_IDENTIFIER.toString()));
+        return userName == null ? builder.build() : builder.withUserName(userName).build();
+    }
+
     private static InputStream createNonOwnerRequest(SortableIdentifier publicationIdentifier)
         throws JsonProcessingException {
         return new HandlerRequestBuilder<Void>(dtoObjectMapper)
@@ -719,14 +1001,18 @@ class CreatePresignedDownloadUrlHandlerTest {
     private RestPublicationService mockPublicationServiceReturningStrangeResponse() throws IOException,
                                                                                            InterruptedException {
         @SuppressWarnings("unchecked")
-        var response = (HttpResponse<String>) mock(HttpResponse.class);
+        var response = (HttpResponse<InputStream>) mock(HttpResponse.class);
         when(response.statusCode()).thenAnswer(i -> 404);
-        when(response.body()).thenAnswer(i -> getStrangeResponse());
-        when(httpClient.<String>send(any(), any())).thenAnswer((Answer<HttpResponse<String>>) invocation ->
-                                                                                                  response);
+        when(response.body()).thenAnswer(i -> toInputStream(getStrangeResponse()));
+        when(httpClient.<InputStream>send(any(), any())).thenAnswer(
+            (Answer<HttpResponse<InputStream>>) invocation -> response);
         return new RestPublicationService(httpClient, dtoObjectMapper, API_SCHEME, API_HOST);
     }
 
+    private static InputStream toInputStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
     private String getStrangeResponse() {
         return "Cowboys code with strings";
     }
@@ -751,17 +1037,18 @@ class CreatePresignedDownloadUrlHandlerTest {
 
     private RestPublicationService mockUnresponsivePublicationService() throws IOException, InterruptedException {
         var publicationService = new RestPublicationService(httpClient, dtoObjectMapper, API_SCHEME, API_HOST);
-        when(httpClient.<String>send(any(), any())).thenThrow(IOException.class);
+        when(httpClient.<InputStream>send(any(), any())).thenThrow(IOException.class);
         return publicationService;
     }
 
     private RestPublicationService mockNotFoundPublicationService(SortableIdentifier publicationIdentifier)
         throws IOException, InterruptedException {
         @SuppressWarnings("unchecked")
-        var response = (HttpResponse<String>) mock(HttpResponse.class);
+        var response = (HttpResponse<InputStream>) mock(HttpResponse.class);
         when(response.statusCode()).thenAnswer(i -> 404);
-        when(response.body()).thenAnswer(i -> notFoundProblem(publicationIdentifier));
-        when(httpClient.<String>send(any(), any())).thenAnswer((Answer<HttpResponse<String>>) invocation -> response);
+        when(response.body()).thenAnswer(i -> toInputStream(notFoundProblem(publicationIdentifier)));
+        when(httpClient.<InputStream>send(any(), any())).thenAnswer(
+            (Answer<HttpResponse<InputStream>>) invocation -> response);
         return new RestPublicationService(httpClient, dtoObjectMapper, API_SCHEME, API_HOST);
     }
 
@@ -843,12 +1130,66 @@ class CreatePresignedDownloadUrlHandlerTest {
 
     private RestPublicationService mockSuccessfulPublicationRequest(String responseBody)
         throws IOException, InterruptedException {
-        var publicationService = new RestPublicationService(httpClient, dtoObjectMapper, API_SCHEME, API_HOST);
         @SuppressWarnings("unchecked")
-        var response = (HttpResponse<String>) mock(HttpResponse.class);
-        when((response.body())).thenAnswer(i -> responseBody);
-        when(httpClient.<String>send(any(), any())).thenAnswer((Answer<HttpResponse<String>>) invocation -> response);
-        return publicationService;
+        var response = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when((response.body())).thenAnswer(i -> toInputStream(responseBody));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(httpClient.<InputStream>send(any(), any())).thenAnswer(
+            (Answer<HttpResponse<InputStream>>) invocation -> response);
+        return new RestPublicationService(httpClient, dtoObjectMapper, API_SCHEME, API_HOST);
+    }
+
+    private RestPublicationService mockPublicationRequestWithLimitedBodySize(String responseBody,
+                                                                            Map<String, List<String>> headers,
+                                                                            long maxResponseBytes)
+        throws IOException, InterruptedException {
+        @SuppressWarnings("unchecked")
+        var response = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(SC_OK);
+        when(response.body()).thenAnswer(i -> toInputStream(responseBody));
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        when(httpClient.<InputStream>send(any(), any())).thenReturn(response);
+        return new RestPublicationService(httpClient, dtoObjectMapper,
+                                          settings().withMaxResponseBytes(maxResponseBytes),
+                                          new PublicationCache(), new CircuitBreaker());
+    }
+
+    private RestPublicationService mockPublicationServiceFailingAfterFirstRequest(String responseBody,
+                                                                                 CircuitBreaker circuitBreaker)
+        throws IOException, InterruptedException {
+        @SuppressWarnings("unchecked")
+        var response = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(SC_OK);
+        when(response.body()).thenAnswer(i -> toInputStream(responseBody));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(httpClient.<InputStream>send(any(), any())).thenReturn(response).thenThrow(IOException.class);
+        var expiringCache = new PublicationCache(1, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(5),
+                                                 Clock.systemUTC());
+        return new RestPublicationService(httpClient, dtoObjectMapper,
+                                          settings().withRequestTimeout(Duration.ofSeconds(1)), expiringCache,
+                                          circuitBreaker);
+    }
+
+    private RestPublicationService mockRevalidatingPublicationService(String responseBody)
+        throws IOException, InterruptedException {
+        @SuppressWarnings("unchecked")
+        var response = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(SC_OK);
+        when(response.body()).thenAnswer(i -> toInputStream(responseBody));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(ETAG, List.of(SOME_ENTITY_TAG)),
+                                                           (name, value) -> true));
+        @SuppressWarnings("unchecked")
+        var notModifiedResponse = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(notModifiedResponse.statusCode()).thenReturn(SC_NOT_MODIFIED);
+        when(notModifiedResponse.body()).thenReturn(InputStream.nullInputStream());
+        when(httpClient.<InputStream>send(any(), any())).thenReturn(response, notModifiedResponse);
+        var alwaysExpiringCache = new PublicationCache(1, Duration.ZERO, Duration.ZERO, Clock.systemUTC());
+        return new RestPublicationService(httpClient, dtoObjectMapper, settings(), alwaysExpiringCache,
+                                          new CircuitBreaker());
+    }
+
+    private static PublicationServiceSettings settings() {
+        return PublicationServiceSettings.defaultSettings(API_SCHEME, API_HOST);
     }
 
     private InputStream createRequest(String user, SortableIdentifier identifier, UUID fileIdentifier)
@@ -0,0 +1,206 @@
+package no.unit.nva.download.publication.file;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.DRAFT;
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.PUBLISHED;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static nva.commons.apigateway.ApiGatewayHandler.ALLOWED_ORIGIN_ENV;
+import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.s3.AmazonS3;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.publication.RestPublicationService;
+import no.unit.nva.download.publication.file.publication.model.AssociatedArtifact;
+import no.unit.nva.download.publication.file.publication.model.AssociatedLink;
+import no.unit.nva.download.publication.file.publication.model.Contributor;
+import no.unit.nva.download.publication.file.publication.model.EntityDescription;
+import no.unit.nva.download.publication.file.publication.model.File;
+import no.unit.nva.download.publication.file.publication.model.Identity;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.publication.model.PublicationInstance;
+import no.unit.nva.download.publication.file.publication.model.PublishedFile;
+import no.unit.nva.download.publication.file.publication.model.Reference;
+import no.unit.nva.download.publication.file.publication.model.ResourceOwner;
+import no.unit.nva.download.publication.file.publication.model.UnpublishedFile;
+import no.unit.nva.download.publication.file.utils.FakeUriShortener;
+import no.unit.nva.identifiers.SortableIdentifier;
+import no.unit.nva.testutils.HandlerRequestBuilder;
+import nva.commons.apigateway.GatewayResponse;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Problem;
+
+class CreatePresignedDownloadUrlsHandlerTest {
+
+    private static final String OWNER = "owner@unit.no";
+    private static final String ANY_ORIGIN = "*";
+    private static final String ANY_BUCKET = "aBucket";
+    private static final String API_HOST = "example.org";
+    private static final String API_SCHEME = "https";
+    private static final String APPLICATION_PDF = "application/pdf";
+    private static final String PRESIGNED_DOWNLOAD_URL = "https://example.com/download/12345";
+
+    private HttpClient httpClient;
+    private Context context;
+    private ByteArrayOutputStream output;
+    private FakeUriShortener uriShortener;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        httpClient = mock(HttpClient.class);
+        context = mock(Context.class);
+        output = new ByteArrayOutputStream();
+        uriShortener = new FakeUriShortener();
+    }
+
+    @Test
+    void shouldReturnPresignedUrisForEveryPublicFileOfPublishedPublication() throws IOException,
+                                                                                    InterruptedException {
+        var visibleFile = publishedFile(null);
+        var otherVisibleFile = publishedFile(null);
+        var embargoedFile = publishedFile(Instant.now().plus(1, ChronoUnit.DAYS));
+        var unpublishedFile = new UnpublishedFile(UUID.randomUUID(), APPLICATION_PDF, null, false);
+        var publication = buildPublication(PUBLISHED, List.of(visibleFile, new AssociatedLink(), otherVisibleFile,
+                                                              embargoedFile, unpublishedFile));
+        var handler = createHandler(publication);
+
+        handler.handleRequest(anonymousRequest(publication.identifier()), output, context);
+
+        var response = GatewayResponse.fromOutputStream(output, PresignedUris.class);
+        assertThat(response.getStatusCode(), is(equalTo(SC_OK)));
+        var files = response.getBodyObject(PresignedUris.class).files();
+        assertThat(files.stream().map(PresignedFileUri::fileIdentifier).toList(),
+                   containsInAnyOrder(visibleFile.getIdentifier(), otherVisibleFile.getIdentifier()));
+        assertThat(files.stream().map(PresignedFileUri::shortenedVersion).toList(), everyItem(is(notNullValue())));
+        assertThat(uriShortener.getWriteRequests(), is(equalTo(1)));
+        verify(httpClient, times(1)).send(any(), any());
+    }
+
+    @Test
+    void shouldReturnPresignedUrisForEveryFileWhenRequesterIsOwner() throws IOException, InterruptedException {
+        var publishedFile = publishedFile(null);
+        var unpublishedFile = new UnpublishedFile(UUID.randomUUID(), APPLICATION_PDF, null, false);
+        var publication = buildPublication(DRAFT, List.of(publishedFile, unpublishedFile));
+        var handler = createHandler(publication);
+
+        handler.handleRequest(ownerRequest(publication.identifier()), output, context);
+
+        var files = GatewayResponse.fromOutputStream(output, PresignedUris.class)
+                        .getBodyObject(PresignedUris.class)
+                        .files();
+        assertThat(files.stream().map(PresignedFileUri::fileIdentifier).toList(),
+                   containsInAnyOrder(publishedFile.getIdentifier(), unpublishedFile.getIdentifier()));
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenNoFileIsAccessible() throws IOException, InterruptedException {
+        var publication = buildPublication(DRAFT, List.of(publishedFile(null)));
+        var handler = createHandler(publication);
+
+        handler.handleRequest(anonymousRequest(publication.identifier()), output, context);
+
+        var response = GatewayResponse.fromOutputStream(output, PresignedUris.class);
+        assertThat(response.getStatusCode(), is(equalTo(SC_OK)));
+        assertThat(response.getBodyObject(PresignedUris.class).files(), is(empty()));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenPublicationDoesNotExist() throws IOException, InterruptedException {
+        @SuppressWarnings("unchecked")
+        var httpResponse = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(SC_NOT_FOUND);
+        when(httpResponse.body()).thenReturn(InputStream.nullInputStream());
+        when(httpClient.<InputStream>send(any(), any())).thenReturn(httpResponse);
+        var handler = new CreatePresignedDownloadUrlsHandler(publicationService(), s3Service(), mockEnvironment(),
+                                                             uriShortener);
+
+        handler.handleRequest(anonymousRequest(SortableIdentifier.next()), output, context);
+
+        var response = GatewayResponse.fromOutputStream(output, Problem.class);
+        assertThat(response.getStatusCode(), is(equalTo(SC_NOT_FOUND)));
+    }
+
+    private CreatePresignedDownloadUrlsHandler createHandler(Publication publication)
+        throws IOException, InterruptedException {
+        var body = dtoObjectMapper.writeValueAsString(publication);
+        @SuppressWarnings("unchecked")
+        var httpResponse = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(httpResponse.statusCode()).thenReturn(SC_OK);
+        when(httpResponse.body()).thenAnswer(i -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        when(httpResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(httpClient.<InputStream>send(any(), any())).thenReturn(httpResponse);
+        return new CreatePresignedDownloadUrlsHandler(publicationService(), s3Service(), mockEnvironment(),
+                                                      uriShortener);
+    }
+
+    private RestPublicationService publicationService() {
+        return new RestPublicationService(httpClient, dtoObjectMapper, API_SCHEME, API_HOST);
+    }
+
+    private static AwsS3Service s3Service() throws IOException {
+        var amazonS3 = mock(AmazonS3.class);
+        when(amazonS3.generatePresignedUrl(any())).thenReturn(new URL(PRESIGNED_DOWNLOAD_URL));
+        return new AwsS3Service(amazonS3, ANY_BUCKET);
+    }
+
+    private static Environment mockEnvironment() {
+        var environment = mock(Environment.class);
+        when(environment.readEnv(ALLOWED_ORIGIN_ENV)).thenReturn(ANY_ORIGIN);
+        return environment;
+    }
+
+    private static File publishedFile(Instant embargoDate) {
+        return new PublishedFile(UUID.randomUUID(), APPLICATION_PDF, embargoDate, false);
+    }
+
+    private static Publication buildPublication(String status, List<AssociatedArtifact> associatedArtifacts) {
+        var entityDescription = new EntityDescription(new Reference(new PublicationInstance("AcademicMonograph")),
+                                                      List.of(new Contributor(new Identity(randomUri()))));
+        return new Publication(SortableIdentifier.next(), status,
+                               new ResourceOwner(OWNER, URI.create("https://my.affiliation.com")),
+                               entityDescription, associatedArtifacts);
+    }
+
+    private static InputStream anonymousRequest(SortableIdentifier identifier) throws IOException {
+        return new HandlerRequestBuilder<Void>(dtoObjectMapper)
+                   .withPathParameters(Map.of(RequestUtil.IDENTIFIER, identifier.toString()))
+                   .build();
+    }
+
+    private static InputStream ownerRequest(SortableIdentifier identifier) throws IOException {
+        return new HandlerRequestBuilder<Void>(dtoObjectMapper)
+                   .withCurrentCustomer(randomUri())
+                   .withUserName(OWNER)
+                   .withPathParameters(Map.of(RequestUtil.IDENTIFIER, identifier.toString()))
+                   .build();
+    }
+}
@@ -0,0 +1,87 @@
+package no.unit.nva.download.publication.file;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.github.bibsysdev.urlshortener.service.UriShortener;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.util.List;
+import no.unit.nva.download.publication.file.aws.s3.AwsS3Service;
+import no.unit.nva.download.publication.file.aws.s3.PresignedUrlGenerator;
+import no.unit.nva.download.publication.file.publication.CircuitBreaker;
+import no.unit.nva.download.publication.file.publication.PublicationCache;
+import no.unit.nva.download.publication.file.publication.PublicationServiceSettings;
+import no.unit.nva.download.publication.file.publication.RestPublicationService;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.utils.FakeUriShortener;
+import no.unit.nva.identifiers.SortableIdentifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PresignPrimingTest {
+
+    private static final String PRESIGNED_DOWNLOAD_URL = "https://example.com/download/12345";
+
+    private HttpClient httpClient;
+    private PublicationCache publicationCache;
+    private RestPublicationService publicationService;
+
+    @BeforeEach
+    void setUp() {
+        httpClient = mock(HttpClient.class);
+        publicationCache = new PublicationCache();
+        publicationService = new RestPublicationService(httpClient, dtoObjectMapper,
+                                                        PublicationServiceSettings.defaultSettings("https",
+                                                                                                   "example.org"),
+                                                        publicationCache, new CircuitBreaker());
+    }
+
+    @Test
+    void shouldPrimeWithoutCallingPublicationApi() throws Exception {
+        var amazonS3 = mock(AmazonS3.class);
+        when(amazonS3.generatePresignedUrl(any())).thenReturn(new URL(PRESIGNED_DOWNLOAD_URL));
+        var priming = new PresignPriming(publicationService, new AwsS3Service(amazonS3, "aBucket"),
+                                         new FakeUriShortener());
+
+        priming.beforeCheckpoint(null);
+
+        verify(amazonS3).generatePresignedUrl(any());
+        verifyNoInteractions(httpClient);
+    }
+
+    @Test
+    void shouldNotFailCheckpointWhenPresigningCannotBePrimed() {
+        var amazonS3 = mock(AmazonS3.class);
+        when(amazonS3.generatePresignedUrl(any())).thenThrow(new SdkClientException("No credentials"));
+        var priming = new PresignPriming(publicationService, new AwsS3Service(amazonS3, "aBucket"),
+                                         new FakeUriShortener());
+
+        assertDoesNotThrow(() -> priming.beforeCheckpoint(null));
+    }
+
+    @Test
+    void shouldDropStateFromBeforeSnapshotAndOpenConnectionAfterRestore() {
+        var publication = new Publication(SortableIdentifier.next(), null, null, null, List.of());
+        publicationCache.put(publication.identifier().toString(), publication, null);
+        var presignedUrlGenerator = mock(PresignedUrlGenerator.class);
+        var uriShortener = mock(UriShortener.class);
+        var priming = new PresignPriming(publicationService, new AwsS3Service(presignedUrlGenerator), uriShortener);
+
+        priming.afterRestore(null);
+
+        assertThat(publicationCache.statistics().size(), is(equalTo(0)));
+        verify(presignedUrlGenerator).reset();
+        verify(uriShortener).reset();
+        verify(httpClient).sendAsync(any(), any());
+    }
+}
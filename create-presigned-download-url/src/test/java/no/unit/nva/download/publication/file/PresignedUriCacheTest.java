@@ -0,0 +1,140 @@
+package no.unit.nva.download.publication.file;
+
+import static no.unit.nva.download.publication.file.PresignedUriCache.PRESIGNED_URI_CACHE_MAX_ENTRIES_ENV;
+import static no.unit.nva.download.publication.file.PresignedUriCache.PRESIGNED_URI_MIN_REMAINING_SECONDS_ENV;
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.DRAFT;
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.PUBLISHED;
+import static no.unit.nva.testutils.RandomDataGenerator.randomString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import no.unit.nva.download.publication.file.PresignedUriCache.AccessClass;
+import no.unit.nva.download.publication.file.publication.PublicationAccessSnapshot;
+import no.unit.nva.download.publication.file.publication.model.File;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.publication.model.PublishedFile;
+import no.unit.nva.identifiers.SortableIdentifier;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PresignedUriCacheTest {
+
+    private static final Duration MIN_REMAINING_LIFETIME = Duration.ofSeconds(60);
+    private static final Duration VALIDITY = Duration.ofSeconds(180);
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String APPLICATION_PDF = "application/pdf";
+
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void shouldReuseUriOfPublicFileWhileEnoughLifetimeRemains() {
+        var cache = new PresignedUriCache(2, MIN_REMAINING_LIFETIME, clock);
+        var file = publicFile();
+        var publication = publication(PUBLISHED, file);
+        var presignedUri = presignedUri();
+        cache.put(publication, file, presignedUri);
+
+        when(clock.instant()).thenReturn(NOW.plus(VALIDITY).minus(MIN_REMAINING_LIFETIME).minusSeconds(1));
+
+        assertThat(cache.get(publication, file), is(equalTo(Optional.of(presignedUri))));
+        assertThat(cache.statistics().hits(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldNotReuseUriWhenTooLittleLifetimeRemains() {
+        var cache = new PresignedUriCache(2, MIN_REMAINING_LIFETIME, clock);
+        var file = publicFile();
+        var publication = publication(PUBLISHED, file);
+        cache.put(publication, file, presignedUri());
+
+        when(clock.instant()).thenReturn(NOW.plus(VALIDITY).minus(MIN_REMAINING_LIFETIME));
+
+        assertThat(cache.get(publication, file), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics().size(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldNotCacheUriOfFileThatIsNotPublic() {
+        var cache = new PresignedUriCache(2, MIN_REMAINING_LIFETIME, clock);
+        var file = publicFile();
+        var publication = publication(DRAFT, file);
+        cache.put(publication, file, presignedUri());
+
+        assertThat(cache.get(publication, file), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics().size(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldNotReuseUriWhenMimeTypeChanges() {
+        var cache = new PresignedUriCache(2, MIN_REMAINING_LIFETIME, clock);
+        var file = publicFile();
+        cache.put(publication(PUBLISHED, file), file, presignedUri());
+        var renamedFile = new PublishedFile(file.getIdentifier(), randomString(), null, false);
+
+        assertThat(cache.get(publication(PUBLISHED, renamedFile), renamedFile), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics().misses(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedUriWhenFull() {
+        var cache = new PresignedUriCache(1, MIN_REMAINING_LIFETIME, clock);
+        var file = publicFile();
+        var otherFile = publicFile();
+        cache.put(publication(PUBLISHED, file), file, presignedUri());
+        cache.put(publication(PUBLISHED, otherFile), otherFile, presignedUri());
+
+        assertThat(cache.get(publication(PUBLISHED, file), file), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics().evictions(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldClassifyFileWithActiveEmbargoAsRestricted() {
+        var file = new PublishedFile(UUID.randomUUID(), APPLICATION_PDF, Instant.now().plus(VALIDITY), false);
+
+        assertThat(AccessClass.classify(publication(PUBLISHED, file), file), is(equalTo(AccessClass.RESTRICTED)));
+    }
+
+    @Test
+    void shouldReadConfigurationFromEnvironment() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        when(environment.readEnvOpt(PRESIGNED_URI_CACHE_MAX_ENTRIES_ENV)).thenReturn(Optional.of("1"));
+        when(environment.readEnvOpt(PRESIGNED_URI_MIN_REMAINING_SECONDS_ENV)).thenReturn(Optional.of("30"));
+        var cache = PresignedUriCache.fromEnvironment(environment);
+        var file = publicFile();
+        var otherFile = publicFile();
+        cache.put(publication(PUBLISHED, file), file, presignedUri());
+        cache.put(publication(PUBLISHED, otherFile), otherFile, presignedUri());
+
+        assertThat(cache.statistics().size(), is(equalTo(1)));
+    }
+
+    private PresignedUri presignedUri() {
+        return new PresignedUri(randomString(), NOW.plus(VALIDITY), randomString());
+    }
+
+    private static File publicFile() {
+        return new PublishedFile(UUID.randomUUID(), APPLICATION_PDF, null, false);
+    }
+
+    private static PublicationAccessSnapshot publication(String status, File file) {
+        return PublicationAccessSnapshot.compile(new Publication(SortableIdentifier.next(), status, null, null,
+                                                                 List.of(file)));
+    }
+}
@@ -0,0 +1,71 @@
+package no.unit.nva.download.publication.file;
+
+import static no.unit.nva.download.publication.file.RequestUtil.ANONYMOUS;
+import static no.unit.nva.download.publication.file.RequestUtil.RESOURCE_PATH;
+import static nva.commons.apigateway.AccessRight.MANAGE_RESOURCES_STANDARD;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.net.URI;
+import java.util.Optional;
+import nva.commons.apigateway.RequestInfo;
+import nva.commons.apigateway.exceptions.UnauthorizedException;
+import org.junit.jupiter.api.Test;
+
+class RequesterTest {
+
+    private static final String USER = "user@example.org";
+    private static final URI PERSON_CRISTIN_ID = URI.create("https://api.example.org/cristin/person/1");
+
+    @Test
+    void shouldReadPrincipalOnce() throws UnauthorizedException {
+        var requestInfo = mock(RequestInfo.class);
+        when(requestInfo.getRequestContextParameterOpt(RESOURCE_PATH)).thenReturn(Optional.of("/{identifier}/files"));
+        when(requestInfo.getUserName()).thenReturn(USER);
+        when(requestInfo.getPersonCristinId()).thenReturn(PERSON_CRISTIN_ID);
+        when(requestInfo.userIsAuthorized(any())).thenReturn(true);
+
+        var requester = Requester.from(requestInfo);
+
+        assertThat(requester.isAuthorized(MANAGE_RESOURCES_STANDARD), is(true));
+        assertThat(requester.isAuthorized(MANAGE_RESOURCES_STANDARD), is(true));
+        assertThat(requester.user(), is(equalTo(USER)));
+        assertThat(requester.personCristinId(), is(equalTo(Optional.of(PERSON_CRISTIN_ID))));
+        verify(requestInfo, times(1)).getUserName();
+        verify(requestInfo, times(1)).getPersonCristinId();
+        verify(requestInfo, times(1)).userIsAuthorized(MANAGE_RESOURCES_STANDARD);
+    }
+
+    @Test
+    void shouldNotReadPrincipalUntilItIsNeeded() throws UnauthorizedException {
+        var requestInfo = mock(RequestInfo.class);
+        when(requestInfo.getRequestContextParameterOpt(RESOURCE_PATH))
+            .thenReturn(Optional.of("/public/{identifier}/files"));
+
+        var requester = Requester.from(requestInfo);
+
+        assertThat(requester.isAnonymousRoute(), is(true));
+        verify(requestInfo, never()).getUserName();
+        verify(requestInfo, never()).getPersonCristinId();
+    }
+
+    @Test
+    void shouldReadMissingPrincipalOnce() throws UnauthorizedException {
+        var requestInfo = mock(RequestInfo.class);
+        when(requestInfo.getUserName()).thenThrow(new UnauthorizedException());
+        when(requestInfo.getPersonCristinId()).thenThrow(new UnauthorizedException());
+        var requester = Requester.from(requestInfo);
+
+        requester.personCristinId();
+
+        assertThat(requester.user(), is(equalTo(ANONYMOUS)));
+        assertThat(requester.personCristinId(), is(equalTo(Optional.empty())));
+        verify(requestInfo, times(1)).getPersonCristinId();
+    }
+}
@@ -0,0 +1,37 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class BoundedInputStreamTest {
+
+    private static final byte[] CONTENT = {1, 2, 3};
+
+    @Test
+    void shouldReadContentWithinLimit() throws IOException {
+        try (var stream = new BoundedInputStream(new ByteArrayInputStream(CONTENT), CONTENT.length)) {
+            assertThat(stream.readAllBytes(), is(equalTo(CONTENT)));
+            assertThat(stream.read(), is(equalTo(-1)));
+        }
+    }
+
+    @Test
+    void shouldFailWhenSingleByteReadsExceedLimit() throws IOException {
+        try (var stream = new BoundedInputStream(new ByteArrayInputStream(CONTENT), 1)) {
+            stream.read();
+            assertThrows(IOException.class, stream::read);
+        }
+    }
+
+    @Test
+    void shouldFailWhenBufferedReadsExceedLimit() throws IOException {
+        try (var stream = new BoundedInputStream(new ByteArrayInputStream(CONTENT), 1)) {
+            assertThrows(IOException.class, stream::readAllBytes);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static no.unit.nva.download.publication.file.publication.CircuitBreaker.PUBLICATION_API_CIRCUIT_FAILURE_THRESHOLD_ENV;
+import static no.unit.nva.download.publication.file.publication.CircuitBreaker.PUBLICATION_API_CIRCUIT_OPEN_SECONDS_ENV;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import no.unit.nva.download.publication.file.publication.CircuitBreaker.State;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private Clock clock;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        circuitBreaker = new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION, clock);
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        failTimes(FAILURE_THRESHOLD);
+
+        assertThat(circuitBreaker.state(), is(equalTo(State.OPEN)));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+        assertThat(circuitBreaker.rejections(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldStayClosedWhenFailuresAreInterruptedBySuccess() {
+        failTimes(FAILURE_THRESHOLD - 1);
+        circuitBreaker.recordSuccess();
+        failTimes(FAILURE_THRESHOLD - 1);
+
+        assertThat(circuitBreaker.state(), is(equalTo(State.CLOSED)));
+        assertThat(circuitBreaker.allowRequest(), is(true));
+    }
+
+    @Test
+    void shouldLetOneTrialRequestThroughAfterOpenDuration() {
+        failTimes(FAILURE_THRESHOLD);
+        when(clock.instant()).thenReturn(NOW.plus(OPEN_DURATION));
+
+        assertThat(circuitBreaker.allowRequest(), is(true));
+        assertThat(circuitBreaker.state(), is(equalTo(State.HALF_OPEN)));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+
+        circuitBreaker.recordSuccess();
+
+        assertThat(circuitBreaker.state(), is(equalTo(State.CLOSED)));
+    }
+
+    @Test
+    void shouldOpenAgainWhenTrialRequestFails() {
+        failTimes(FAILURE_THRESHOLD);
+        when(clock.instant()).thenReturn(NOW.plus(OPEN_DURATION));
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.recordFailure();
+
+        assertThat(circuitBreaker.state(), is(equalTo(State.OPEN)));
+        assertThat(circuitBreaker.allowRequest(), is(false));
+    }
+
+    @Test
+    void shouldReadConfigurationFromEnvironment() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(PUBLICATION_API_CIRCUIT_FAILURE_THRESHOLD_ENV)).thenReturn(Optional.of("1"));
+        when(environment.readEnvOpt(PUBLICATION_API_CIRCUIT_OPEN_SECONDS_ENV)).thenReturn(Optional.of("60"));
+        var configured = CircuitBreaker.fromEnvironment(environment);
+
+        configured.recordFailure();
+
+        assertThat(configured.state(), is(equalTo(State.OPEN)));
+        assertThat(configured.allowRequest(), is(false));
+    }
+
+    private void failTimes(int failures) {
+        for (var i = 0; i < failures; i++) {
+            circuitBreaker.recordFailure();
+        }
+    }
+}
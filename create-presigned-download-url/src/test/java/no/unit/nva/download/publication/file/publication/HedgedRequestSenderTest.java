@@ -0,0 +1,226 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static no.unit.nva.download.publication.file.publication.HedgedRequestSender.MIN_SAMPLES;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HedgedRequestSenderTest {
+
+    private static final HttpRequest REQUEST = HttpRequest.newBuilder(URI.create("https://example.org/publication/1"))
+                                                   .GET().build();
+    private static final Duration MINIMUM_DELAY = Duration.ofMillis(10);
+
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(HttpClient.class);
+    }
+
+    @Test
+    void shouldSendRequestOnceWhenHedgingIsDisabled() throws Exception {
+        var response = mockResponse();
+        when(client.<InputStream>send(any(), any())).thenReturn(response);
+        var sender = new HedgedRequestSender(client, HedgingPolicy.disabled());
+
+        assertThat(sender.send(REQUEST), is(sameInstance(response)));
+        assertThat(sender.statistics().requests(), is(equalTo(0L)));
+    }
+
+    @Test
+    void shouldNotHedgeFastRequests() throws Exception {
+        var response = mockResponse();
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(response));
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+
+        warmUp(sender);
+        sender.send(REQUEST);
+
+        verify(client, times(MIN_SAMPLES + 1)).sendAsync(any(), any());
+        assertThat(sender.statistics().hedges(), is(equalTo(0L)));
+    }
+
+    @Test
+    void shouldUseHedgeWhenFirstRequestIsSlow() throws Exception {
+        var hedgeResponse = mockResponse();
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+        warmUp(sender);
+        var slowResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        when(client.<InputStream>sendAsync(any(), any()))
+            .thenReturn(slowResponse, CompletableFuture.completedFuture(hedgeResponse));
+
+        assertThat(sender.send(REQUEST), is(sameInstance(hedgeResponse)));
+        var response = mockResponse();
+        slowResponse.complete(response);
+
+        var statistics = sender.statistics();
+        assertThat(statistics.hedges(), is(equalTo(1L)));
+        assertThat(statistics.winRate(), is(equalTo(1.0)));
+        assertThat(statistics.hedgeRate(), is(equalTo(1.0 / (MIN_SAMPLES + 1))));
+    }
+
+    @Test
+    void shouldCloseResponseOfHedgeWhenFirstRequestAnswersFirst() throws Exception {
+        var response = mockResponse();
+        var hedgeBody = mock(InputStream.class);
+        var hedgeResponse = mockResponse();
+        when(hedgeResponse.body()).thenReturn(hedgeBody);
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+        warmUp(sender);
+        var slowResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(slowResponse).thenAnswer(invocation -> {
+            slowResponse.complete(response);
+            return CompletableFuture.completedFuture(hedgeResponse);
+        });
+
+        assertThat(sender.send(REQUEST), is(sameInstance(response)));
+        verify(hedgeBody).close();
+    }
+
+    @Test
+    void shouldUseFirstRequestWhenHedgeFails() throws Exception {
+        var response = mockResponse();
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+        warmUp(sender);
+        var slowResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        when(client.<InputStream>sendAsync(any(), any()))
+            .thenReturn(slowResponse, CompletableFuture.failedFuture(new IOException("Connection reset")));
+        CompletableFuture.runAsync(() -> slowResponse.complete(response),
+                                   CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+        assertThat(sender.send(REQUEST), is(sameInstance(response)));
+        assertThat(sender.statistics().hedgeWins(), is(equalTo(0L)));
+    }
+
+    @Test
+    void shouldFailWhenBothRequestsFail() throws Exception {
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+        warmUp(sender);
+        var slowResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        when(client.<InputStream>sendAsync(any(), any()))
+            .thenReturn(slowResponse, CompletableFuture.failedFuture(new IllegalStateException("Closed")));
+        CompletableFuture.runAsync(() -> slowResponse.completeExceptionally(new IOException("Connection reset")),
+                                   CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+        assertThrows(IOException.class, () -> sender.send(REQUEST));
+    }
+
+    @Test
+    void shouldWaitForFirstRequestWhenBudgetIsSpent() throws Exception {
+        var response = mockResponse();
+        var sender = new HedgedRequestSender(client, policyWithBudget(0));
+        warmUp(sender);
+        var slowResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(slowResponse);
+        CompletableFuture.runAsync(() -> slowResponse.complete(response),
+                                   CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+        assertThat(sender.send(REQUEST), is(sameInstance(response)));
+        assertThat(sender.statistics().hedges(), is(equalTo(0L)));
+        assertThat(sender.statistics().winRate(), is(equalTo(0.0)));
+    }
+
+    @Test
+    void shouldReportFailureOfUnhedgedRequest() {
+        when(client.<InputStream>sendAsync(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")));
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+
+        assertThrows(IOException.class, () -> sender.send(REQUEST));
+    }
+
+    @Test
+    void shouldReportFailureOfRequestFailingBeforeHedgeDelay() throws Exception {
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+        warmUp(sender);
+        when(client.<InputStream>sendAsync(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")));
+
+        assertThrows(IOException.class, () -> sender.send(REQUEST));
+        assertThat(new HedgedRequestSender(client, policyWithBudget(1)).statistics().hedgeRate(), is(equalTo(0.0)));
+    }
+
+    @Test
+    void shouldCancelRequestWhenInterruptedBeforeHedgeDelay() throws Exception {
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+        warmUp(sender);
+        var pendingResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(pendingResponse);
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> sender.send(REQUEST));
+
+        assertThat(pendingResponse.isCancelled(), is(true));
+    }
+
+    @Test
+    void shouldCancelBothRequestsWhenInterruptedWhileHedging() throws Exception {
+        var sender = new HedgedRequestSender(client, policyWithBudget(1));
+        warmUp(sender);
+        var pendingResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        var pendingHedge = new CompletableFuture<HttpResponse<InputStream>>();
+        var sendingThread = Thread.currentThread();
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(pendingResponse).thenAnswer(invocation -> {
+            sendingThread.interrupt();
+            return pendingHedge;
+        });
+
+        assertThrows(InterruptedException.class, () -> sender.send(REQUEST));
+
+        assertThat(pendingResponse.isCancelled(), is(true));
+        assertThat(pendingHedge.isCancelled(), is(true));
+    }
+
+    @Test
+    void shouldCancelRequestWhenInterruptedWhileWaitingWithoutBudget() throws Exception {
+        var sender = new HedgedRequestSender(client, policyWithBudget(0));
+        warmUp(sender);
+        var pendingResponse = new CompletableFuture<HttpResponse<InputStream>>();
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(pendingResponse);
+        var sendingThread = Thread.currentThread();
+        CompletableFuture.runAsync(sendingThread::interrupt,
+                                   CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+
+        assertThrows(InterruptedException.class, () -> sender.send(REQUEST));
+
+        assertThat(pendingResponse.isCancelled(), is(true));
+    }
+
+    private void warmUp(HedgedRequestSender sender) throws Exception {
+        var response = mockResponse();
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(response));
+        for (var i = 0; i < MIN_SAMPLES; i++) {
+            sender.send(REQUEST);
+        }
+    }
+
+    private static HedgingPolicy policyWithBudget(double budget) {
+        return new HedgingPolicy(true, HedgingPolicy.DEFAULT_PERCENTILE, MINIMUM_DELAY, budget);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<InputStream> mockResponse() {
+        var response = (HttpResponse<InputStream>) mock(HttpResponse.class);
+        when(response.body()).thenReturn(InputStream.nullInputStream());
+        return response;
+    }
+}
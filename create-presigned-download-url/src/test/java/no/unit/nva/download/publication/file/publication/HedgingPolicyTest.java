@@ -0,0 +1,39 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static no.unit.nva.download.publication.file.publication.HedgingPolicy.PUBLICATION_API_HEDGE_BUDGET_ENV;
+import static no.unit.nva.download.publication.file.publication.HedgingPolicy.PUBLICATION_API_HEDGE_MIN_DELAY_MILLIS_ENV;
+import static no.unit.nva.download.publication.file.publication.HedgingPolicy.PUBLICATION_API_HEDGE_PERCENTILE_ENV;
+import static no.unit.nva.download.publication.file.publication.HedgingPolicy.PUBLICATION_API_HEDGING_ENABLED_ENV;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.Optional;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.Test;
+
+class HedgingPolicyTest {
+
+    @Test
+    void shouldBeDisabledWhenEnvironmentIsUnset() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+
+        assertThat(HedgingPolicy.fromEnvironment(environment), is(equalTo(HedgingPolicy.disabled())));
+    }
+
+    @Test
+    void shouldReadPolicyFromEnvironmentAndCapBudget() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(PUBLICATION_API_HEDGING_ENABLED_ENV)).thenReturn(Optional.of("true"));
+        when(environment.readEnvOpt(PUBLICATION_API_HEDGE_PERCENTILE_ENV)).thenReturn(Optional.of("99"));
+        when(environment.readEnvOpt(PUBLICATION_API_HEDGE_MIN_DELAY_MILLIS_ENV)).thenReturn(Optional.of("20"));
+        when(environment.readEnvOpt(PUBLICATION_API_HEDGE_BUDGET_ENV)).thenReturn(Optional.of("3"));
+
+        assertThat(HedgingPolicy.fromEnvironment(environment),
+                   is(equalTo(new HedgingPolicy(true, 99, Duration.ofMillis(20), HedgingPolicy.MAX_BUDGET))));
+    }
+}
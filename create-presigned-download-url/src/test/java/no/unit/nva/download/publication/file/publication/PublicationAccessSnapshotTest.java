@@ -0,0 +1,122 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.DRAFT;
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.PUBLISHED;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import no.unit.nva.download.publication.file.publication.model.AssociatedArtifact;
+import no.unit.nva.download.publication.file.publication.model.AssociatedLink;
+import no.unit.nva.download.publication.file.publication.model.Contributor;
+import no.unit.nva.download.publication.file.publication.model.EntityDescription;
+import no.unit.nva.download.publication.file.publication.model.Identity;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.publication.model.PublicationInstance;
+import no.unit.nva.download.publication.file.publication.model.PublishedFile;
+import no.unit.nva.download.publication.file.publication.model.Reference;
+import no.unit.nva.download.publication.file.publication.model.ResourceOwner;
+import no.unit.nva.identifiers.SortableIdentifier;
+import org.junit.jupiter.api.Test;
+
+class PublicationAccessSnapshotTest {
+
+    private static final String OWNER = "owner@20754.0.0.0";
+
+    @Test
+    void shouldLookUpFilesByIdentifier() {
+        var file = new PublishedFile(UUID.randomUUID(), "application/pdf", null, false);
+        var publication = new Publication(SortableIdentifier.next(), PUBLISHED, null, null,
+                                          List.of(new AssociatedLink(), file));
+
+        var snapshot = PublicationAccessSnapshot.compile(publication);
+
+        assertThat(snapshot.publication(), is(sameInstance(publication)));
+        assertThat(snapshot.files(), contains(file));
+        assertThat(snapshot.file(file.getIdentifier()), is(equalTo(Optional.of(file))));
+        assertThat(snapshot.file(UUID.randomUUID()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldCompileOwnerContributorsStatusAndThesisFlag() {
+        var contributorId = randomUri();
+        var entityDescription = new EntityDescription(new Reference(new PublicationInstance("DegreeMaster")),
+                                                      List.of(new Contributor(new Identity(contributorId)),
+                                                              new Contributor(null)));
+        var publication = new Publication(SortableIdentifier.next(), PUBLISHED,
+                                          new ResourceOwner(OWNER, URI.create("https://my.affiliation.com")),
+                                          entityDescription, List.of());
+
+        var snapshot = PublicationAccessSnapshot.compile(publication);
+
+        assertThat(snapshot.isOwnedBy(OWNER), is(true));
+        assertThat(snapshot.isOwnedBy("someone@else"), is(false));
+        assertThat(snapshot.hasContributorWithId(contributorId), is(true));
+        assertThat(snapshot.hasContributorWithId(randomUri()), is(false));
+        assertThat(snapshot.isPublished(), is(true));
+        assertThat(snapshot.isThesis(), is(true));
+    }
+
+    @Test
+    void shouldFindNextEmbargoLiftAfterInstant() {
+        var now = Instant.parse("2024-01-01T00:00:00Z");
+        var firstLift = now.plusSeconds(10);
+        var secondLift = now.plusSeconds(20);
+        var publication = new Publication(SortableIdentifier.next(), PUBLISHED, null, null,
+                                          List.of(fileWithEmbargoUntil(secondLift),
+                                                  fileWithEmbargoUntil(now.minusSeconds(10)),
+                                                  fileWithEmbargoUntil(firstLift),
+                                                  fileWithEmbargoUntil(null)));
+
+        var snapshot = PublicationAccessSnapshot.compile(publication);
+
+        assertThat(snapshot.nextEmbargoLiftAfter(now), is(equalTo(Optional.of(firstLift))));
+        assertThat(snapshot.nextEmbargoLiftAfter(firstLift), is(equalTo(Optional.of(secondLift))));
+        assertThat(snapshot.nextEmbargoLiftAfter(secondLift), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldKnowWhichFilesAreDownloadableByAnyone() {
+        var visibleFile = fileWithEmbargoUntil(null);
+        var liftedEmbargoFile = fileWithEmbargoUntil(Instant.now().minusSeconds(60));
+        var embargoedFile = fileWithEmbargoUntil(Instant.now().plusSeconds(3600));
+        var agreement = new PublishedFile(UUID.randomUUID(), "application/pdf", null, true);
+        var files = List.<AssociatedArtifact>of(visibleFile, liftedEmbargoFile, embargoedFile, agreement);
+
+        var published = PublicationAccessSnapshot.compile(
+            new Publication(SortableIdentifier.next(), PUBLISHED, null, null, files));
+
+        assertThat(published.isPubliclyDownloadable(visibleFile), is(true));
+        assertThat(published.isPubliclyDownloadable(liftedEmbargoFile), is(true));
+        assertThat(published.isPubliclyDownloadable(embargoedFile), is(false));
+        assertThat(published.isPubliclyDownloadable(agreement), is(false));
+
+        var draft = PublicationAccessSnapshot.compile(
+            new Publication(SortableIdentifier.next(), DRAFT, null, null, files));
+        assertThat(draft.isPubliclyDownloadable(visibleFile), is(false));
+        assertThat(draft.isPubliclyDownloadable(liftedEmbargoFile), is(false));
+    }
+
+    @Test
+    void shouldGrantNothingWhenPublicationHasNoOwnerOrContributors() {
+        var publication = new Publication(SortableIdentifier.next(), DRAFT, null, null, List.of());
+
+        var snapshot = PublicationAccessSnapshot.compile(publication);
+
+        assertThat(snapshot.isOwnedBy(null), is(false));
+        assertThat(snapshot.hasContributorWithId(randomUri()), is(false));
+        assertThat(snapshot.isPublished(), is(false));
+        assertThat(snapshot.isThesis(), is(false));
+    }
+
+    private static PublishedFile fileWithEmbargoUntil(Instant embargoDate) {
+        return new PublishedFile(UUID.randomUUID(), "application/pdf", embargoDate, false);
+    }
+}
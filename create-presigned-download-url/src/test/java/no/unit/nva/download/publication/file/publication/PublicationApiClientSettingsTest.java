@@ -0,0 +1,59 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static no.unit.nva.download.publication.file.publication.PublicationApiClientSettings.PUBLICATION_API_CONNECT_TIMEOUT_MILLIS_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationApiClientSettings.PUBLICATION_API_EXECUTOR_THREADS_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationApiClientSettings.PUBLICATION_API_REQUEST_TIMEOUT_MILLIS_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationApiClientSettings.THREAD_NAME_PREFIX;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.Test;
+
+class PublicationApiClientSettingsTest {
+
+    @Test
+    void shouldUseDefaultsWhenEnvironmentIsUnset() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+
+        assertThat(PublicationApiClientSettings.fromEnvironment(environment),
+                   is(equalTo(PublicationApiClientSettings.defaultSettings())));
+    }
+
+    @Test
+    void shouldReadSettingsFromEnvironment() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(PUBLICATION_API_CONNECT_TIMEOUT_MILLIS_ENV)).thenReturn(Optional.of("500"));
+        when(environment.readEnvOpt(PUBLICATION_API_REQUEST_TIMEOUT_MILLIS_ENV)).thenReturn(Optional.of("1500"));
+        when(environment.readEnvOpt(PUBLICATION_API_EXECUTOR_THREADS_ENV)).thenReturn(Optional.of("4"));
+
+        var settings = PublicationApiClientSettings.fromEnvironment(environment);
+
+        assertThat(settings, is(equalTo(
+            new PublicationApiClientSettings(Duration.ofMillis(500), Duration.ofMillis(1500), 4))));
+    }
+
+    @Test
+    void shouldCreateHttp2ClientWithConnectTimeoutAndDaemonExecutor() throws Exception {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+
+        var client = PublicationApiClientSettings.createHttpClient(environment);
+
+        assertThat(client.version(), is(equalTo(HttpClient.Version.HTTP_2)));
+        assertThat(client.connectTimeout().orElseThrow(),
+                   is(equalTo(PublicationApiClientSettings.DEFAULT_CONNECT_TIMEOUT)));
+        var thread = CompletableFuture.supplyAsync(Thread::currentThread, client.executor().orElseThrow()).get();
+        assertThat(thread.getName(), startsWith(THREAD_NAME_PREFIX));
+        assertThat(thread.isDaemon(), is(true));
+    }
+}
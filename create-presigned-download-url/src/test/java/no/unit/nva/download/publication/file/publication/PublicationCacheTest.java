@@ -0,0 +1,254 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static no.unit.nva.download.publication.file.publication.PublicationCache.PUBLICATION_CACHE_MAX_ENTRIES_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationCache.PUBLICATION_CACHE_TTL_SECONDS_ENV;
+import static no.unit.nva.download.publication.file.publication.model.PublicationStatusConstants.PUBLISHED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import no.unit.nva.download.publication.file.publication.PublicationCache.StalePublication;
+import no.unit.nva.download.publication.file.publication.exception.NotFoundException;
+import no.unit.nva.download.publication.file.publication.model.Publication;
+import no.unit.nva.download.publication.file.publication.model.PublishedFile;
+import no.unit.nva.identifiers.SortableIdentifier;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PublicationCacheTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofSeconds(60);
+    private static final Duration NOT_FOUND_TIME_TO_LIVE = Duration.ofSeconds(10);
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String NOT_FOUND_MESSAGE = "Publication not found";
+    private static final String ENTITY_TAG = "\"33a64df551425fcc55e4d42a148795d9f25f89d4\"";
+
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void shouldReturnCachedPublicationWithinTimeToLive() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var publication = randomPublication();
+        cache.put(publication.identifier().toString(), publication, null);
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE).minusSeconds(1));
+
+        assertThat(cache.get(publication.identifier().toString()), is(equalTo(Optional.of(publication))));
+        assertThat(cache.statistics().hits(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldMissWhenPublicationHasExpired() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var publication = randomPublication();
+        cache.put(publication.identifier().toString(), publication, null);
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE));
+
+        assertThat(cache.get(publication.identifier().toString()), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics().misses(), is(equalTo(1L)));
+        assertThat(cache.statistics().size(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedPublicationWhenFull() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var first = randomPublication();
+        var second = randomPublication();
+        var third = randomPublication();
+        cache.put(first.identifier().toString(), first, null);
+        cache.put(second.identifier().toString(), second, null);
+        cache.get(first.identifier().toString());
+        cache.put(third.identifier().toString(), third, null);
+
+        assertThat(cache.get(second.identifier().toString()), is(equalTo(Optional.empty())));
+        assertThat(cache.get(first.identifier().toString()), is(equalTo(Optional.of(first))));
+        assertThat(cache.statistics().evictions(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldKeepExpiredPublicationWithEntityTagForRevalidation() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var publication = randomPublication();
+        var identifier = publication.identifier().toString();
+        cache.put(identifier, publication, ENTITY_TAG);
+
+        assertThat(cache.getStale(identifier), is(equalTo(Optional.empty())));
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE));
+
+        assertThat(cache.get(identifier), is(equalTo(Optional.empty())));
+        var stalePublication = cache.getStale(identifier).orElseThrow();
+        assertThat(stalePublication, is(equalTo(new StalePublication(publication, ENTITY_TAG))));
+
+        cache.refresh(identifier, stalePublication);
+
+        assertThat(cache.get(identifier), is(equalTo(Optional.of(publication))));
+        assertThat(cache.statistics().revalidations(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldNotOfferExpiredPublicationWithoutEntityTagForRevalidation() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var publication = randomPublication();
+        var identifier = publication.identifier().toString();
+        cache.put(identifier, publication, null);
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE));
+
+        assertThat(cache.get(identifier), is(equalTo(Optional.empty())));
+        assertThat(cache.getStale(identifier), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldOfferExpiredPublicationAsFallbackWithinStalenessBound() throws NotFoundException {
+        var maxStaleness = Duration.ofMinutes(5);
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, maxStaleness, clock);
+        var publication = randomPublication();
+        var identifier = publication.identifier().toString();
+        cache.put(identifier, publication, null);
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE).plus(maxStaleness).minusSeconds(1));
+
+        assertThat(cache.get(identifier), is(equalTo(Optional.empty())));
+        assertThat(cache.getFallback(identifier), is(equalTo(Optional.of(publication))));
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE).plus(maxStaleness));
+
+        assertThat(cache.getFallback(identifier), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldNotOfferMissingPublicationAsFallback() {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, Duration.ofMinutes(5), clock);
+        var identifier = SortableIdentifier.next().toString();
+        cache.putNotFound(identifier, NOT_FOUND_MESSAGE);
+
+        assertThat(cache.getFallback(identifier), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldThrowNotFoundForRecentlyMissingPublication() {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var identifier = SortableIdentifier.next().toString();
+        cache.putNotFound(identifier, NOT_FOUND_MESSAGE);
+
+        var exception = assertThrows(NotFoundException.class, () -> cache.get(identifier));
+        assertThat(exception.getMessage(), is(equalTo(NOT_FOUND_MESSAGE)));
+    }
+
+    @Test
+    void shouldForgetMissingPublicationAfterNotFoundTimeToLive() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var identifier = SortableIdentifier.next().toString();
+        cache.putNotFound(identifier, NOT_FOUND_MESSAGE);
+
+        when(clock.instant()).thenReturn(NOW.plus(NOT_FOUND_TIME_TO_LIVE));
+
+        assertThat(cache.get(identifier), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldReadConfigurationFromEnvironment() throws NotFoundException {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        when(environment.readEnvOpt(PUBLICATION_CACHE_MAX_ENTRIES_ENV)).thenReturn(Optional.of("1"));
+        when(environment.readEnvOpt(PUBLICATION_CACHE_TTL_SECONDS_ENV)).thenReturn(Optional.of("30"));
+        var cache = PublicationCache.fromEnvironment(environment);
+        var first = randomPublication();
+        var second = randomPublication();
+        cache.put(first.identifier().toString(), first, null);
+        cache.put(second.identifier().toString(), second, null);
+
+        assertThat(cache.get(first.identifier().toString()), is(equalTo(Optional.empty())));
+        assertThat(cache.get(second.identifier().toString()), is(equalTo(Optional.of(second))));
+    }
+
+    @Test
+    void shouldExpirePublicationWhenEmbargoLiftsBeforeTimeToLive() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var embargoLift = NOW.plusSeconds(10);
+        var publication = publicationWithEmbargoUntil(embargoLift);
+        var identifier = publication.identifier().toString();
+        cache.put(identifier, publication, null);
+
+        when(clock.instant()).thenReturn(embargoLift.minusMillis(1));
+        assertThat(cache.get(identifier), is(equalTo(Optional.of(publication))));
+
+        when(clock.instant()).thenReturn(embargoLift);
+        assertThat(cache.get(identifier), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldKeepTimeToLiveWhenEmbargoLiftsLater() throws NotFoundException {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var publication = publicationWithEmbargoUntil(NOW.plus(TIME_TO_LIVE).plusSeconds(1));
+        var identifier = publication.identifier().toString();
+        cache.put(identifier, publication, null);
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE).minusSeconds(1));
+        assertThat(cache.get(identifier), is(equalTo(Optional.of(publication))));
+
+        when(clock.instant()).thenReturn(NOW.plus(TIME_TO_LIVE));
+        assertThat(cache.get(identifier), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldReuseAccessSnapshotOfCachedPublication() {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var publication = randomPublication();
+        var identifier = publication.identifier().toString();
+        cache.put(identifier, publication, ENTITY_TAG);
+        var snapshot = cache.snapshotOf(identifier, publication);
+
+        cache.refresh(identifier, new StalePublication(publication, ENTITY_TAG));
+
+        assertThat(cache.snapshotOf(identifier, publication), is(sameInstance(snapshot)));
+        assertThat(snapshot.publication(), is(sameInstance(publication)));
+    }
+
+    @Test
+    void shouldCompileAccessSnapshotOfPublicationNotHeldByCache() {
+        var cache = new PublicationCache(2, TIME_TO_LIVE, NOT_FOUND_TIME_TO_LIVE, clock);
+        var cachedPublication = randomPublication();
+        var identifier = cachedPublication.identifier().toString();
+        cache.put(identifier, cachedPublication, null);
+        var otherPublication = new Publication(cachedPublication.identifier(), PUBLISHED, null, null, List.of());
+
+        var snapshot = cache.snapshotOf(identifier, otherPublication);
+
+        assertThat(snapshot.publication(), is(sameInstance(otherPublication)));
+    }
+
+    @Test
+    void shouldStartEmptyWithDefaultConfiguration() {
+        assertThat(new PublicationCache().statistics(),
+                   is(equalTo(new PublicationCache.Statistics(0, 0, 0, 0, 0))));
+    }
+
+    private static Publication randomPublication() {
+        return new Publication(SortableIdentifier.next(), PUBLISHED, null, null, List.of());
+    }
+
+    private static Publication publicationWithEmbargoUntil(Instant embargoDate) {
+        var file = new PublishedFile(UUID.randomUUID(), "application/pdf", embargoDate, false);
+        return new Publication(SortableIdentifier.next(), PUBLISHED, null, null, List.of(file));
+    }
+}
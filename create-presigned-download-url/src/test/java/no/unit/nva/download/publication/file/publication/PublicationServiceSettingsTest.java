@@ -0,0 +1,54 @@
+package no.unit.nva.download.publication.file.publication;
+
+import static no.unit.nva.download.publication.file.publication.HedgingPolicy.PUBLICATION_API_HEDGING_ENABLED_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationApiClientSettings.PUBLICATION_API_REQUEST_TIMEOUT_MILLIS_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationServiceSettings.API_HOST_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationServiceSettings.API_SCHEME_ENV;
+import static no.unit.nva.download.publication.file.publication.PublicationServiceSettings.MAX_RESPONSE_BYTES_ENV;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.Optional;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.Test;
+
+class PublicationServiceSettingsTest {
+
+    private static final String SCHEME = "https";
+    private static final String HOST = "api.example.org";
+
+    @Test
+    void shouldUseDefaultsWhenOnlySchemeAndHostAreSet() {
+        var environment = environmentWithSchemeAndHost();
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+
+        assertThat(PublicationServiceSettings.fromEnvironment(environment),
+                   is(equalTo(PublicationServiceSettings.defaultSettings(SCHEME, HOST))));
+    }
+
+    @Test
+    void shouldReadSettingsFromEnvironment() {
+        var environment = environmentWithSchemeAndHost();
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        when(environment.readEnvOpt(MAX_RESPONSE_BYTES_ENV)).thenReturn(Optional.of("1024"));
+        when(environment.readEnvOpt(PUBLICATION_API_REQUEST_TIMEOUT_MILLIS_ENV)).thenReturn(Optional.of("1500"));
+        when(environment.readEnvOpt(PUBLICATION_API_HEDGING_ENABLED_ENV)).thenReturn(Optional.of("true"));
+
+        var settings = PublicationServiceSettings.fromEnvironment(environment);
+
+        assertThat(settings.maxResponseBytes(), is(equalTo(1024L)));
+        assertThat(settings.requestTimeout(), is(equalTo(Duration.ofMillis(1500))));
+        assertThat(settings.hedgingPolicy().enabled(), is(true));
+    }
+
+    private static Environment environmentWithSchemeAndHost() {
+        var environment = mock(Environment.class);
+        when(environment.readEnv(API_SCHEME_ENV)).thenReturn(SCHEME);
+        when(environment.readEnv(API_HOST_ENV)).thenReturn(HOST);
+        return environment;
+    }
+}
@@ -0,0 +1,16 @@
+package no.unit.nva.download.publication.file.utils;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public class FakeTokenUriShortener extends FakeUriShortener {
+
+    public static final String TOKEN_DOMAIN = "https://api.example.org/download/short/";
+
+    @Override
+    public Optional<URI> shortenFile(UUID fileIdentifier, Instant expirationDate) {
+        return Optional.of(URI.create(TOKEN_DOMAIN + fileIdentifier + "." + expirationDate.getEpochSecond()));
+    }
+}
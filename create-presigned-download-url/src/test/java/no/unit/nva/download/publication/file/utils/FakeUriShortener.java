@@ -4,11 +4,25 @@ import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
 import com.github.bibsysdev.urlshortener.service.UriShortener;
 import java.net.URI;
 import java.time.Instant;
+import java.util.List;
 
 public class FakeUriShortener implements UriShortener {
 
+    private int writeRequests;
+
     @Override
     public URI shorten(URI longUri, Instant expirationDate) {
+        writeRequests++;
         return randomUri();
     }
+
+    @Override
+    public List<URI> shortenAll(List<URI> longUris, Instant expirationDate) {
+        writeRequests++;
+        return longUris.stream().map(longUri -> randomUri()).toList();
+    }
+
+    public int getWriteRequests() {
+        return writeRequests;
+    }
 }
@@ -4,6 +4,7 @@ import com.github.bibsysdev.urlshortener.service.UriShortener;
 import com.github.bibsysdev.urlshortener.service.exceptions.TransactionFailedException;
 import java.net.URI;
 import java.time.Instant;
+import java.util.List;
 
 public class FakeUriShortenerThrowingException implements UriShortener {
 
@@ -11,4 +12,9 @@ public class FakeUriShortenerThrowingException implements UriShortener {
     public URI shorten(URI longUri, Instant expirationDate) {
         throw new TransactionFailedException("Transaction failed");
     }
+
+    @Override
+    public List<URI> shortenAll(List<URI> longUris, Instant expirationDate) {
+        throw new TransactionFailedException("Transaction failed");
+    }
 }
@@ -2,8 +2,9 @@ package com.github.bibsysdev.urlshortener.handler;
 
 import static org.apache.http.HttpHeaders.LOCATION;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.github.bibsysdev.urlshortener.service.ClientRegistry;
 import com.github.bibsysdev.urlshortener.service.UriResolver;
-import com.github.bibsysdev.urlshortener.service.UriResolverImpl;
+import com.github.bibsysdev.urlshortener.service.SignedTokenUriResolver;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
@@ -12,6 +13,7 @@ import nva.commons.apigateway.RequestInfo;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
+import org.crac.Core;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
 
@@ -19,15 +21,18 @@ public class ResolveShortenedUrlHandler extends ApiGatewayHandler<Void, Void> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ResolveShortenedUrlHandler.class);
     private final UriResolver uriResolver;
+    private final ResolveShortenedUrlPriming priming;
 
     @JacocoGenerated
     public ResolveShortenedUrlHandler() {
-        this(new Environment(), UriResolverImpl.createDefault());
+        this(ClientRegistry.defaultRegistry().environment(), SignedTokenUriResolver.createDefault());
+        Core.getGlobalContext().register(priming);
     }
 
     public ResolveShortenedUrlHandler(Environment environment, UriResolver uriResolver) {
         super(Void.class, environment);
         this.uriResolver = uriResolver;
+        this.priming = new ResolveShortenedUrlPriming(uriResolver);
     }
 
     @Override
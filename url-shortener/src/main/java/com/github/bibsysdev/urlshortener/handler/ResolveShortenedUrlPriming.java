@@ -0,0 +1,31 @@
+package com.github.bibsysdev.urlshortener.handler;
+
+import com.github.bibsysdev.urlshortener.service.UriResolver;
+import org.crac.Context;
+import org.crac.Resource;
+
+/**
+ * Primes the resolver before Lambda SnapStart takes a snapshot of the initialized execution environment, so that
+ * restored instances start with Jackson, the DynamoDB model classes and the UriMap mapping already loaded.
+ *
+ * <p>Priming makes no network calls, so no connection or credentials obtained before the snapshot are carried over
+ * into restored instances.
+ */
+public class ResolveShortenedUrlPriming implements Resource {
+
+    private final UriResolver uriResolver;
+
+    public ResolveShortenedUrlPriming(UriResolver uriResolver) {
+        this.uriResolver = uriResolver;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        uriResolver.prime();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        // The resolver keeps no state derived from the time or credentials of the snapshot
+    }
+}
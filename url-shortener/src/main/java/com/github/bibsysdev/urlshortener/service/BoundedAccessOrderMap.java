@@ -0,0 +1,41 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access-ordered map that evicts the least recently used entry once it holds more than a maximum number of entries.
+ * The map is not thread safe; callers synchronize on it.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class BoundedAccessOrderMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+    private static final float LOAD_FACTOR = 0.75f;
+    private final int maxEntries;
+    private final AtomicLong evictions;
+
+    /**
+     * Constructor for BoundedAccessOrderMap.
+     *
+     * @param maxEntries maximum number of entries held before the least recently used is evicted
+     * @param evictions  counter incremented for every evicted entry
+     */
+    public BoundedAccessOrderMap(int maxEntries, AtomicLong evictions) {
+        super(maxEntries, LOAD_FACTOR, true);
+        this.maxEntries = maxEntries;
+        this.evictions = evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        var evict = size() > maxEntries;
+        if (evict) {
+            evictions.incrementAndGet();
+        }
+        return evict;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import nva.commons.core.Environment;
+
+/**
+ * Environment that reads each variable once and answers later reads from memory. Environment variables do not change
+ * during the lifetime of the process, so handlers and clients created from the same instance can read them freely.
+ */
+public class CachingEnvironment extends Environment {
+
+    private final Environment environment;
+    private final Map<String, Optional<String>> values = new ConcurrentHashMap<>();
+
+    public CachingEnvironment(Environment environment) {
+        super();
+        this.environment = environment;
+    }
+
+    @Override
+    public Optional<String> readEnvOpt(String variableName) {
+        return values.computeIfAbsent(variableName, environment::readEnvOpt);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import nva.commons.core.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide registry of the clients the handlers share.
+ *
+ * <p>Clients are built the first time they are asked for, so the init phase of a Lambda function only creates the
+ * clients its handler needs, and handlers and services created in the same process reuse them. Environment variables
+ * are read once through a {@link CachingEnvironment}. The time spent building each client is logged and kept, so that
+ * the cost of the init phase can be broken down.
+ */
+public class ClientRegistry {
+
+    public static final String DYNAMODB_CLIENT = "dynamoDbClient";
+    public static final String INIT_TIMING_MESSAGE = "Initialized {} in {} ms";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientRegistry.class);
+    private static final ClientRegistry DEFAULT_REGISTRY = new ClientRegistry(new Environment());
+
+    private final CachingEnvironment cachingEnvironment;
+    private final Map<String, LazyClient<?>> clients = new ConcurrentHashMap<>();
+    private final Map<String, Duration> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public ClientRegistry(Environment environment) {
+        this.cachingEnvironment = new CachingEnvironment(environment);
+    }
+
+    public static ClientRegistry defaultRegistry() {
+        return DEFAULT_REGISTRY;
+    }
+
+    public Environment environment() {
+        return cachingEnvironment;
+    }
+
+    public AmazonDynamoDB dynamoDbClient() {
+        return getOrCreateClient(DYNAMODB_CLIENT, AmazonDynamoDBClientBuilder::defaultClient);
+    }
+
+    /**
+     * Get the client registered under a name, building it with the factory if no client has been built yet. The
+     * factory is called at most once per name, with the environment of the registry, and may itself ask the registry
+     * for other clients.
+     *
+     * @param name    name of the client
+     * @param factory builds the client from the environment
+     * @param <T>     type of the client
+     * @return the shared client
+     */
+    public <T> T getOrCreate(String name, Function<Environment, T> factory) {
+        return getOrCreateClient(name, () -> factory.apply(cachingEnvironment));
+    }
+
+    /**
+     * Time spent building each client, in the order the clients were built.
+     *
+     * @return build time by client name
+     */
+    public Map<String, Duration> initTimings() {
+        synchronized (timings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(timings));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getOrCreateClient(String name, Supplier<T> factory) {
+        var client = (LazyClient<T>) clients.computeIfAbsent(name, key -> new LazyClient<>(key, factory));
+        return client.get();
+    }
+
+    private void recordInitTiming(String name, Duration duration) {
+        timings.put(name, duration);
+        LOGGER.info(INIT_TIMING_MESSAGE, name, duration.toMillis());
+    }
+
+    private final class LazyClient<T> {
+
+        private final String name;
+        private final Supplier<T> factory;
+        private T client;
+
+        private LazyClient(String name, Supplier<T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public T get() {
+            synchronized (this) {
+                if (client == null) {
+                    client = create();
+                }
+                return client;
+            }
+        }
+
+        private T create() {
+            var start = System.nanoTime();
+            var created = factory.get();
+            recordInitTiming(name, Duration.ofNanos(System.nanoTime() - start));
+            return created;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import com.github.bibsysdev.urlshortener.service.model.ShortIdentifiers;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import nva.commons.core.Environment;
+
+/**
+ * Rejects lookups of short URIs that cannot exist or were recently not found, without reading the table.
+ *
+ * <p>URIs that do not end with a well-formed identifier are rejected outright. Short URIs that were looked up and not
+ * found are remembered for a short while, so that crawlers and link checkers repeating stale or mistyped links are
+ * answered from memory. The set of misses is exact, so a short URI that exists is never rejected, and its memory use
+ * is bounded by the maximum number of entries, evicting the least recently used miss first.
+ */
+public class NotFoundCache {
+
+    public static final String NOT_FOUND_CACHE_MAX_ENTRIES_ENV = "NOT_FOUND_CACHE_MAX_ENTRIES";
+    public static final String NOT_FOUND_CACHE_TTL_SECONDS_ENV = "NOT_FOUND_CACHE_TTL_SECONDS";
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    private final Map<URI, Instant> misses;
+    private final Duration ttl;
+    private final Clock clock;
+    private final AtomicLong rejectedMalformed = new AtomicLong();
+    private final AtomicLong rejectedRecentMisses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor for NotFoundCache.
+     *
+     * @param maxEntries maximum number of misses held before the least recently used is evicted
+     * @param ttl        how long a miss is remembered
+     * @param clock      clock used to expire misses
+     */
+    public NotFoundCache(int maxEntries, Duration ttl, Clock clock) {
+        this.misses = new BoundedAccessOrderMap<>(maxEntries, evictions);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a cache configured from the environment, falling back to the defaults for unset variables.
+     *
+     * @param environment environment
+     * @return a NotFoundCache
+     */
+    public static NotFoundCache fromEnvironment(Environment environment) {
+        return new NotFoundCache(
+            environment.readEnvOpt(NOT_FOUND_CACHE_MAX_ENTRIES_ENV).map(Integer::parseInt).orElse(DEFAULT_MAX_ENTRIES),
+            environment.readEnvOpt(NOT_FOUND_CACHE_TTL_SECONDS_ENV).map(Long::parseLong)
+                .map(Duration::ofSeconds)
+                .orElse(DEFAULT_TTL),
+            Clock.systemUTC());
+    }
+
+    /**
+     * Whether a short URI is known not to exist, either because it is malformed or because it was recently not found.
+     *
+     * @param shortenedUri the short URI
+     * @return true if the table need not be read
+     */
+    public boolean isKnownMissing(URI shortenedUri) {
+        if (!ShortIdentifiers.isWellFormed(shortenedUri)) {
+            rejectedMalformed.incrementAndGet();
+            return true;
+        }
+        synchronized (misses) {
+            var expires = misses.get(shortenedUri);
+            if (expires == null) {
+                return false;
+            }
+            if (clock.instant().isBefore(expires)) {
+                rejectedRecentMisses.incrementAndGet();
+                return true;
+            }
+            misses.remove(shortenedUri);
+            return false;
+        }
+    }
+
+    /**
+     * Remember that a short URI was not found.
+     *
+     * @param shortenedUri the short URI
+     */
+    public void putMiss(URI shortenedUri) {
+        synchronized (misses) {
+            misses.put(shortenedUri, clock.instant().plus(ttl));
+        }
+    }
+
+    public Statistics statistics() {
+        synchronized (misses) {
+            return new Statistics(rejectedMalformed.get(), rejectedRecentMisses.get(), evictions.get(), misses.size());
+        }
+    }
+
+    public record Statistics(long rejectedMalformed, long rejectedRecentMisses, long evictions, int size) {
+
+    }
+}
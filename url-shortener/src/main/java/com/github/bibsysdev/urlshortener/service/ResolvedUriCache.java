@@ -0,0 +1,128 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import static java.util.Objects.isNull;
+import com.github.bibsysdev.urlshortener.service.model.UriMap;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import nva.commons.core.Environment;
+
+/**
+ * Keeps resolved long URIs in the process, so that a short URI followed many times in a row is looked up in DynamoDB
+ * once.
+ *
+ * <p>A shortened URI never changes what it points to, so an entry only has to go when its mapping expires. Each entry
+ * is kept until the expiry of its mapping or the maximum lifetime, whichever comes first, and the least recently used
+ * entry is evicted once the cache is full. Hits, misses and evictions are counted, so that the cache and the memory of
+ * the function can be sized from them.
+ */
+public class ResolvedUriCache {
+
+    public static final String RESOLVER_CACHE_MAX_ENTRIES_ENV = "RESOLVER_CACHE_MAX_ENTRIES";
+    public static final String RESOLVER_CACHE_MAX_TTL_SECONDS_ENV = "RESOLVER_CACHE_MAX_TTL_SECONDS";
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+    public static final Duration DEFAULT_MAX_TTL = Duration.ofMinutes(15);
+
+    private final Map<URI, Entry> entries;
+    private final Duration maxTtl;
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor for ResolvedUriCache.
+     *
+     * @param maxEntries maximum number of URIs held before the least recently used is evicted
+     * @param maxTtl     longest time an entry is kept, however late its mapping expires
+     * @param clock      clock used to expire entries
+     */
+    public ResolvedUriCache(int maxEntries, Duration maxTtl, Clock clock) {
+        this.entries = new BoundedAccessOrderMap<>(maxEntries, evictions);
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a cache configured from the environment, falling back to the defaults for unset variables.
+     *
+     * @param environment environment
+     * @return a ResolvedUriCache
+     */
+    public static ResolvedUriCache fromEnvironment(Environment environment) {
+        return new ResolvedUriCache(
+            environment.readEnvOpt(RESOLVER_CACHE_MAX_ENTRIES_ENV).map(Integer::parseInt).orElse(DEFAULT_MAX_ENTRIES),
+            environment.readEnvOpt(RESOLVER_CACHE_MAX_TTL_SECONDS_ENV).map(Long::parseLong)
+                .map(Duration::ofSeconds)
+                .orElse(DEFAULT_MAX_TTL),
+            Clock.systemUTC());
+    }
+
+    /**
+     * Look up the long URI a short URI was resolved to, if the entry has not expired.
+     *
+     * @param shortenedUri the short URI
+     * @return the long URI, or empty when it must be looked up
+     */
+    public Optional<URI> get(URI shortenedUri) {
+        synchronized (entries) {
+            var entry = entries.get(shortenedUri);
+            if (isNull(entry) || !clock.instant().isBefore(entry.expires())) {
+                entries.remove(shortenedUri);
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(entry.longUri());
+        }
+    }
+
+    /**
+     * Remember the long URI of a mapping until the mapping expires or the maximum lifetime has passed. Mappings that
+     * have already expired are not kept.
+     *
+     * @param uriMap the resolved mapping
+     */
+    public void put(UriMap uriMap) {
+        var now = clock.instant();
+        var expires = expiresOf(uriMap, now.plus(maxTtl));
+        if (now.isBefore(expires)) {
+            synchronized (entries) {
+                entries.put(uriMap.shortenedUri(), new Entry(uriMap.longUri(), expires));
+            }
+        }
+    }
+
+    public Statistics statistics() {
+        synchronized (entries) {
+            return new Statistics(hits.get(), misses.get(), evictions.get(), entries.size());
+        }
+    }
+
+    private static Instant expiresOf(UriMap uriMap, Instant latest) {
+        return isNull(uriMap.expiresDate()) || uriMap.expiresDate() > latest.getEpochSecond()
+                   ? latest
+                   : Instant.ofEpochSecond(uriMap.expiresDate());
+    }
+
+    private record Entry(URI longUri, Instant expires) {
+
+    }
+
+    public record Statistics(long hits, long misses, long evictions, int size) {
+
+        /**
+         * Share of lookups answered from the cache.
+         *
+         * @return the hit ratio, or 0 before the first lookup
+         */
+        public double hitRatio() {
+            var lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
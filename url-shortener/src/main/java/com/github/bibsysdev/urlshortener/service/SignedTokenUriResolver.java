@@ -0,0 +1,104 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import static com.github.bibsysdev.urlshortener.service.UriResolverImpl.COULD_NOT_RESOLVE_MESSAGE;
+import static com.github.bibsysdev.urlshortener.service.UriResolverImpl.EXPIRED_MESSAGE;
+import com.github.bibsysdev.urlshortener.service.model.ShortIdentifiers;
+import com.github.bibsysdev.urlshortener.service.token.ObjectPresigner;
+import com.github.bibsysdev.urlshortener.service.token.S3ObjectPresigner;
+import com.github.bibsysdev.urlshortener.service.token.ShortToken;
+import com.github.bibsysdev.urlshortener.service.token.ShortTokenSigner;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import nva.commons.apigateway.exceptions.ApiGatewayException;
+import nva.commons.apigateway.exceptions.BadGatewayException;
+import nva.commons.apigateway.exceptions.GoneException;
+import nva.commons.apigateway.exceptions.NotFoundException;
+import nva.commons.core.JacocoGenerated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves shortened URIs ending with a signed token by verifying the token and presigning the file it grants, without
+ * reading the table. Shortened URIs ending with the identifier of a stored mapping are resolved by the table resolver.
+ */
+public class SignedTokenUriResolver implements UriResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SignedTokenUriResolver.class);
+    private static final ShortToken PRIMING_TOKEN = new ShortToken(new UUID(0, 0), Instant.EPOCH);
+
+    private final ShortTokenSigner signer;
+    private final ObjectPresigner presigner;
+    private final UriResolver tableResolver;
+    private final Clock clock;
+
+    /**
+     * Constructor for SignedTokenUriResolver.
+     *
+     * @param signer        verifies the tokens
+     * @param presigner     presigns the files the tokens grant
+     * @param tableResolver resolves shortened URIs that are not tokens
+     * @param clock         clock used to expire tokens
+     */
+    public SignedTokenUriResolver(ShortTokenSigner signer, ObjectPresigner presigner, UriResolver tableResolver,
+                                  Clock clock) {
+        this.signer = signer;
+        this.presigner = presigner;
+        this.tableResolver = tableResolver;
+        this.clock = clock;
+    }
+
+    @JacocoGenerated
+    public static UriResolver createDefault() {
+        return createDefault(ClientRegistry.defaultRegistry());
+    }
+
+    /**
+     * Create the resolver of the process: one that resolves signed tokens when token keys are configured, falling back
+     * to the table for the rest, or else only the table resolver.
+     *
+     * @param clientRegistry clientRegistry
+     * @return a UriResolver
+     */
+    @JacocoGenerated
+    public static UriResolver createDefault(ClientRegistry clientRegistry) {
+        var tableResolver = UriResolverImpl.createDefault(clientRegistry);
+        var signer = ShortTokenSigner.fromEnvironment(clientRegistry.environment());
+        if (signer.isEmpty()) {
+            return tableResolver;
+        }
+        return new SignedTokenUriResolver(signer.get(), S3ObjectPresigner.createDefault(clientRegistry), tableResolver,
+                                          Clock.systemUTC());
+    }
+
+    @Override
+    public URI resolve(URI shortVersion) throws ApiGatewayException {
+        var identifier = ShortIdentifiers.identifierOf(shortVersion);
+        if (!ShortTokenSigner.isToken(identifier)) {
+            return tableResolver.resolve(shortVersion);
+        }
+        var token = signer.verify(identifier)
+                        .orElseThrow(() -> new NotFoundException(String.format(COULD_NOT_RESOLVE_MESSAGE,
+                                                                               shortVersion)));
+        if (!clock.instant().isBefore(token.expires())) {
+            throw new GoneException(String.format(EXPIRED_MESSAGE, shortVersion));
+        }
+        return presign(shortVersion, token);
+    }
+
+    @Override
+    public void prime() {
+        tableResolver.prime();
+        signer.verify(signer.sign(PRIMING_TOKEN));
+    }
+
+    private URI presign(URI shortVersion, ShortToken token) throws BadGatewayException {
+        try {
+            return presigner.presign(token.fileIdentifier().toString(), token.expires());
+        } catch (Exception e) {
+            LOGGER.error("Presigning exception: ", e);
+            throw new BadGatewayException(String.format(COULD_NOT_RESOLVE_MESSAGE, shortVersion));
+        }
+    }
+}
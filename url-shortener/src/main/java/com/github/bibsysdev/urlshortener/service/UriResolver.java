@@ -6,4 +6,12 @@ import nva.commons.apigateway.exceptions.ApiGatewayException;
 public interface UriResolver {
 
     URI resolve(URI shortVersion) throws ApiGatewayException;
+
+    /**
+     * Run representative work without calling DynamoDB, so that the classes involved are loaded and initialized
+     * before a snapshot of the execution environment is taken.
+     */
+    default void prime() {
+        // Nothing to prime by default
+    }
 }
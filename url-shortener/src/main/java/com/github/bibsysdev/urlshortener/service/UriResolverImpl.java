@@ -1,19 +1,31 @@
 package com.github.bibsysdev.urlshortener.service;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
 import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.github.bibsysdev.urlshortener.service.model.ShortIdentifiers;
 import com.github.bibsysdev.urlshortener.service.model.UriMap;
 import com.github.bibsysdev.urlshortener.service.storage.UriMapDao;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import nva.commons.apigateway.exceptions.GatewayResponseSerializingException;
-import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import org.slf4j.Logger;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.apigateway.exceptions.BadGatewayException;
+import nva.commons.apigateway.exceptions.GoneException;
 import nva.commons.apigateway.exceptions.NotFoundException;
 import org.slf4j.LoggerFactory;
 
@@ -21,55 +33,231 @@ public class UriResolverImpl implements UriResolver {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UriResolverImpl.class);
     public static final String COULD_NOT_RESOLVE_MESSAGE = "could not resolve %s";
+    public static final String EXPIRED_MESSAGE = "%s has expired";
     private static final String TABLE_NAME_ENVIRONMENT_VARIABLE = "SHORTENED_URI_TABLE_NAME";
+    public static final String CONSISTENT_READ_ENV = "RESOLVER_CONSISTENT_READ";
+    public static final boolean DEFAULT_CONSISTENT_READ = false;
+    private static final Duration PRIMING_EXPIRATION = Duration.ofMinutes(1);
+
+    /**
+     * Shortest lifetime a short URI is created with, that of the download links. A short URI created within the
+     * replication lag expires no sooner than this, less the lag, from now.
+     */
+    public static final Duration SHORTEST_LIFETIME = Duration.ofMinutes(3);
+    public static final Duration REPLICATION_LAG = Duration.ofSeconds(5);
+
+    /**
+     * Number of resolves between two log lines with the cache statistics, which are kept since the execution
+     * environment started and so only need to be sampled.
+     */
+    public static final long STATISTICS_LOG_INTERVAL = 1000;
+    public static final String CACHE_STATISTICS_MESSAGE =
+        "Resolver cache hits={} misses={} hitRatio={} evictions={} size={}";
+    public static final String NOT_FOUND_STATISTICS_MESSAGE =
+        "Rejected without reading the table: malformed={} recentMisses={} evictions={} size={}";
+    public static final String TABLE_READ_MESSAGE =
+        "Resolver table read found={} consistent={} capacityUnits={} latencyMillis={}";
+
+    private static final String PROJECTION_NAME_PREFIX = "#a";
+    private static final Map<String, String> PROJECTION_NAMES =
+        IntStream.range(0, UriMapDao.RESOLVE_ATTRIBUTES.size()).boxed()
+            .collect(Collectors.toUnmodifiableMap(index -> PROJECTION_NAME_PREFIX + index,
+                                                  UriMapDao.RESOLVE_ATTRIBUTES::get));
+    private static final String PROJECTION_EXPRESSION =
+        PROJECTION_NAMES.keySet().stream().sorted().collect(Collectors.joining(", "));
 
     private final AmazonDynamoDB client;
     private final String tableName;
+    private final ResolvedUriCache cache;
+    private final NotFoundCache notFoundCache;
+    private final Clock clock;
+    private final boolean consistentRead;
+    private final AtomicLong resolves = new AtomicLong();
 
     @JacocoGenerated
     public static UriResolverImpl createDefault() {
-        return new UriResolverImpl(
-            AmazonDynamoDBClientBuilder.defaultClient(), new Environment().readEnv(TABLE_NAME_ENVIRONMENT_VARIABLE));
+        return createDefault(ClientRegistry.defaultRegistry());
+    }
+
+    /**
+     * Create a UriResolverImpl using the shared DynamoDB client and environment of a registry.
+     *
+     * @param clientRegistry clientRegistry
+     * @return a UriResolverImpl
+     */
+    public static UriResolverImpl createDefault(ClientRegistry clientRegistry) {
+        var environment = clientRegistry.environment();
+        return new UriResolverImpl(clientRegistry.dynamoDbClient(),
+                                   environment.readEnv(TABLE_NAME_ENVIRONMENT_VARIABLE),
+                                   ResolvedUriCache.fromEnvironment(environment),
+                                   NotFoundCache.fromEnvironment(environment),
+                                   Clock.systemUTC(),
+                                   environment.readEnvOpt(CONSISTENT_READ_ENV)
+                                       .map(Boolean::parseBoolean)
+                                       .orElse(DEFAULT_CONSISTENT_READ));
     }
 
     public UriResolverImpl(AmazonDynamoDB client, String tableName) {
+        this(client, tableName,
+             new ResolvedUriCache(ResolvedUriCache.DEFAULT_MAX_ENTRIES, ResolvedUriCache.DEFAULT_MAX_TTL,
+                                  Clock.systemUTC()),
+             new NotFoundCache(NotFoundCache.DEFAULT_MAX_ENTRIES, NotFoundCache.DEFAULT_TTL, Clock.systemUTC()),
+             Clock.systemUTC(),
+             DEFAULT_CONSISTENT_READ);
+    }
+
+    /**
+     * Constructor for UriResolverImpl.
+     *
+     * @param client        DynamoDB client
+     * @param tableName     table of the UriMaps
+     * @param cache         cache of resolved URIs
+     * @param notFoundCache cache of short URIs known not to exist
+     * @param clock          clock used to reject expired short URIs
+     * @param consistentRead whether the table is read with strongly consistent reads, at twice the read capacity
+     */
+    public UriResolverImpl(AmazonDynamoDB client, String tableName, ResolvedUriCache cache,
+                           NotFoundCache notFoundCache, Clock clock, boolean consistentRead) {
         this.client = client;
         this.tableName = tableName;
+        this.cache = cache;
+        this.notFoundCache = notFoundCache;
+        this.clock = clock;
+        this.consistentRead = consistentRead;
     }
 
 
     @Override
     public URI resolve(URI shortenedUri) throws ApiGatewayException {
+        if (resolves.incrementAndGet() % STATISTICS_LOG_INTERVAL == 0) {
+            logStatistics();
+        }
+        var cached = cache.get(shortenedUri);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        rejectIfExpired(shortenedUri, ShortIdentifiers.expiryOf(shortenedUri));
+        if (notFoundCache.isKnownMissing(shortenedUri)) {
+            throw notFound(shortenedUri);
+        }
         var uriMap = findUriMapById(shortenedUri);
+        rejectIfExpired(shortenedUri, Optional.ofNullable(uriMap.expiresDate()).map(Instant::ofEpochSecond));
+        cache.put(uriMap);
         return uriMap.longUri();
     }
 
-    private static UriMap parseResultToUriMap(GetItemResult getItemResult) throws GatewayResponseSerializingException {
+    public ResolvedUriCache.Statistics cacheStatistics() {
+        return cache.statistics();
+    }
+
+    public NotFoundCache.Statistics notFoundStatistics() {
+        return notFoundCache.statistics();
+    }
+
+    @Override
+    public void prime() {
+        var uriMap = UriMap.create(UriShortenerImpl.PRIMING_URI, Instant.now().plus(PRIMING_EXPIRATION),
+                                   UriShortenerImpl.PRIMING_URI);
+        ShortIdentifiers.expiryOf(uriMap.shortenedUri());
+        createGetItemRequest(UriMapDao.createKey(uriMap.shortenedUri()), consistentRead);
+        new UriMapDao(new UriMapDao(uriMap).toDynamoFormat(), uriMap.shortenedUri()).getUriMap();
+    }
+
+    private static UriMap parseResultToUriMap(GetItemResult getItemResult, URI shortenedUri)
+        throws GatewayResponseSerializingException {
         try {
-            return new UriMapDao(getItemResult.getItem()).getUriMap();
+            return new UriMapDao(getItemResult.getItem(), shortenedUri).getUriMap();
         } catch (Exception e) {
             throw new GatewayResponseSerializingException(e);
         }
     }
 
+    private void logStatistics() {
+        var statistics = cache.statistics();
+        LOGGER.info(CACHE_STATISTICS_MESSAGE, statistics.hits(), statistics.misses(), statistics.hitRatio(),
+                    statistics.evictions(), statistics.size());
+        var notFoundStatistics = notFoundCache.statistics();
+        LOGGER.info(NOT_FOUND_STATISTICS_MESSAGE, notFoundStatistics.rejectedMalformed(),
+                    notFoundStatistics.rejectedRecentMisses(), notFoundStatistics.evictions(),
+                    notFoundStatistics.size());
+    }
+
+    /**
+     * Reject a short URI whose mapping has expired, whether or not DynamoDB has deleted it yet.
+     */
+    private void rejectIfExpired(URI shortenedUri, Optional<Instant> expires) throws GoneException {
+        if (expires.filter(expiry -> !clock.instant().isBefore(expiry)).isPresent()) {
+            throw new GoneException(String.format(EXPIRED_MESSAGE, shortenedUri));
+        }
+    }
+
+    private static NotFoundException notFound(URI shortenedUri) {
+        return new NotFoundException(String.format(COULD_NOT_RESOLVE_MESSAGE, shortenedUri.toString()));
+    }
+
+    /**
+     * Read the item of a short URI. Short URIs ending with a SortableIdentifier were stored before items were written
+     * in the compact layout, and are read under the key they had then, which can go once those items have expired.
+     * A miss from an eventually consistent read of a short URI that may have been created within the replication lag
+     * is confirmed with a consistent read before it is remembered, so that a short URI resolved right after it was
+     * created is not rejected until the miss expires.
+     */
     private UriMap findUriMapById(URI shortenedUri) throws ApiGatewayException {
-        var getItemResult = queryDatabase(shortenedUri);
+        var key = ShortIdentifiers.isSortableIdentifier(shortenedUri)
+                      ? UriMapDao.createLegacyKey(shortenedUri)
+                      : UriMapDao.createKey(shortenedUri);
+        var getItemResult = queryDatabase(shortenedUri, key, consistentRead);
+        if (isNull(getItemResult.getItem()) && !consistentRead && mayBeRecentlyCreated(shortenedUri)) {
+            getItemResult = queryDatabase(shortenedUri, key, true);
+        }
         if (isNull(getItemResult.getItem())) {
-            throw new NotFoundException(String.format(COULD_NOT_RESOLVE_MESSAGE, shortenedUri.toString()));
+            notFoundCache.putMiss(shortenedUri);
+            throw notFound(shortenedUri);
         }
-        return parseResultToUriMap(getItemResult);
+        return parseResultToUriMap(getItemResult, shortenedUri);
     }
 
-    private GetItemResult queryDatabase(URI shortenedUri) throws ApiGatewayException {
+    /**
+     * Whether a short URI may have been created so recently that an eventually consistent read can miss it. Only
+     * short URIs that carry their expiry can be told apart, and those that do not were created long ago.
+     */
+    private boolean mayBeRecentlyCreated(URI shortenedUri) {
+        var earliestExpiryOfRecent = clock.instant().plus(SHORTEST_LIFETIME).minus(REPLICATION_LAG);
+        return ShortIdentifiers.expiryOf(shortenedUri).filter(expiry -> !expiry.isBefore(earliestExpiryOfRecent))
+                   .isPresent();
+    }
+
+    private GetItemResult queryDatabase(URI shortenedUri, Map<String, AttributeValue> key, boolean consistent)
+        throws ApiGatewayException {
         try {
-            return client.getItem(createGetItemRequest(shortenedUri));
+            var start = System.nanoTime();
+            var getItemResult = client.getItem(createGetItemRequest(key, consistent));
+            logTableRead(getItemResult, consistent, Duration.ofNanos(System.nanoTime() - start));
+            return getItemResult;
         } catch (Exception e) {
             LOGGER.error("DynamoDb exception: ", e);
             throw new BadGatewayException(String.format(COULD_NOT_RESOLVE_MESSAGE, shortenedUri));
         }
     }
 
-    private GetItemRequest createGetItemRequest(URI shortenedUri) {
-        return new GetItemRequest().withTableName(tableName).withKey(UriMapDao.createKey(shortenedUri));
+    /**
+     * Read only the attributes a redirect needs. Read capacity is charged on the size of the whole item either way, but
+     * the response carries, and the resolver decodes, less.
+     */
+    private GetItemRequest createGetItemRequest(Map<String, AttributeValue> key, boolean consistent) {
+        return new GetItemRequest().withTableName(tableName)
+                   .withKey(key)
+                   .withProjectionExpression(PROJECTION_EXPRESSION)
+                   .withExpressionAttributeNames(PROJECTION_NAMES)
+                   .withConsistentRead(consistent)
+                   .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+    }
+
+    private static void logTableRead(GetItemResult getItemResult, boolean consistent, Duration latency) {
+        var capacityUnits = Optional.ofNullable(getItemResult.getConsumedCapacity())
+                                .map(ConsumedCapacity::getCapacityUnits)
+                                .orElse(0.0);
+        LOGGER.debug(TABLE_READ_MESSAGE, nonNull(getItemResult.getItem()), consistent, capacityUnits,
+                     latency.toMillis());
     }
 }
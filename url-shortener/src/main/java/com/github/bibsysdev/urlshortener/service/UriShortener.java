@@ -2,9 +2,42 @@ package com.github.bibsysdev.urlshortener.service;
 
 import java.net.URI;
 import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface UriShortener {
 
     URI shorten(URI longUri, Instant expirationDate);
 
+    List<URI> shortenAll(List<URI> longUris, Instant expirationDate);
+
+    /**
+     * Shorten the download of a file as a signed token that resolves without a stored mapping, when tokens are
+     * enabled.
+     *
+     * @param fileIdentifier identifier of the file
+     * @param expirationDate when the shortened URI expires
+     * @return the shortened URI, or empty when the download has to be shortened as a stored mapping
+     */
+    default Optional<URI> shortenFile(UUID fileIdentifier, Instant expirationDate) {
+        return Optional.empty();
+    }
+
+    /**
+     * Run representative work without calling DynamoDB, so that the classes involved are loaded and initialized
+     * before a snapshot of the execution environment is taken.
+     */
+    default void prime() {
+        // Nothing to prime by default
+    }
+
+    /**
+     * Drop identifiers reserved before a snapshot of the execution environment was taken, so that restored
+     * environments do not hand out the same shortened URIs.
+     */
+    default void reset() {
+        // Nothing reserved by default
+    }
+
 }
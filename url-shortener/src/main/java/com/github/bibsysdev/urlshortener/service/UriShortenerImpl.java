@@ -1,35 +1,134 @@
 package com.github.bibsysdev.urlshortener.service;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.github.bibsysdev.urlshortener.service.exceptions.TransactionFailedException;
+import com.github.bibsysdev.urlshortener.service.model.Base62BlockIdGenerator;
+import com.github.bibsysdev.urlshortener.service.model.ShortIdGenerator;
 import com.github.bibsysdev.urlshortener.service.model.UriMap;
+import com.github.bibsysdev.urlshortener.service.token.ShortToken;
+import com.github.bibsysdev.urlshortener.service.token.ShortTokenSigner;
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
-import nva.commons.core.Environment;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.paths.UriWrapper;
 
 public class UriShortenerImpl implements UriShortener {
 
+    public static final URI PRIMING_URI = URI.create("https://example.org/priming");
+    public static final int MAX_INSERT_ATTEMPTS = 3;
+    private static final Duration PRIMING_EXPIRATION = Duration.ofMinutes(1);
+
     private static final String TABLE_NAME_ENVIRONMENT_VARIABLE = "SHORTENED_URI_TABLE_NAME";
+    private static final String API_HOST_ENVIRONMENT_VARIABLE = "API_HOST";
     private final URI domain;
     private final UriShortenerWriteClient uriShortenerWriteClient;
+    private final ShortIdGenerator idGenerator;
+    private final Optional<ShortTokenSigner> tokenSigner;
 
     public UriShortenerImpl(URI domain, UriShortenerWriteClient uriShortenerWriteClient) {
+        this(domain, uriShortenerWriteClient, Base62BlockIdGenerator.defaultGenerator());
+    }
+
+    public UriShortenerImpl(URI domain, UriShortenerWriteClient uriShortenerWriteClient,
+                            ShortIdGenerator idGenerator) {
+        this(domain, uriShortenerWriteClient, idGenerator, Optional.empty());
+    }
+
+    /**
+     * Constructor for UriShortenerImpl.
+     *
+     * @param domain                  domain of the shortened URIs
+     * @param uriShortenerWriteClient client storing the UriMaps
+     * @param idGenerator             generator of the identifiers of the shortened URIs
+     * @param tokenSigner             signer of the tokens files are shortened as, or empty to store them as UriMaps
+     */
+    public UriShortenerImpl(URI domain, UriShortenerWriteClient uriShortenerWriteClient,
+                            ShortIdGenerator idGenerator, Optional<ShortTokenSigner> tokenSigner) {
         this.domain = domain;
         this.uriShortenerWriteClient = uriShortenerWriteClient;
+        this.idGenerator = idGenerator;
+        this.tokenSigner = tokenSigner;
     }
 
     @JacocoGenerated
     public static UriShortenerImpl createDefault() {
-        return new UriShortenerImpl(UriWrapper.fromUri("https://" + new Environment().readEnv("API_HOST")).getUri(),
-                                    new UriShortenerWriteClient(
-            AmazonDynamoDBClientBuilder.defaultClient(), new Environment().readEnv(TABLE_NAME_ENVIRONMENT_VARIABLE)));
+        return createDefault(ClientRegistry.defaultRegistry());
+    }
+
+    /**
+     * Create a UriShortenerImpl using the shared DynamoDB client and environment of a registry. When
+     * {@value ShortTokenSigner#SHORT_TOKEN_KEYS_ENV} is set, files are shortened as signed tokens that are not stored.
+     *
+     * @param clientRegistry clientRegistry
+     * @return a UriShortenerImpl
+     */
+    public static UriShortenerImpl createDefault(ClientRegistry clientRegistry) {
+        var environment = clientRegistry.environment();
+        return new UriShortenerImpl(UriWrapper.fromUri("https://" + environment.readEnv(API_HOST_ENVIRONMENT_VARIABLE))
+                                        .getUri(),
+                                    new UriShortenerWriteClient(clientRegistry.dynamoDbClient(),
+                                                                environment.readEnv(TABLE_NAME_ENVIRONMENT_VARIABLE)),
+                                    Base62BlockIdGenerator.defaultGenerator(),
+                                    ShortTokenSigner.fromEnvironment(environment));
     }
 
     @Override
     public URI shorten(URI longUri, Instant expiration) {
-        var uriMap = UriMap.create(longUri, expiration, domain);
-        uriShortenerWriteClient.insertUriMap(uriMap);
-        return uriMap.shortenedUri();
+        return insertRetryingTakenIdentifier(longUri, expiration).shortenedUri();
+    }
+
+    /**
+     * Shorten several URIs, storing each UriMap with its own conditional put. A put costs half the write capacity of
+     * the same item in a transaction, and an identifier that is already taken only has its own UriMap created again.
+     *
+     * @param longUris   the URIs to shorten
+     * @param expiration when the shortened URIs expire
+     * @return the shortened URIs, in the order of the long URIs
+     */
+    @Override
+    public List<URI> shortenAll(List<URI> longUris, Instant expiration) {
+        return longUris.stream().map(longUri -> shorten(longUri, expiration)).toList();
+    }
+
+    @Override
+    public Optional<URI> shortenFile(UUID fileIdentifier, Instant expiration) {
+        return tokenSigner.map(signer -> signer.sign(new ShortToken(fileIdentifier, expiration)))
+                   .map(token -> UriMap.createShortenedUri(domain, token));
+    }
+
+    @Override
+    public void prime() {
+        uriShortenerWriteClient.prime(createUriMap(PRIMING_URI, Instant.now().plus(PRIMING_EXPIRATION)));
+    }
+
+    @Override
+    public void reset() {
+        idGenerator.reset();
+    }
+
+    private UriMap createUriMap(URI longUri, Instant expiration) {
+        return UriMap.create(longUri, expiration, domain, idGenerator);
+    }
+
+    /**
+     * Insert a freshly created UriMap, creating it again with a new identifier when its identifier is already taken.
+     */
+    private UriMap insertRetryingTakenIdentifier(URI longUri, Instant expiration) {
+        var attempt = 1;
+        while (true) {
+            var uriMap = createUriMap(longUri, expiration);
+            try {
+                uriShortenerWriteClient.insertUriMap(uriMap);
+                return uriMap;
+            } catch (TransactionFailedException exception) {
+                if (attempt >= MAX_INSERT_ATTEMPTS || !exception.isCausedByExistingKey()) {
+                    throw exception;
+                }
+                attempt++;
+            }
+        }
     }
 }
@@ -3,15 +3,10 @@ package com.github.bibsysdev.urlshortener.service;
 import static com.github.bibsysdev.urlshortener.service.storage.UriMapDao.URI_MAP_PRIMARY_PARTITION_KEY;
 import static nva.commons.core.attempt.Try.attempt;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.model.Put;
-import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
-import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
-import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.github.bibsysdev.urlshortener.service.exceptions.TransactionFailedException;
 import com.github.bibsysdev.urlshortener.service.model.UriMap;
 import com.github.bibsysdev.urlshortener.service.storage.UriMapDao;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 import nva.commons.core.attempt.Failure;
 
@@ -30,36 +25,33 @@ public class UriShortenerWriteClient {
         this.tableName = tableName;
     }
 
+    /**
+     * Insert a UriMap with a conditional put that fails if its shortened URI is already taken.
+     *
+     * @param uriMap uriMap to insert
+     */
     public void insertUriMap(UriMap uriMap) {
-        var transactWriteItemsRequest = newPutTransactWriteItemsRequest(new UriMapDao(uriMap));
-        sendTransactionWriteRequest(transactWriteItemsRequest);
+        var putItemRequest = newPutItemRequest(uriMap);
+        attempt(() -> client.putItem(putItemRequest)).orElseThrow(this::handleWriteFailure);
     }
 
-    private TransactWriteItemsRequest newPutTransactWriteItemsRequest(UriMapDao data) {
-        var transactWriteItem = newPutTransactionItem(data);
-        return newTransactWriteItemsRequest(transactWriteItem);
+    /**
+     * Build the write request for a UriMap without sending it, and read the item back into a UriMap.
+     *
+     * @param uriMap uriMap to build the request for
+     * @return the UriMap read back from the item of the request
+     */
+    public UriMap prime(UriMap uriMap) {
+        var item = newPutItemRequest(uriMap).getItem();
+        return new UriMapDao(item, uriMap.shortenedUri()).getUriMap();
     }
 
-    private static TransactWriteItemsRequest newTransactWriteItemsRequest(TransactWriteItem... transaction) {
-        return newTransactWriteItemsRequest(Arrays.asList(transaction));
-    }
-
-    private static TransactWriteItemsRequest newTransactWriteItemsRequest(List<TransactWriteItem> transactionItems) {
-        return new TransactWriteItemsRequest().withTransactItems(transactionItems);
-    }
-
-    private TransactWriteItem newPutTransactionItem(UriMapDao data) {
-        Put put = new Put()
-                      .withItem(data.toDynamoFormat())
-                      .withTableName(tableName)
-                      .withConditionExpression(KEY_NOT_EXISTS_CONDITION)
-                      .withExpressionAttributeNames(PRIMARY_KEY_EQUALITY_CONDITION_ATTRIBUTE_NAMES);
-        return new TransactWriteItem().withPut(put);
-    }
-
-    private void sendTransactionWriteRequest(TransactWriteItemsRequest transactWriteItemsRequest) {
-        attempt(() -> client.transactWriteItems(transactWriteItemsRequest))
-            .orElseThrow(this::handleTransactionFailure);
+    private PutItemRequest newPutItemRequest(UriMap uriMap) {
+        return new PutItemRequest()
+                   .withTableName(tableName)
+                   .withItem(new UriMapDao(uriMap).toDynamoFormat())
+                   .withConditionExpression(KEY_NOT_EXISTS_CONDITION)
+                   .withExpressionAttributeNames(PRIMARY_KEY_EQUALITY_CONDITION_ATTRIBUTE_NAMES);
     }
 
     private static String keyNotExistsCondition() {
@@ -67,7 +59,7 @@ public class UriShortenerWriteClient {
                              PARTITION_KEY_NAME_PLACEHOLDER);
     }
 
-    private TransactionFailedException handleTransactionFailure(Failure<TransactWriteItemsResult> fail) {
+    private <T> TransactionFailedException handleWriteFailure(Failure<T> fail) {
         return new TransactionFailedException(fail.getException());
     }
 
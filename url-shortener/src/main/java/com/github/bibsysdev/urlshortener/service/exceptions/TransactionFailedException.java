@@ -1,5 +1,7 @@
 package com.github.bibsysdev.urlshortener.service.exceptions;
 
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+
 public class TransactionFailedException extends RuntimeException {
 
     public TransactionFailedException(Exception exception) {
@@ -9,4 +11,13 @@ public class TransactionFailedException extends RuntimeException {
     public TransactionFailedException(String message) {
         super(message);
     }
+
+    /**
+     * Whether the write failed because an item with the same key already exists.
+     *
+     * @return true if a condition that the key does not exist failed
+     */
+    public boolean isCausedByExistingKey() {
+        return getCause() instanceof ConditionalCheckFailedException;
+    }
 }
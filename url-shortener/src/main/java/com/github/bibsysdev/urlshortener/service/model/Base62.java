@@ -0,0 +1,33 @@
+package com.github.bibsysdev.urlshortener.service.model;
+
+/**
+ * Fixed length base62 encoding of the numbers behind short URI identifiers.
+ */
+final class Base62 {
+
+    private static final char[] ALPHABET =
+        "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final String DIGITS = new String(ALPHABET);
+    static final double BITS_PER_CHARACTER = Math.log(ALPHABET.length) / Math.log(2);
+
+    private Base62() {
+    }
+
+    static String encode(long number, int length) {
+        var characters = new char[length];
+        var remaining = number;
+        for (var index = length - 1; index >= 0; index--) {
+            characters[index] = ALPHABET[(int) (remaining % ALPHABET.length)];
+            remaining /= ALPHABET.length;
+        }
+        return new String(characters);
+    }
+
+    static long decode(String encoded) {
+        var number = 0L;
+        for (var character : encoded.toCharArray()) {
+            number = number * ALPHABET.length + DIGITS.indexOf(character);
+        }
+        return number;
+    }
+}
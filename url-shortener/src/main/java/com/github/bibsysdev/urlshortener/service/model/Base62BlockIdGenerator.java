@@ -0,0 +1,126 @@
+package com.github.bibsysdev.urlshortener.service.model;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+/**
+ * Creates fixed length base62 identifiers from blocks of numbers reserved by the process.
+ *
+ * <p>The process reserves a randomly placed block of numbers and hands them out with an atomic counter, reserving a
+ * new block when the current one runs out, so creating an identifier takes no lock. Each number is passed through a
+ * keyed permutation before it is encoded, so consecutive identifiers do not reveal each other. Within a process the
+ * permutation maps distinct numbers to distinct identifiers, while processes use independent random keys and blocks.
+ * The rare identifier that is already taken is caught by the conditional put that stores it.
+ */
+public class Base62BlockIdGenerator implements ShortIdGenerator {
+
+    public static final int MIN_LENGTH = 7;
+    public static final int MAX_LENGTH = 10;
+    public static final int DEFAULT_LENGTH = MAX_LENGTH;
+    public static final long DEFAULT_BLOCK_SIZE = 1L << 16;
+    public static final String LENGTH_OUT_OF_RANGE = "Length must be between %d and %d: %d";
+    public static final String BLOCK_SIZE_OUT_OF_RANGE = "Block size must be positive and at most %d: %d";
+
+    private static final int ROUNDS = 4;
+    private static final Base62BlockIdGenerator DEFAULT_GENERATOR = new Base62BlockIdGenerator();
+
+    private final int identifierLength;
+    private final long blockSize;
+    private final int halfBits;
+    private final long halfMask;
+    private final long blockCount;
+    private final RandomGenerator random;
+    private final AtomicReference<Block> currentBlock;
+
+    /**
+     * Constructor for Base62BlockIdGenerator.
+     *
+     * @param length    number of characters in each identifier
+     * @param blockSize how many numbers the process reserves at a time
+     * @param random    source of block positions and permutation keys
+     */
+    public Base62BlockIdGenerator(int length, long blockSize, RandomGenerator random) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            throw new IllegalArgumentException(String.format(LENGTH_OUT_OF_RANGE, MIN_LENGTH, MAX_LENGTH, length));
+        }
+        this.identifierLength = length;
+        this.halfBits = (int) (length * Base62.BITS_PER_CHARACTER) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        var numberCount = 1L << 2 * halfBits;
+        if (blockSize <= 0 || blockSize > numberCount) {
+            throw new IllegalArgumentException(String.format(BLOCK_SIZE_OUT_OF_RANGE, numberCount, blockSize));
+        }
+        this.blockSize = blockSize;
+        this.blockCount = numberCount / blockSize;
+        this.random = random;
+        this.currentBlock = new AtomicReference<>(reserveBlock(newKeys()));
+    }
+
+    public Base62BlockIdGenerator() {
+        this(DEFAULT_LENGTH, DEFAULT_BLOCK_SIZE, new SecureRandom());
+    }
+
+    /**
+     * The generator shared by the process, so that every shortener in it draws from the same reserved blocks.
+     *
+     * @return the default generator
+     */
+    public static Base62BlockIdGenerator defaultGenerator() {
+        return DEFAULT_GENERATOR;
+    }
+
+    @Override
+    public String next() {
+        var block = currentBlock.get();
+        var offset = block.nextOffset();
+        while (offset >= blockSize) {
+            currentBlock.compareAndSet(block, reserveBlock(block.keys()));
+            block = currentBlock.get();
+            offset = block.nextOffset();
+        }
+        return Base62.encode(permute(block.start() + offset, block.keys()), identifierLength);
+    }
+
+    @Override
+    public void reset() {
+        currentBlock.set(reserveBlock(newKeys()));
+    }
+
+    public int length() {
+        return identifierLength;
+    }
+
+    private Block reserveBlock(long... keys) {
+        return new Block(random.nextLong(blockCount) * blockSize, new AtomicLong(), keys);
+    }
+
+    private long[] newKeys() {
+        return random.longs(ROUNDS).toArray();
+    }
+
+    private long permute(long number, long... keys) {
+        var left = number >>> halfBits;
+        var right = number & halfMask;
+        for (var key : keys) {
+            var mixed = left ^ mix(right ^ key) & halfMask;
+            left = right;
+            right = mixed;
+        }
+        return left << halfBits | right;
+    }
+
+    private static long mix(long value) {
+        var mixed = (value ^ value >>> 30) * 0xbf58476d1ce4e5b9L;
+        mixed = (mixed ^ mixed >>> 27) * 0x94d049bb133111ebL;
+        return mixed ^ mixed >>> 31;
+    }
+
+    private record Block(long start, AtomicLong offset, long[] keys) {
+
+        public long nextOffset() {
+            return offset.getAndIncrement();
+        }
+    }
+}
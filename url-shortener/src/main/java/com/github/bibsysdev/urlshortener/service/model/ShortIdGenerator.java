@@ -0,0 +1,22 @@
+package com.github.bibsysdev.urlshortener.service.model;
+
+/**
+ * Creates the identifiers that end shortened URIs.
+ */
+public interface ShortIdGenerator {
+
+    /**
+     * Create an identifier that this generator has not handed out before.
+     *
+     * @return an identifier
+     */
+    String next();
+
+    /**
+     * Drop reserved identifiers, so that execution environments restored from the same snapshot do not hand out the
+     * same identifiers.
+     */
+    default void reset() {
+        // Nothing reserved by default
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.bibsysdev.urlshortener.service.model;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Tells whether the last path segment of a URI could be the identifier of a shortened URI: a base62 identifier from
+ * one of the generators, or a SortableIdentifier, a UUID prefixed with a hexadecimal timestamp, from before base62
+ * identifiers were introduced.
+ *
+ * <p>Identifiers of new shortened URIs start with their expiry, rounded up to the minute and base62 encoded in
+ * {@value #EXPIRY_LENGTH} characters, so that an expired link can be told from the identifier alone. Since the expiry
+ * is rounded up, a link is never taken for expired before its mapping is. Identifiers without the expiry, from before
+ * it was added, are still well-formed.
+ */
+public final class ShortIdentifiers {
+
+    public static final int EXPIRY_LENGTH = 5;
+    private static final long SECONDS_PER_UNIT = TimeUnit.MINUTES.toSeconds(1);
+    private static final long MAX_UNITS = Base62.decode("z".repeat(EXPIRY_LENGTH));
+    private static final String BASE62 = "[0-9A-Za-z]";
+    private static final Pattern WITH_EXPIRY = Pattern.compile(
+        BASE62 + "{" + (EXPIRY_LENGTH + Base62BlockIdGenerator.MIN_LENGTH) + ","
+        + (EXPIRY_LENGTH + Base62BlockIdGenerator.MAX_LENGTH) + "}");
+    private static final Pattern SORTABLE_IDENTIFIER = Pattern.compile(
+        "\\p{XDigit}{12}-\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+    private static final Pattern WELL_FORMED = Pattern.compile(
+        WITH_EXPIRY.pattern()
+        + "|" + BASE62 + "{" + Base62BlockIdGenerator.MIN_LENGTH + "," + Base62BlockIdGenerator.MAX_LENGTH + "}"
+        + "|" + SORTABLE_IDENTIFIER.pattern());
+
+    private ShortIdentifiers() {
+    }
+
+    /**
+     * Whether a URI ends with an identifier that a shortened URI could have.
+     *
+     * @param shortenedUri the URI to check
+     * @return true if the last path segment is a well-formed identifier
+     */
+    public static boolean isWellFormed(URI shortenedUri) {
+        return WELL_FORMED.matcher(identifierOf(shortenedUri)).matches();
+    }
+
+    /**
+     * Whether a URI ends with a SortableIdentifier, as shortened URIs did before base62 identifiers were introduced.
+     *
+     * @param shortenedUri the URI to check
+     * @return true if the last path segment is a SortableIdentifier
+     */
+    public static boolean isSortableIdentifier(URI shortenedUri) {
+        return SORTABLE_IDENTIFIER.matcher(identifierOf(shortenedUri)).matches();
+    }
+
+    /**
+     * The identifier a shortened URI ends with.
+     *
+     * @param shortenedUri the shortened URI
+     * @return the last path segment, or an empty string when the URI has no path
+     */
+    public static String identifierOf(URI shortenedUri) {
+        var path = shortenedUri.getPath();
+        return path == null ? "" : path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Start an identifier with the expiry of its mapping.
+     *
+     * @param expiresDate when the mapping expires
+     * @param identifier  the identifier from the generator
+     * @return the identifier of the shortened URI
+     */
+    public static String withExpiry(Instant expiresDate, String identifier) {
+        var units = Math.floorDiv(expiresDate.getEpochSecond() + SECONDS_PER_UNIT - 1, SECONDS_PER_UNIT);
+        return Base62.encode(Math.min(Math.max(units, 0), MAX_UNITS), EXPIRY_LENGTH) + identifier;
+    }
+
+    /**
+     * The expiry a shortened URI carries in its identifier.
+     *
+     * @param shortenedUri the shortened URI
+     * @return the expiry rounded up to the minute, or empty when the identifier carries none
+     */
+    public static Optional<Instant> expiryOf(URI shortenedUri) {
+        var identifier = identifierOf(shortenedUri);
+        if (!WITH_EXPIRY.matcher(identifier).matches()) {
+            return Optional.empty();
+        }
+        var units = Base62.decode(identifier.substring(0, EXPIRY_LENGTH));
+        return Optional.of(Instant.ofEpochSecond(units * SECONDS_PER_UNIT));
+    }
+}
@@ -3,7 +3,6 @@ package com.github.bibsysdev.urlshortener.service.model;
 import static java.util.Objects.isNull;
 import java.net.URI;
 import java.time.Instant;
-import no.unit.nva.identifiers.SortableIdentifier;
 import nva.commons.core.StringUtils;
 import nva.commons.core.paths.UriWrapper;
 
@@ -13,21 +12,43 @@ public record UriMap(URI shortenedUri, URI longUri, Instant createdDate, Long ex
     private static final String SHORTENED_PATH = "short";
 
     public static UriMap create(URI longVersion, Instant expiresDate, URI domain) {
-        validateRequest(longVersion, expiresDate);
-        return new UriMap(createNewShortVersion(domain), longVersion, Instant.now(), expiresDate.getEpochSecond());
+        return create(longVersion, expiresDate, domain, Base62BlockIdGenerator.defaultGenerator());
     }
 
-    private static void validateRequest(URI longVersion, Instant expiresDate) {
-        if (isNull(longVersion) || StringUtils.isBlank(longVersion.toString()) || isNull(expiresDate)) {
-            throw new IllegalArgumentException("Missing required parameters");
-        }
+    /**
+     * Create a UriMap whose shortened URI ends with an identifier from the given generator.
+     *
+     * @param longVersion the URI to shorten
+     * @param expiresDate when the mapping expires
+     * @param domain      domain of the shortened URI
+     * @param idGenerator generator of the identifier of the shortened URI
+     * @return a UriMap
+     */
+    public static UriMap create(URI longVersion, Instant expiresDate, URI domain, ShortIdGenerator idGenerator) {
+        validateRequest(longVersion, expiresDate);
+        var identifier = ShortIdentifiers.withExpiry(expiresDate, idGenerator.next());
+        return new UriMap(createShortenedUri(domain, identifier), longVersion, Instant.now(),
+                          expiresDate.getEpochSecond());
     }
 
-    private static URI createNewShortVersion(URI domain) {
+    /**
+     * Create the shortened URI ending with an identifier.
+     *
+     * @param domain     domain of the shortened URI
+     * @param identifier identifier of the shortened URI
+     * @return the shortened URI
+     */
+    public static URI createShortenedUri(URI domain, String identifier) {
         return UriWrapper.fromUri(domain)
                    .addChild(PATH)
                    .addChild(SHORTENED_PATH)
-                   .addChild(SortableIdentifier.next().toString())
+                   .addChild(identifier)
                    .getUri();
     }
+
+    private static void validateRequest(URI longVersion, Instant expiresDate) {
+        if (isNull(longVersion) || StringUtils.isBlank(longVersion.toString()) || isNull(expiresDate)) {
+            throw new IllegalArgumentException("Missing required parameters");
+        }
+    }
 }
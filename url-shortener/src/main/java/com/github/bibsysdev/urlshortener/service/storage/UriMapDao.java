@@ -1,18 +1,52 @@
 package com.github.bibsysdev.urlshortener.service.storage;
 
-import static nva.commons.core.attempt.Try.attempt;
-import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.nonNull;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.github.bibsysdev.urlshortener.service.model.ShortIdentifiers;
 import com.github.bibsysdev.urlshortener.service.model.UriMap;
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import no.unit.nva.commons.json.JsonUtils;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+/**
+ * Maps UriMaps to and from DynamoDB items. The attributes are written and read directly, so an item takes one
+ * AttributeValue per attribute and no intermediate representation, and attributes without a value are left out.
+ *
+ * <p>Items are written in a compact layout, since presigned URIs with a session token would otherwise push most items
+ * past the 1 KB a write unit covers. The key holds the identifier of the shortened URI alone, the long URI is deflated
+ * into a binary attribute, the created date is a number in epoch milliseconds, and attribute names are one character.
+ * The names of the key and of the expiry, a number in epoch seconds, are kept, as the table and its time to live are
+ * defined on them. Items written before are still read: their key is the whole shortened URI, and the long URI and
+ * created date are strings.
+ */
 public class UriMapDao {
 
     public static final String URI_MAP_PRIMARY_PARTITION_KEY = "shortenedUri";
+    public static final String DEFLATED_LONG_URI = "u";
+    public static final String CREATED_EPOCH_MILLIS = "c";
+    public static final String EXPIRES_DATE = "expiresDate";
+    public static final String LEGACY_LONG_URI = "longUri";
+    public static final String LEGACY_CREATED_DATE = "createdDate";
+    public static final String TRUNCATED_LONG_URI = "Deflated long URI is truncated";
+    /**
+     * The attributes a shortened URI is resolved from, in either layout. The created date is not needed to redirect.
+     */
+    public static final List<String> RESOLVE_ATTRIBUTES = List.of(DEFLATED_LONG_URI, LEGACY_LONG_URI, EXPIRES_DATE);
+    private static final int ITEM_CAPACITY = 8;
+    private static final int BUFFER_SIZE = 512;
+    private static final ThreadLocal<Deflater> DEFLATER =
+        ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
 
     private final UriMap uriMap;
 
@@ -20,30 +54,124 @@ public class UriMapDao {
         this.uriMap = uriMap;
     }
 
-    public UriMapDao(Map<String, AttributeValue> valuesMap) {
-        this.uriMap = fromDynamoFormat(valuesMap);
+    /**
+     * Read a UriMap from an item in either layout.
+     *
+     * @param valuesMap    the item
+     * @param shortenedUri the shortened URI the item was looked up with
+     */
+    public UriMapDao(Map<String, AttributeValue> valuesMap, URI shortenedUri) {
+        this.uriMap = fromDynamoFormat(valuesMap, shortenedUri);
     }
 
     public UriMap getUriMap() {
         return uriMap;
     }
 
+    /**
+     * The key of the item of a shortened URI in the compact layout.
+     *
+     * @param shortenedUri the shortened URI
+     * @return the key
+     */
     public static Map<String, AttributeValue> createKey(URI shortenedUri) {
+        var map = new HashMap<String, AttributeValue>();
+        map.put(URI_MAP_PRIMARY_PARTITION_KEY, new AttributeValue().withS(ShortIdentifiers.identifierOf(shortenedUri)));
+        return map;
+    }
+
+    /**
+     * The key of the item of a shortened URI as it was written before the compact layout.
+     *
+     * @param shortenedUri the shortened URI
+     * @return the key
+     */
+    public static Map<String, AttributeValue> createLegacyKey(URI shortenedUri) {
         var map = new HashMap<String, AttributeValue>();
         map.put(URI_MAP_PRIMARY_PARTITION_KEY, new AttributeValue().withS(shortenedUri.toString()));
         return map;
     }
 
     public Map<String, AttributeValue> toDynamoFormat() {
-        var item = attempt(() -> Item.fromJSON(
-            JsonUtils.dynamoObjectMapper.writeValueAsString(this.getUriMap()))).orElseThrow();
-        return ItemUtils.toAttributeValues(item);
+        var item = new HashMap<String, AttributeValue>(ITEM_CAPACITY);
+        if (nonNull(uriMap.shortenedUri())) {
+            item.putAll(createKey(uriMap.shortenedUri()));
+        }
+        if (nonNull(uriMap.longUri())) {
+            item.put(DEFLATED_LONG_URI, new AttributeValue().withB(ByteBuffer.wrap(deflate(uriMap.longUri()))));
+        }
+        if (nonNull(uriMap.createdDate())) {
+            item.put(CREATED_EPOCH_MILLIS, number(uriMap.createdDate().toEpochMilli()));
+        }
+        if (nonNull(uriMap.expiresDate())) {
+            item.put(EXPIRES_DATE, number(uriMap.expiresDate()));
+        }
+        return item;
+    }
+
+    private static AttributeValue number(long value) {
+        return new AttributeValue().withN(Long.toString(value));
+    }
+
+    private static UriMap fromDynamoFormat(Map<String, AttributeValue> valuesMap, URI shortenedUri) {
+        return new UriMap(shortenedUri,
+                          readLongUri(valuesMap).orElse(null),
+                          readCreatedDate(valuesMap).orElse(null),
+                          read(valuesMap, EXPIRES_DATE, AttributeValue::getN).map(Long::valueOf).orElse(null));
+    }
+
+    private static Optional<URI> readLongUri(Map<String, AttributeValue> valuesMap) {
+        return Optional.ofNullable(valuesMap.get(DEFLATED_LONG_URI))
+                   .map(AttributeValue::getB)
+                   .map(UriMapDao::inflate)
+                   .or(() -> read(valuesMap, LEGACY_LONG_URI, AttributeValue::getS))
+                   .map(URI::create);
+    }
+
+    private static Optional<Instant> readCreatedDate(Map<String, AttributeValue> valuesMap) {
+        return read(valuesMap, CREATED_EPOCH_MILLIS, AttributeValue::getN)
+                   .map(Long::parseLong)
+                   .map(Instant::ofEpochMilli)
+                   .or(() -> read(valuesMap, LEGACY_CREATED_DATE, AttributeValue::getS).map(Instant::parse));
+    }
+
+    private static Optional<String> read(Map<String, AttributeValue> valuesMap, String name,
+                                         Function<AttributeValue, String> type) {
+        return Optional.ofNullable(valuesMap.get(name)).map(type);
+    }
+
+    private static byte[] deflate(URI longUri) {
+        var deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(longUri.toString().getBytes(UTF_8));
+        deflater.finish();
+        var output = new ByteArrayOutputStream(BUFFER_SIZE);
+        var buffer = new byte[BUFFER_SIZE];
+        while (!deflater.finished()) {
+            output.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return output.toByteArray();
     }
 
-    private static UriMap fromDynamoFormat(Map<String, AttributeValue> valuesMap) {
-        var item = ItemUtils.toItem(valuesMap);
-        return attempt(() -> JsonUtils.dynamoObjectMapper
-                                 .readValue(item.toJSON(), UriMap.class))
-                   .orElseThrow();
+    private static String inflate(ByteBuffer deflated) {
+        var input = new byte[deflated.remaining()];
+        deflated.duplicate().get(input);
+        var inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(input);
+        var output = new ByteArrayOutputStream(BUFFER_SIZE);
+        var buffer = new byte[BUFFER_SIZE];
+        try {
+            while (!inflater.finished()) {
+                var inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new IllegalArgumentException(TRUNCATED_LONG_URI);
+                }
+                output.write(buffer, 0, inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return output.toString(UTF_8);
     }
 }
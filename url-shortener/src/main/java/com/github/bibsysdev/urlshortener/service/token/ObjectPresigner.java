@@ -0,0 +1,19 @@
+package com.github.bibsysdev.urlshortener.service.token;
+
+import java.net.URI;
+import java.time.Instant;
+
+/**
+ * Presigns downloads of stored objects.
+ */
+public interface ObjectPresigner {
+
+    /**
+     * Create a presigned URI for downloading an object.
+     *
+     * @param key        key of the object
+     * @param expiration when the presigned URI expires
+     * @return a presigned URI
+     */
+    URI presign(String key, Instant expiration);
+}
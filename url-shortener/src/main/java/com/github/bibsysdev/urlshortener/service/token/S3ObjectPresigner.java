@@ -0,0 +1,50 @@
+package com.github.bibsysdev.urlshortener.service.token;
+
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.github.bibsysdev.urlshortener.service.ClientRegistry;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Date;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * Presigns downloads of objects in the bucket of the published files.
+ */
+public class S3ObjectPresigner implements ObjectPresigner {
+
+    public static final String BUCKET_NAME_ENV = "BUCKET_NAME";
+    public static final String OBJECT_PRESIGNER = "objectPresigner";
+
+    private final AmazonS3 s3Client;
+    private final String bucketName;
+
+    public S3ObjectPresigner(AmazonS3 s3Client, String bucketName) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+    }
+
+    /**
+     * Get the presigner shared by the process, creating it from the environment of the registry the first time.
+     *
+     * @param clientRegistry clientRegistry
+     * @return the shared presigner
+     */
+    @JacocoGenerated
+    public static ObjectPresigner createDefault(ClientRegistry clientRegistry) {
+        return clientRegistry.getOrCreate(OBJECT_PRESIGNER, S3ObjectPresigner::fromEnvironment);
+    }
+
+    @Override
+    public URI presign(String key, Instant expiration) {
+        return URI.create(s3Client.generatePresignedUrl(bucketName, key, Date.from(expiration), HttpMethod.GET)
+                              .toString());
+    }
+
+    @JacocoGenerated
+    private static ObjectPresigner fromEnvironment(Environment environment) {
+        return new S3ObjectPresigner(AmazonS3ClientBuilder.defaultClient(), environment.readEnv(BUCKET_NAME_ENV));
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.bibsysdev.urlshortener.service.token;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What a signed short token grants: downloading a file until the token expires.
+ *
+ * @param fileIdentifier identifier of the file, which is also its key in the bucket
+ * @param expires        when the token stops resolving, to the second
+ */
+public record ShortToken(UUID fileIdentifier, Instant expires) {
+
+}
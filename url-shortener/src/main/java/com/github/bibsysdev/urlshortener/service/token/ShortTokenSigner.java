@@ -0,0 +1,179 @@
+package com.github.bibsysdev.urlshortener.service.token;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import nva.commons.core.Environment;
+
+/**
+ * Packs what a short URI grants into a token signed with a keyed hash, so that the token can be resolved without
+ * storing a mapping.
+ *
+ * <p>A token is the base64url encoded payload and signature, separated by {@value #SEPARATOR}. The payload holds the
+ * format and key version, the expiry in epoch seconds and the file identifier, which is all a download needs, in
+ * {@value #PAYLOAD_BYTES} bytes. The version of the key travels in the token, so that keys can be rotated: new tokens
+ * are signed with the signing key, while tokens signed with any other configured key still verify until they expire.
+ */
+public class ShortTokenSigner {
+
+    public static final String SHORT_TOKEN_KEYS_ENV = "SHORT_TOKEN_KEYS";
+    public static final String SHORT_TOKEN_SIGNING_KEY_VERSION_ENV = "SHORT_TOKEN_SIGNING_KEY_VERSION";
+    public static final char SEPARATOR = '.';
+    public static final String UNKNOWN_SIGNING_KEY = "Signing key version %d is not among the keys";
+    public static final String KEY_VERSION_OUT_OF_RANGE = "Key versions must be between 0 and 255: %d";
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int MAX_KEY_VERSION = 0xFF;
+    private static final int PAYLOAD_BYTES = 2 + Integer.BYTES + 2 * Long.BYTES;
+    private static final int SIGNATURE_BYTES = 16;
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String KEY_SEPARATOR = ",";
+    private static final String VERSION_SEPARATOR = ":";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<Integer, ThreadLocal<Mac>> macs;
+    private final int signingKeyVersion;
+
+    /**
+     * Constructor for ShortTokenSigner.
+     *
+     * @param keys              secret keys by version
+     * @param signingKeyVersion version of the key new tokens are signed with
+     */
+    public ShortTokenSigner(Map<Integer, String> keys, int signingKeyVersion) {
+        keys.keySet().forEach(ShortTokenSigner::validateKeyVersion);
+        if (!keys.containsKey(signingKeyVersion)) {
+            throw new IllegalArgumentException(String.format(UNKNOWN_SIGNING_KEY, signingKeyVersion));
+        }
+        this.macs = keys.entrySet().stream()
+                        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> macOf(entry.getValue())));
+        this.signingKeyVersion = signingKeyVersion;
+    }
+
+    /**
+     * Create a signer from the keys in {@value #SHORT_TOKEN_KEYS_ENV}, given as comma separated {@code version:key}
+     * pairs, signing with the version in {@value #SHORT_TOKEN_SIGNING_KEY_VERSION_ENV} or else the highest version.
+     *
+     * @param environment environment
+     * @return a signer, or empty when no keys are configured and shortened URIs are stored instead
+     */
+    public static Optional<ShortTokenSigner> fromEnvironment(Environment environment) {
+        return environment.readEnvOpt(SHORT_TOKEN_KEYS_ENV)
+                   .map(ShortTokenSigner::parseKeys)
+                   .map(keys -> new ShortTokenSigner(keys, signingKeyVersionFrom(environment, keys)));
+    }
+
+    /**
+     * Whether an identifier is shaped like a token rather than the identifier of a stored mapping.
+     *
+     * @param identifier last path segment of a shortened URI
+     * @return true if the identifier should be verified as a token
+     */
+    public static boolean isToken(String identifier) {
+        return identifier.indexOf(SEPARATOR) >= 0;
+    }
+
+    /**
+     * Sign a token with the signing key.
+     *
+     * @param token what the token grants
+     * @return the signed token, safe to use as a path segment
+     */
+    public String sign(ShortToken token) {
+        var payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                          .put(FORMAT_VERSION)
+                          .put((byte) signingKeyVersion)
+                          .putInt((int) token.expires().getEpochSecond())
+                          .putLong(token.fileIdentifier().getMostSignificantBits())
+                          .putLong(token.fileIdentifier().getLeastSignificantBits())
+                          .array();
+        return ENCODER.encodeToString(payload) + SEPARATOR
+               + ENCODER.encodeToString(signature(macs.get(signingKeyVersion), payload));
+    }
+
+    /**
+     * Verify a signed token. The expiry is not checked, so that the caller can tell an expired token from one that
+     * was never issued.
+     *
+     * @param signedToken the signed token
+     * @return what the token grants, or empty when the token is malformed, tampered with or signed with an unknown key
+     */
+    public Optional<ShortToken> verify(String signedToken) {
+        var separator = signedToken.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        try {
+            var payload = DECODER.decode(signedToken.substring(0, separator));
+            if (payload.length != PAYLOAD_BYTES || payload[0] != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            var mac = macs.get(Byte.toUnsignedInt(payload[1]));
+            var signature = DECODER.decode(signedToken.substring(separator + 1));
+            if (isNull(mac) || !MessageDigest.isEqual(signature, signature(mac, payload))) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(payload));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static ShortToken decode(byte... payload) {
+        var buffer = ByteBuffer.wrap(payload, 2, payload.length - 2);
+        var expires = Instant.ofEpochSecond(Integer.toUnsignedLong(buffer.getInt()));
+        var fileIdentifier = new UUID(buffer.getLong(), buffer.getLong());
+        return new ShortToken(fileIdentifier, expires);
+    }
+
+    private static byte[] signature(ThreadLocal<Mac> mac, byte... payload) {
+        return Arrays.copyOf(mac.get().doFinal(payload), SIGNATURE_BYTES);
+    }
+
+    private static ThreadLocal<Mac> macOf(String key) {
+        var secretKey = new SecretKeySpec(key.getBytes(UTF_8), HMAC_SHA256);
+        return ThreadLocal.withInitial(() -> newMac(secretKey));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            var mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<Integer, String> parseKeys(String keys) {
+        return Arrays.stream(keys.split(KEY_SEPARATOR))
+                   .map(String::strip)
+                   .map(pair -> pair.split(VERSION_SEPARATOR, 2))
+                   .collect(Collectors.toMap(pair -> Integer.parseInt(pair[0]), pair -> pair[1]));
+    }
+
+    private static int signingKeyVersionFrom(Environment environment, Map<Integer, String> keys) {
+        return environment.readEnvOpt(SHORT_TOKEN_SIGNING_KEY_VERSION_ENV)
+                   .map(Integer::parseInt)
+                   .orElseGet(() -> Collections.max(keys.keySet()));
+    }
+
+    private static void validateKeyVersion(int version) {
+        if (version < 0 || version > MAX_KEY_VERSION) {
+            throw new IllegalArgumentException(String.format(KEY_VERSION_OUT_OF_RANGE, version));
+        }
+    }
+}
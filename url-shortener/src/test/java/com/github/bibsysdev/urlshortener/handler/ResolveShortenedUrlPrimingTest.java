@@ -0,0 +1,31 @@
+package com.github.bibsysdev.urlshortener.handler;
+
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.github.bibsysdev.urlshortener.handler.utils.FakeUriResolver;
+import com.github.bibsysdev.urlshortener.service.UriResolverImpl;
+import org.junit.jupiter.api.Test;
+
+class ResolveShortenedUrlPrimingTest {
+
+    @Test
+    void shouldPrimeResolverWithoutCallingDynamoDb() {
+        var client = mock(AmazonDynamoDB.class);
+        var priming = new ResolveShortenedUrlPriming(new UriResolverImpl(client, "url_shortener"));
+
+        priming.beforeCheckpoint(null);
+        priming.afterRestore(null);
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void shouldAcceptResolversWithNothingToPrime() {
+        var priming = new ResolveShortenedUrlPriming(new FakeUriResolver(randomUri()));
+
+        assertDoesNotThrow(() -> priming.beforeCheckpoint(null));
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import static com.github.bibsysdev.urlshortener.service.ClientRegistry.DYNAMODB_CLIENT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClientRegistryTest {
+
+    private static final String TABLE_NAME = "url_shortener";
+    private static final String API_HOST = "api.example.org";
+
+    private Environment environment;
+    private ClientRegistry clientRegistry;
+
+    @BeforeEach
+    void setUp() {
+        environment = mock(Environment.class);
+        when(environment.readEnvOpt("SHORTENED_URI_TABLE_NAME")).thenReturn(Optional.of(TABLE_NAME));
+        when(environment.readEnvOpt("API_HOST")).thenReturn(Optional.of(API_HOST));
+        when(environment.readEnvOpt("MISSING")).thenReturn(Optional.empty());
+        clientRegistry = new ClientRegistry(environment);
+    }
+
+    @Test
+    void shouldBuildEachClientOnceAndShareIt() {
+        var builds = new AtomicInteger();
+        var first = clientRegistry.getOrCreate("client", env -> new Object[]{builds.incrementAndGet()});
+        var second = clientRegistry.getOrCreate("client", env -> new Object[]{builds.incrementAndGet()});
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(builds.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldLetFactoriesUseOtherClientsAndTheEnvironment() {
+        var client = clientRegistry.getOrCreate(
+            "outer", env -> env.readEnv("API_HOST") + clientRegistry.getOrCreate("inner", innerEnv -> "/inner"));
+
+        assertThat(client, is(equalTo(API_HOST + "/inner")));
+        assertThat(clientRegistry.initTimings().keySet(), contains("inner", "outer"));
+    }
+
+    @Test
+    void shouldReadEachEnvironmentVariableOnce() {
+        clientRegistry.environment().readEnv("API_HOST");
+        clientRegistry.environment().readEnv("API_HOST");
+        clientRegistry.environment().readEnvOpt("API_HOST");
+
+        verify(environment, times(1)).readEnvOpt("API_HOST");
+    }
+
+    @Test
+    void shouldThrowWhenRequiredEnvironmentVariableIsMissing() {
+        var cachedEnvironment = clientRegistry.environment();
+
+        assertThrows(IllegalStateException.class, () -> cachedEnvironment.readEnv("MISSING"));
+    }
+
+    @Test
+    void shouldShareDynamoDbClientBetweenShortenerAndResolver() {
+        var dynamoDbClient = mock(AmazonDynamoDB.class);
+        clientRegistry.getOrCreate(DYNAMODB_CLIENT, env -> dynamoDbClient);
+
+        var uriMap = UriShortenerImpl.createDefault(clientRegistry).shorten(URI.create("https://example.org/long"),
+                                                                            Instant.now().plusSeconds(60));
+        UriResolverImpl.createDefault(clientRegistry);
+
+        assertThat(uriMap.getHost(), is(equalTo(API_HOST)));
+        assertThat(clientRegistry.dynamoDbClient(), is(sameInstance(dynamoDbClient)));
+        verify(environment, times(1)).readEnvOpt("SHORTENED_URI_TABLE_NAME");
+    }
+
+    @Test
+    void shouldProvideOneDefaultRegistry() {
+        assertThat(ClientRegistry.defaultRegistry(), is(sameInstance(ClientRegistry.defaultRegistry())));
+    }
+}
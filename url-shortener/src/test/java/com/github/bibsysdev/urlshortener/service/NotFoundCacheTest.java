@@ -0,0 +1,105 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import static com.github.bibsysdev.urlshortener.service.NotFoundCache.NOT_FOUND_CACHE_MAX_ENTRIES_ENV;
+import static com.github.bibsysdev.urlshortener.service.NotFoundCache.NOT_FOUND_CACHE_TTL_SECONDS_ENV;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import no.unit.nva.identifiers.SortableIdentifier;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NotFoundCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final String SHORT_PATH = "https://api.example.org/download/short/";
+
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @ParameterizedTest(name = "Should reject malformed identifier {0}")
+    @ValueSource(strings = {"abc", "abcdefghijk", "abc-1234", "abc123%21", "0d5b1bf2-5a2f-4f7c-9b3a-2f1c0e7d8a96", ""})
+    void shouldRejectMalformedIdentifiers(String identifier) {
+        var cache = new NotFoundCache(2, TTL, clock);
+
+        assertThat(cache.isKnownMissing(URI.create(SHORT_PATH + identifier)), is(true));
+        assertThat(cache.statistics().rejectedMalformed(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldRejectUriWithoutPath() {
+        var cache = new NotFoundCache(2, TTL, clock);
+
+        assertThat(cache.isKnownMissing(URI.create("urn:abc1234")), is(true));
+    }
+
+    @ParameterizedTest(name = "Should look up well-formed identifier {0}")
+    @ValueSource(strings = {"abc1234", "AbCdEf0123", "018c1f2a3b4c-0d5b1bf2-5a2f-4f7c-9b3a-2f1c0e7d8a96"})
+    void shouldLookUpWellFormedIdentifiers(String identifier) {
+        var cache = new NotFoundCache(2, TTL, clock);
+
+        assertThat(cache.isKnownMissing(URI.create(SHORT_PATH + identifier)), is(false));
+    }
+
+    @Test
+    void shouldRememberMissUntilTtlHasPassed() {
+        var cache = new NotFoundCache(2, TTL, clock);
+        var shortUri = randomShortUri();
+        cache.putMiss(shortUri);
+
+        when(clock.instant()).thenReturn(NOW.plus(TTL).minusSeconds(1));
+        assertThat(cache.isKnownMissing(shortUri), is(true));
+
+        when(clock.instant()).thenReturn(NOW.plus(TTL));
+        assertThat(cache.isKnownMissing(shortUri), is(false));
+        assertThat(cache.statistics(), is(equalTo(new NotFoundCache.Statistics(0, 1, 0, 0))));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedMissWhenFull() {
+        var cache = new NotFoundCache(1, TTL, clock);
+        var first = randomShortUri();
+        cache.putMiss(first);
+        cache.putMiss(randomShortUri());
+
+        assertThat(cache.isKnownMissing(first), is(false));
+        assertThat(cache.statistics().evictions(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldReadLimitsFromEnvironment() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        when(environment.readEnvOpt(NOT_FOUND_CACHE_MAX_ENTRIES_ENV)).thenReturn(Optional.of("1"));
+        when(environment.readEnvOpt(NOT_FOUND_CACHE_TTL_SECONDS_ENV)).thenReturn(Optional.of("60"));
+        var cache = NotFoundCache.fromEnvironment(environment);
+        var shortUri = randomShortUri();
+
+        cache.putMiss(shortUri);
+        cache.putMiss(randomShortUri());
+
+        assertThat(cache.isKnownMissing(shortUri), is(false));
+        assertThat(cache.statistics().size(), is(equalTo(1)));
+    }
+
+    private static URI randomShortUri() {
+        return URI.create(SHORT_PATH + SortableIdentifier.next());
+    }
+}
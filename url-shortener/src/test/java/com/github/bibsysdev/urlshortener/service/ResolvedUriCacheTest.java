@@ -0,0 +1,126 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import static com.github.bibsysdev.urlshortener.service.ResolvedUriCache.RESOLVER_CACHE_MAX_ENTRIES_ENV;
+import static com.github.bibsysdev.urlshortener.service.ResolvedUriCache.RESOLVER_CACHE_MAX_TTL_SECONDS_ENV;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import com.github.bibsysdev.urlshortener.service.model.UriMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResolvedUriCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration MAX_TTL = Duration.ofMinutes(10);
+
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void shouldReturnCachedLongUriUntilMappingExpires() {
+        var cache = new ResolvedUriCache(2, MAX_TTL, clock);
+        var uriMap = uriMap(NOW.plusSeconds(60));
+        cache.put(uriMap);
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(59));
+        assertThat(cache.get(uriMap.shortenedUri()), is(equalTo(Optional.of(uriMap.longUri()))));
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        assertThat(cache.get(uriMap.shortenedUri()), is(equalTo(Optional.empty())));
+        assertThat(cache.statistics(), is(equalTo(new ResolvedUriCache.Statistics(1, 1, 0, 0))));
+    }
+
+    @Test
+    void shouldKeepEntriesNoLongerThanMaxTtl() {
+        var cache = new ResolvedUriCache(2, MAX_TTL, clock);
+        var uriMap = uriMap(NOW.plus(MAX_TTL).plusSeconds(60));
+        cache.put(uriMap);
+
+        when(clock.instant()).thenReturn(NOW.plus(MAX_TTL));
+
+        assertThat(cache.get(uriMap.shortenedUri()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldKeepMappingsWithoutExpiryForMaxTtl() {
+        var cache = new ResolvedUriCache(2, MAX_TTL, clock);
+        var uriMap = new UriMap(randomUri(), randomUri(), NOW, null);
+        cache.put(uriMap);
+
+        when(clock.instant()).thenReturn(NOW.plus(MAX_TTL).minusSeconds(1));
+
+        assertThat(cache.get(uriMap.shortenedUri()), is(equalTo(Optional.of(uriMap.longUri()))));
+    }
+
+    @Test
+    void shouldNotKeepExpiredMappings() {
+        var cache = new ResolvedUriCache(2, MAX_TTL, clock);
+        cache.put(uriMap(NOW));
+
+        assertThat(cache.statistics().size(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        var cache = new ResolvedUriCache(2, MAX_TTL, clock);
+        var first = uriMap(NOW.plusSeconds(60));
+        var second = uriMap(NOW.plusSeconds(60));
+        cache.put(first);
+        cache.put(second);
+        cache.get(first.shortenedUri());
+        cache.put(uriMap(NOW.plusSeconds(60)));
+
+        assertThat(cache.get(second.shortenedUri()), is(equalTo(Optional.empty())));
+        assertThat(cache.get(first.shortenedUri()), is(equalTo(Optional.of(first.longUri()))));
+        assertThat(cache.statistics().evictions(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldReportHitRatio() {
+        var cache = new ResolvedUriCache(2, MAX_TTL, clock);
+        assertThat(cache.statistics().hitRatio(), is(equalTo(0.0)));
+
+        var uriMap = uriMap(NOW.plusSeconds(60));
+        cache.get(uriMap.shortenedUri());
+        cache.put(uriMap);
+        cache.get(uriMap.shortenedUri());
+        cache.get(uriMap.shortenedUri());
+
+        assertThat(cache.statistics().hitRatio(), is(closeTo(2.0 / 3, 1e-9)));
+    }
+
+    @Test
+    void shouldReadLimitsFromEnvironment() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        when(environment.readEnvOpt(RESOLVER_CACHE_MAX_ENTRIES_ENV)).thenReturn(Optional.of("1"));
+        when(environment.readEnvOpt(RESOLVER_CACHE_MAX_TTL_SECONDS_ENV)).thenReturn(Optional.of("30"));
+        var cache = ResolvedUriCache.fromEnvironment(environment);
+        var uriMap = uriMap(Instant.now().plusSeconds(60));
+
+        cache.put(uriMap);
+        cache.put(uriMap(Instant.now().plusSeconds(60)));
+
+        assertThat(cache.statistics().evictions(), is(equalTo(1L)));
+    }
+
+    private static UriMap uriMap(Instant expires) {
+        return new UriMap(randomUri(), randomUri(), NOW, expires.getEpochSecond());
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.bibsysdev.urlshortener.service;
+
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.github.bibsysdev.urlshortener.service.model.UriMap;
+import com.github.bibsysdev.urlshortener.service.token.ObjectPresigner;
+import com.github.bibsysdev.urlshortener.service.token.ShortToken;
+import com.github.bibsysdev.urlshortener.service.token.ShortTokenSigner;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import nva.commons.apigateway.exceptions.BadGatewayException;
+import nva.commons.apigateway.exceptions.GoneException;
+import nva.commons.apigateway.exceptions.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SignedTokenUriResolverTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final URI DOMAIN = URI.create("https://api.example.org");
+    private static final ShortTokenSigner SIGNER = new ShortTokenSigner(Map.of(1, "secret"), 1);
+
+    private ObjectPresigner presigner;
+    private UriResolver tableResolver;
+    private Clock clock;
+    private SignedTokenUriResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        presigner = mock(ObjectPresigner.class);
+        tableResolver = mock(UriResolver.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        resolver = new SignedTokenUriResolver(SIGNER, presigner, tableResolver, clock);
+    }
+
+    @Test
+    void shouldPresignFileOfValidTokenWithoutReadingTable() throws Exception {
+        var token = new ShortToken(UUID.randomUUID(), NOW.plusSeconds(180));
+        var presigned = randomUri();
+        when(presigner.presign(token.fileIdentifier().toString(), token.expires())).thenReturn(presigned);
+
+        assertThat(resolver.resolve(shortenedUri(SIGNER.sign(token))), is(equalTo(presigned)));
+        verify(tableResolver, never()).resolve(any());
+    }
+
+    @Test
+    void shouldReturnGoneForExpiredToken() throws Exception {
+        var token = new ShortToken(UUID.randomUUID(), NOW);
+        var shortenedUri = shortenedUri(SIGNER.sign(token));
+
+        assertThrows(GoneException.class, () -> resolver.resolve(shortenedUri));
+        verify(presigner, never()).presign(anyString(), any());
+    }
+
+    @Test
+    void shouldNotResolveTokenWithInvalidSignature() throws Exception {
+        var otherSigner = new ShortTokenSigner(Map.of(1, "other secret"), 1);
+        var token = new ShortToken(UUID.randomUUID(), NOW.plusSeconds(180));
+        var shortenedUri = shortenedUri(otherSigner.sign(token));
+
+        assertThrows(NotFoundException.class, () -> resolver.resolve(shortenedUri));
+        verify(tableResolver, never()).resolve(any());
+    }
+
+    @Test
+    void shouldReturnBadGatewayWhenPresigningFails() {
+        var token = new ShortToken(UUID.randomUUID(), NOW.plusSeconds(180));
+        when(presigner.presign(anyString(), any())).thenThrow(new IllegalStateException("No credentials"));
+        var shortenedUri = shortenedUri(SIGNER.sign(token));
+
+        assertThrows(BadGatewayException.class, () -> resolver.resolve(shortenedUri));
+    }
+
+    @Test
+    void shouldResolveStoredIdentifiersFromTable() throws Exception {
+        var shortenedUri = UriMap.create(randomUri(), NOW.plusSeconds(180), DOMAIN).shortenedUri();
+        var longUri = randomUri();
+        when(tableResolver.resolve(shortenedUri)).thenReturn(longUri);
+
+        assertThat(resolver.resolve(shortenedUri), is(equalTo(longUri)));
+    }
+
+    @Test
+    void shouldPrimeTableResolver() {
+        resolver.prime();
+
+        verify(tableResolver).prime();
+    }
+
+    private static URI shortenedUri(String signedToken) {
+        return UriMap.createShortenedUri(DOMAIN, signedToken);
+    }
+}
@@ -1,32 +1,51 @@
 package com.github.bibsysdev.urlshortener.service;
 
-import static no.unit.nva.testutils.RandomDataGenerator.randomInstant;
 import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AmazonDynamoDBException;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.github.bibsysdev.urlshortener.service.model.UriMap;
+import com.github.bibsysdev.urlshortener.service.storage.UriMapDao;
 import com.github.bibsysdev.urlshortener.service.utils.UriShortenerLocalDynamoDb;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Set;
+import no.unit.nva.identifiers.SortableIdentifier;
 import nva.commons.apigateway.exceptions.ApiGatewayException;
 import nva.commons.apigateway.exceptions.BadGatewayException;
 import nva.commons.apigateway.exceptions.GatewayResponseSerializingException;
+import nva.commons.apigateway.exceptions.GoneException;
 import nva.commons.apigateway.exceptions.NotFoundException;
 import nva.commons.core.paths.UriWrapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 public class UriShortenerResolverTest extends UriShortenerLocalDynamoDb {
 
     private static final String UNPARSABLE_URI = "https://doi.org/10.1577/1548-8667(1998)010<0056:EOOAFI>2.0.CO;2";
     private static final String TABLE_NAME = "url_shortener";
-    private static final String SHORTENED_URI_KEY = "shortenedUri";
+    private static final URI DOMAIN = URI.create("https://api.example.org");
 
     private UriResolver uriResolver;
     private UriShortener uriShortener;
@@ -41,7 +60,7 @@ public class UriShortenerResolverTest extends UriShortenerLocalDynamoDb {
 
     @Test
     void shouldThrowNotFoundExceptionWhenShortenedUriIsNotInDatabase() {
-        assertThrows(NotFoundException.class, () -> uriResolver.resolve(randomUri()));
+        assertThrows(NotFoundException.class, () -> uriResolver.resolve(randomShortUri()));
     }
 
     @Test
@@ -49,24 +68,197 @@ public class UriShortenerResolverTest extends UriShortenerLocalDynamoDb {
         var client = mock(AmazonDynamoDB.class);
         when(client.getItem(any())).thenThrow(AmazonDynamoDBException.class);
         uriResolver = new UriResolverImpl(client, TABLE_NAME);
-        assertThrows(BadGatewayException.class, () -> uriResolver.resolve(randomUri()));
+        assertThrows(BadGatewayException.class, () -> uriResolver.resolve(randomShortUri()));
     }
 
     @Test
     void shouldThrowInternalServerErrorWhenDtoCannotParseDynamoDbItem() {
         var client = mock(AmazonDynamoDB.class);
         var unparsableGetItemResult = new GetItemResult();
-        unparsableGetItemResult.addItemEntry(SHORTENED_URI_KEY, new AttributeValue(UNPARSABLE_URI));
+        unparsableGetItemResult.addItemEntry(UriMapDao.LEGACY_LONG_URI, new AttributeValue(UNPARSABLE_URI));
         when(client.getItem(any())).thenReturn(unparsableGetItemResult);
         uriResolver = new UriResolverImpl(client, TABLE_NAME);
-        assertThrows(GatewayResponseSerializingException.class, () -> uriResolver.resolve(randomUri()));
+        assertThrows(GatewayResponseSerializingException.class, () -> uriResolver.resolve(randomShortUri()));
     }
 
     @Test
     void shouldReturnLongUriWhenShortenedUriIsInDatabase() throws ApiGatewayException {
         var longUri = randomUri();
-        var shortenedUri = uriShortener.shorten(longUri, randomInstant());
+        var shortenedUri = uriShortener.shorten(longUri, Instant.now().plus(1, ChronoUnit.HOURS));
         var actualResult = uriResolver.resolve(shortenedUri);
         assertThat(actualResult, is(equalTo(longUri)));
     }
+
+    @Test
+    void shouldResolveRepeatedShortUriFromCache() throws ApiGatewayException {
+        var client = mock(AmazonDynamoDB.class);
+        var expires = Instant.now().plusSeconds(60);
+        var uriMap = new UriMap(randomShortUri(), randomUri(), Instant.now(), expires.getEpochSecond());
+        when(client.getItem(any())).thenReturn(new GetItemResult().withItem(new UriMapDao(uriMap).toDynamoFormat()));
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+
+        resolver.resolve(uriMap.shortenedUri());
+        var actualResult = resolver.resolve(uriMap.shortenedUri());
+
+        assertThat(actualResult, is(equalTo(uriMap.longUri())));
+        verify(client, times(1)).getItem(any());
+        assertThat(resolver.cacheStatistics().hits(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldKeepResolvingWhenStatisticsAreLogged() throws ApiGatewayException {
+        var client = mock(AmazonDynamoDB.class);
+        var expires = Instant.now().plusSeconds(60);
+        var uriMap = new UriMap(randomShortUri(), randomUri(), Instant.now(), expires.getEpochSecond());
+        when(client.getItem(any())).thenReturn(new GetItemResult().withItem(new UriMapDao(uriMap).toDynamoFormat()));
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+
+        for (var resolve = 0; resolve < UriResolverImpl.STATISTICS_LOG_INTERVAL; resolve++) {
+            resolver.resolve(uriMap.shortenedUri());
+        }
+
+        assertThat(resolver.cacheStatistics().hits(), is(equalTo(UriResolverImpl.STATISTICS_LOG_INTERVAL - 1)));
+    }
+
+    @Test
+    void shouldRejectMalformedShortUriWithoutReadingTable() {
+        var client = mock(AmazonDynamoDB.class);
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+        var malformedUri = URI.create("https://example.org/download/short/not-an-identifier");
+
+        assertThrows(NotFoundException.class, () -> resolver.resolve(malformedUri));
+        verifyNoInteractions(client);
+        assertThat(resolver.notFoundStatistics().rejectedMalformed(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldRejectRecentlyMissingShortUriWithoutReadingTableAgain() {
+        var client = mock(AmazonDynamoDB.class);
+        when(client.getItem(any())).thenReturn(new GetItemResult());
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+        var missingUri = randomShortUri();
+
+        assertThrows(NotFoundException.class, () -> resolver.resolve(missingUri));
+        assertThrows(NotFoundException.class, () -> resolver.resolve(missingUri));
+
+        verify(client, times(2)).getItem(any());
+        assertThat(resolver.notFoundStatistics().rejectedRecentMisses(), is(equalTo(1L)));
+    }
+
+    @Test
+    void shouldConfirmMissWithConsistentReadBeforeRememberingIt() throws ApiGatewayException {
+        var client = mock(AmazonDynamoDB.class);
+        var uriMap = UriMap.create(randomUri(), Instant.now().plus(UriResolverImpl.SHORTEST_LIFETIME), DOMAIN);
+        when(client.getItem(any())).thenReturn(new GetItemResult());
+        when(client.getItem(argThat(GetItemRequest::getConsistentRead)))
+            .thenReturn(new GetItemResult().withItem(new UriMapDao(uriMap).toDynamoFormat()));
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+
+        assertThat(resolver.resolve(uriMap.shortenedUri()), is(equalTo(uriMap.longUri())));
+        assertThat(resolver.notFoundStatistics().size(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldNotConfirmMissOfShortUriCreatedBeforeReplicationLag() {
+        var client = mock(AmazonDynamoDB.class);
+        when(client.getItem(any())).thenReturn(new GetItemResult());
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+        var expires = Instant.now().plus(UriResolverImpl.SHORTEST_LIFETIME).minus(2, ChronoUnit.MINUTES);
+        var missingUri = UriMap.create(randomUri(), expires, DOMAIN).shortenedUri();
+
+        assertThrows(NotFoundException.class, () -> resolver.resolve(missingUri));
+
+        verify(client, times(1)).getItem(argThat(request -> !request.getConsistentRead()));
+        verify(client, times(1)).getItem(any());
+    }
+
+    @Test
+    void shouldReadOnlyKeyWrittenBeforeCompactLayoutForSortableIdentifier() {
+        var client = mock(AmazonDynamoDB.class);
+        when(client.getItem(any())).thenReturn(new GetItemResult());
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+        var missingUri = UriWrapper.fromUri(DOMAIN).addChild(SortableIdentifier.next().toString()).getUri();
+
+        assertThrows(NotFoundException.class, () -> resolver.resolve(missingUri));
+
+        verify(client, times(1)).getItem(argThat(request -> request.getKey()
+                                                                .equals(UriMapDao.createLegacyKey(missingUri))));
+        verify(client, times(1)).getItem(any());
+    }
+
+    @Test
+    void shouldRejectShortUriWithExpiredIdentifierWithoutReadingTable() {
+        var client = mock(AmazonDynamoDB.class);
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+        var expiredUri = UriMap.create(randomUri(), Instant.now().minus(2, ChronoUnit.MINUTES), DOMAIN)
+                             .shortenedUri();
+
+        assertThrows(GoneException.class, () -> resolver.resolve(expiredUri));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void shouldRejectExpiredMappingThatIsStillInTable() {
+        var client = mock(AmazonDynamoDB.class);
+        var legacyUri = URI.create(DOMAIN + "/download/short/abc1234");
+        var expires = Instant.now().minusSeconds(1);
+        var uriMap = new UriMap(legacyUri, randomUri(), Instant.now(), expires.getEpochSecond());
+        when(client.getItem(any())).thenReturn(new GetItemResult().withItem(new UriMapDao(uriMap).toDynamoFormat()));
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+
+        assertThrows(GoneException.class, () -> resolver.resolve(legacyUri));
+        assertThat(resolver.cacheStatistics().size(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldResolveShortUriStoredUnderKeyWrittenBeforeCompactLayout() throws ApiGatewayException {
+        var shortenedUri = UriWrapper.fromUri(DOMAIN).addChild(SortableIdentifier.next().toString()).getUri();
+        var longUri = randomUri();
+        var item = new HashMap<>(UriMapDao.createLegacyKey(shortenedUri));
+        item.put(UriMapDao.LEGACY_LONG_URI, new AttributeValue(longUri.toString()));
+        client.putItem(new PutItemRequest().withTableName(TABLE_NAME).withItem(item));
+
+        assertThat(uriResolver.resolve(shortenedUri), is(equalTo(longUri)));
+    }
+
+    @Test
+    void shouldReadOnlyAttributesNeededToRedirectAndReportConsumedCapacity() throws ApiGatewayException {
+        var client = mock(AmazonDynamoDB.class);
+        var uriMap = UriMap.create(randomUri(), Instant.now().plus(1, ChronoUnit.HOURS), DOMAIN);
+        var consumedCapacity = new ConsumedCapacity().withCapacityUnits(0.5);
+        when(client.getItem(any())).thenReturn(new GetItemResult()
+                                                   .withItem(new UriMapDao(uriMap).toDynamoFormat())
+                                                   .withConsumedCapacity(consumedCapacity));
+        var resolver = new UriResolverImpl(client, TABLE_NAME);
+
+        assertThat(resolver.resolve(uriMap.shortenedUri()), is(equalTo(uriMap.longUri())));
+
+        var request = ArgumentCaptor.forClass(GetItemRequest.class);
+        verify(client).getItem(request.capture());
+        assertThat(Set.copyOf(request.getValue().getExpressionAttributeNames().values()),
+                   is(equalTo(Set.copyOf(UriMapDao.RESOLVE_ATTRIBUTES))));
+        assertThat(request.getValue().getConsistentRead(), is(equalTo(false)));
+        assertThat(request.getValue().getReturnConsumedCapacity(),
+                   is(equalTo(ReturnConsumedCapacity.TOTAL.toString())));
+    }
+
+    @Test
+    void shouldReadConsistentlyWhenConfigured() {
+        var client = mock(AmazonDynamoDB.class);
+        when(client.getItem(any())).thenReturn(new GetItemResult());
+        var resolver = new UriResolverImpl(client, TABLE_NAME,
+                                           new ResolvedUriCache(1, Duration.ofMinutes(1), Clock.systemUTC()),
+                                           new NotFoundCache(1, Duration.ofMinutes(1), Clock.systemUTC()),
+                                           Clock.systemUTC(), true);
+
+        assertThrows(NotFoundException.class, () -> resolver.resolve(randomShortUri()));
+
+        var request = ArgumentCaptor.forClass(GetItemRequest.class);
+        verify(client, times(1)).getItem(request.capture());
+        assertThat(request.getValue().getConsistentRead(), is(equalTo(true)));
+    }
+
+    private static URI randomShortUri() {
+        return UriMap.create(randomUri(), Instant.now().plus(1, ChronoUnit.HOURS), DOMAIN).shortenedUri();
+    }
 }
@@ -3,15 +3,43 @@ package com.github.bibsysdev.urlshortener.service;
 import static no.unit.nva.testutils.RandomDataGenerator.randomInstant;
 import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.github.bibsysdev.urlshortener.service.exceptions.TransactionFailedException;
+import com.github.bibsysdev.urlshortener.service.model.Base62BlockIdGenerator;
+import com.github.bibsysdev.urlshortener.service.model.ShortIdGenerator;
+import com.github.bibsysdev.urlshortener.service.model.ShortIdentifiers;
+import com.github.bibsysdev.urlshortener.service.token.ShortToken;
+import com.github.bibsysdev.urlshortener.service.token.ShortTokenSigner;
 import com.github.bibsysdev.urlshortener.service.utils.UriShortenerLocalDynamoDb;
 import java.net.URI;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
 import nva.commons.core.paths.UriWrapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +48,7 @@ public class UriShortenerServiceImplTest extends UriShortenerLocalDynamoDb {
 
     private static final String TABLE_NAME = "url_shortener";
     private static final URI DOMAIN = UriWrapper.fromUri("https://example.com").getUri();
+    private static final String TOKEN_KEY = "secret";
 
     private UriShortenerImpl uriShortener;
 
@@ -40,6 +69,103 @@ public class UriShortenerServiceImplTest extends UriShortenerLocalDynamoDb {
         assertThrows(TransactionFailedException.class, () -> uriShortener.shorten(longUri, expiration));
     }
 
+    @Test
+    void shouldRetryWithNewIdentifierWhenIdentifierIsTaken() {
+        var expiration = randomInstant();
+        var takenIdentifier = generatedIdentifierOf(uriShortener.shorten(randomUri(), expiration));
+        var idGenerator = new QueuedIdGenerator(takenIdentifier, "fresh01");
+        uriShortener = new UriShortenerImpl(DOMAIN, new UriShortenerWriteClient(client, TABLE_NAME), idGenerator);
+
+        var shortUri = uriShortener.shorten(randomUri(), expiration);
+
+        assertThat(shortUri.toString(), endsWith("fresh01"));
+    }
+
+    @Test
+    void shouldRetryOnlyUriWhoseIdentifierIsTakenWhenShorteningSeveralUris() {
+        var expiration = randomInstant();
+        var takenIdentifier = generatedIdentifierOf(uriShortener.shorten(randomUri(), expiration));
+        var idGenerator = new QueuedIdGenerator("fresh01", takenIdentifier, "fresh02");
+        uriShortener = new UriShortenerImpl(DOMAIN, new UriShortenerWriteClient(client, TABLE_NAME), idGenerator);
+
+        var shortUris = uriShortener.shortenAll(List.of(randomUri(), randomUri()), expiration);
+
+        assertThat(shortUris.stream().map(URI::toString).toList(),
+                   contains(endsWith("fresh01"), endsWith("fresh02")));
+        assertThat(client.scan(new ScanRequest().withTableName(TABLE_NAME)).getCount(), is(equalTo(3)));
+    }
+
+    @Test
+    void shouldStoreEachUriMapWithItsOwnConditionalPut() {
+        var mockUriShortenerWriteClient = mock(UriShortenerWriteClient.class);
+        uriShortener = new UriShortenerImpl(DOMAIN, mockUriShortenerWriteClient);
+
+        uriShortener.shortenAll(List.of(randomUri(), randomUri(), randomUri()), randomInstant());
+
+        verify(mockUriShortenerWriteClient, times(3)).insertUriMap(any());
+    }
+
+    @Test
+    void shouldGiveUpWhenIdentifiersKeepBeingTaken() {
+        var expiration = randomInstant();
+        var takenIdentifier = generatedIdentifierOf(uriShortener.shorten(randomUri(), expiration));
+        ShortIdGenerator idGenerator = () -> takenIdentifier;
+        uriShortener = new UriShortenerImpl(DOMAIN, new UriShortenerWriteClient(client, TABLE_NAME), idGenerator);
+        var longUri = randomUri();
+
+        var exception = assertThrows(TransactionFailedException.class,
+                                     () -> uriShortener.shorten(longUri, expiration));
+        assertThat(exception.isCausedByExistingKey(), is(true));
+    }
+
+    @Test
+    void shouldNotRetryWhenTransactionFailsForOtherReasons() {
+        var mockUriShortenerWriteClient = mock(UriShortenerWriteClient.class);
+        doThrow(new TransactionFailedException(new ProvisionedThroughputExceededException("Throttled")))
+            .when(mockUriShortenerWriteClient).insertUriMap(any());
+        uriShortener = new UriShortenerImpl(DOMAIN, mockUriShortenerWriteClient);
+        var longUri = randomUri();
+        var expiration = randomInstant();
+
+        assertThrows(TransactionFailedException.class, () -> uriShortener.shorten(longUri, expiration));
+        verify(mockUriShortenerWriteClient, times(1)).insertUriMap(any());
+    }
+
+    @Test
+    void shouldShortenFileAsSignedTokenWithoutWritingToDatabase() {
+        var signer = new ShortTokenSigner(Map.of(1, TOKEN_KEY), 1);
+        var mockUriShortenerWriteClient = mock(UriShortenerWriteClient.class);
+        uriShortener = new UriShortenerImpl(DOMAIN, mockUriShortenerWriteClient,
+                                            Base62BlockIdGenerator.defaultGenerator(), Optional.of(signer));
+        var token = new ShortToken(UUID.randomUUID(), Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        var shortUri = uriShortener.shortenFile(token.fileIdentifier(), token.expires()).orElseThrow();
+
+        assertThat(shortUri.toString(), startsWith(DOMAIN + "/download/short/"));
+        assertThat(signer.verify(ShortIdentifiers.identifierOf(shortUri)), is(equalTo(Optional.of(token))));
+        verifyNoInteractions(mockUriShortenerWriteClient);
+    }
+
+    @Test
+    void shouldNotShortenFileAsTokenWithoutSigner() {
+        assertThat(uriShortener.shortenFile(UUID.randomUUID(), randomInstant()),
+                   is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldNotShortenFileAsTokenByDefault() {
+        var shortener = mock(UriShortener.class, CALLS_REAL_METHODS);
+        assertThat(shortener.shortenFile(UUID.randomUUID(), randomInstant()),
+                   is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldResetIdentifierGenerator() {
+        var idGenerator = mock(ShortIdGenerator.class);
+        new UriShortenerImpl(DOMAIN, mock(UriShortenerWriteClient.class), idGenerator).reset();
+        verify(idGenerator).reset();
+    }
+
     @Test
     void shouldThrowExceptionIfLongUriIsEmpty() {
         var longUri = UriWrapper.fromUri("").getUri();
@@ -68,4 +194,56 @@ public class UriShortenerServiceImplTest extends UriShortenerLocalDynamoDb {
         var shortUri = uriShortener.shorten(longUri, expiration);
         assertThat(shortUri.toString(), containsString(DOMAIN.toString()));
     }
+
+    @Test
+    void shouldReturnOneShortUriPerLongUriWhenShorteningSeveralUris() {
+        var longUris = List.of(randomUri(), randomUri(), randomUri());
+        var shortUris = uriShortener.shortenAll(longUris, randomInstant());
+        assertThat(shortUris, hasSize(longUris.size()));
+        assertThat(shortUris.stream().map(URI::toString).toList(), everyItem(startsWith(DOMAIN.toString())));
+    }
+
+    @Test
+    void shouldNotWriteToDatabaseWhenShorteningNoUris() {
+        var mockUriShortenerWriteClient = mock(UriShortenerWriteClient.class);
+        uriShortener = new UriShortenerImpl(DOMAIN, mockUriShortenerWriteClient);
+        assertThat(uriShortener.shortenAll(List.of(), randomInstant()), is(empty()));
+        verifyNoInteractions(mockUriShortenerWriteClient);
+    }
+
+    @Test
+    void shouldPrimeWithoutWritingToDatabase() {
+        uriShortener.prime();
+        assertThat(client.scan(new ScanRequest().withTableName(TABLE_NAME)).getCount(), is(equalTo(0)));
+    }
+
+    @Test
+    void shouldHaveNothingToPrimeByDefault() {
+        var shortener = mock(UriShortener.class, CALLS_REAL_METHODS);
+        assertDoesNotThrow(shortener::prime);
+    }
+
+    @Test
+    void shouldHaveNothingToResetByDefault() {
+        var shortener = mock(UriShortener.class, CALLS_REAL_METHODS);
+        assertDoesNotThrow(shortener::reset);
+    }
+
+    private static String generatedIdentifierOf(URI shortUri) {
+        return ShortIdentifiers.identifierOf(shortUri).substring(ShortIdentifiers.EXPIRY_LENGTH);
+    }
+
+    private static final class QueuedIdGenerator implements ShortIdGenerator {
+
+        private final Queue<String> identifiers;
+
+        private QueuedIdGenerator(String... identifiers) {
+            this.identifiers = new ArrayDeque<>(List.of(identifiers));
+        }
+
+        @Override
+        public String next() {
+            return identifiers.remove();
+        }
+    }
 }
@@ -2,8 +2,12 @@ package com.github.bibsysdev.urlshortener.service;
 
 import static no.unit.nva.testutils.RandomDataGenerator.randomInstant;
 import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
 import com.github.bibsysdev.urlshortener.service.exceptions.TransactionFailedException;
 import com.github.bibsysdev.urlshortener.service.model.UriMap;
 import com.github.bibsysdev.urlshortener.service.utils.UriShortenerLocalDynamoDb;
@@ -28,7 +32,9 @@ public class UriShortenerWriteClientTest extends UriShortenerLocalDynamoDb {
         var uriMap = new UriMap(shortUri, randomUri(), randomInstant(), randomInstant().getEpochSecond());
         var uriMap2 = new UriMap(shortUri, randomUri(), randomInstant(), randomInstant().getEpochSecond());
         uriShortenerWriteClient.insertUriMap(uriMap2);
-        assertThrows(TransactionFailedException.class, () -> uriShortenerWriteClient.insertUriMap(uriMap));
+        var exception = assertThrows(TransactionFailedException.class,
+                                     () -> uriShortenerWriteClient.insertUriMap(uriMap));
+        assertThat(exception.isCausedByExistingKey(), is(true));
     }
 
     @Test
@@ -39,4 +45,11 @@ public class UriShortenerWriteClientTest extends UriShortenerLocalDynamoDb {
         uriShortenerWriteClient.insertUriMap(uriMap);
         assertDoesNotThrow(() -> uriShortenerWriteClient.insertUriMap(uriMap2));
     }
+
+    @Test
+    void shouldReadBackUriMapFromPrimingRequestWithoutWritingIt() {
+        var uriMap = new UriMap(randomUri(), randomUri(), randomInstant(), randomInstant().getEpochSecond());
+        assertThat(uriShortenerWriteClient.prime(uriMap), is(equalTo(uriMap)));
+        assertThat(client.scan(new ScanRequest().withTableName(TABLE_NAME)).getCount(), is(equalTo(0)));
+    }
 }
@@ -0,0 +1,128 @@
+package com.github.bibsysdev.urlshortener.service.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.security.SecureRandom;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Base62BlockIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDENTIFIERS_PER_THREAD = 20_000;
+
+    @ParameterizedTest(name = "Should create base62 identifiers of length {0}")
+    @ValueSource(ints = {7, 8, 9, 10})
+    void shouldCreateBase62IdentifiersOfRequestedLength(int length) {
+        var generator = new Base62BlockIdGenerator(length, Base62BlockIdGenerator.DEFAULT_BLOCK_SIZE,
+                                                   new SecureRandom());
+
+        IntStream.range(0, 1_000).mapToObj(i -> generator.next())
+            .forEach(identifier -> assertThat(identifier, matchesPattern("[0-9A-Za-z]{" + length + "}")));
+    }
+
+    @ParameterizedTest(name = "Should reject length {0}")
+    @ValueSource(ints = {6, 11})
+    void shouldRejectLengthOutsideRange(int length) {
+        var random = new SecureRandom();
+        assertThrows(IllegalArgumentException.class, () -> new Base62BlockIdGenerator(length, 1, random));
+    }
+
+    @ParameterizedTest(name = "Should reject block size {0}")
+    @ValueSource(longs = {0, 1L << 41})
+    void shouldRejectBlockSizeOutsideRange(long blockSize) {
+        var random = new SecureRandom();
+        assertThrows(IllegalArgumentException.class, () -> new Base62BlockIdGenerator(7, blockSize, random));
+    }
+
+    @Test
+    void shouldNotRepeatIdentifiersWhenThreadsReserveNewBlocksConcurrently() throws Exception {
+        var generator = new Base62BlockIdGenerator(Base62BlockIdGenerator.DEFAULT_LENGTH, 64, new SecureRandom());
+        var identifiers = ConcurrentHashMap.<String>newKeySet();
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var futures = IntStream.range(0, THREADS)
+                              .mapToObj(i -> executor.submit(() -> generateInto(generator, identifiers)))
+                              .toList();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(identifiers.size(), is(equalTo(THREADS * IDENTIFIERS_PER_THREAD)));
+    }
+
+    @Test
+    void shouldNotCollideBetweenProcesses() {
+        var processes = List.of(new Base62BlockIdGenerator(), new Base62BlockIdGenerator(),
+                                new Base62BlockIdGenerator(), new Base62BlockIdGenerator());
+        var identifiers = new HashSet<String>();
+        var collisions = 0;
+
+        for (var process : processes) {
+            for (var i = 0; i < IDENTIFIERS_PER_THREAD; i++) {
+                collisions += identifiers.add(process.next()) ? 0 : 1;
+            }
+        }
+
+        assertThat(collisions, is(equalTo(0)));
+    }
+
+    @Test
+    void shouldNotRepeatIdentifiersOfSnapshotAfterReset() {
+        var restored = new Base62BlockIdGenerator(Base62BlockIdGenerator.DEFAULT_LENGTH, 1_000, new Random(1));
+        var otherRestored = new Base62BlockIdGenerator(Base62BlockIdGenerator.DEFAULT_LENGTH, 1_000, new Random(1));
+        assertThat(restored.next(), is(equalTo(otherRestored.next())));
+
+        restored.reset();
+
+        var afterReset = generate(restored, 100);
+        afterReset.retainAll(generate(otherRestored, 100));
+        assertThat(afterReset, is(empty()));
+    }
+
+    @Test
+    void shouldShareDefaultGeneratorWithinProcess() {
+        assertThat(Base62BlockIdGenerator.defaultGenerator(), is(Base62BlockIdGenerator.defaultGenerator()));
+        assertThat(Base62BlockIdGenerator.defaultGenerator().length(), is(equalTo(10)));
+        assertThat(Base62BlockIdGenerator.defaultGenerator().next(), matchesPattern("[0-9A-Za-z]{10}"));
+    }
+
+    @Test
+    void shouldHaveNothingToResetByDefault() {
+        ShortIdGenerator generator = () -> "abc1234";
+        assertDoesNotThrow(generator::reset);
+    }
+
+    private static Set<String> generate(Base62BlockIdGenerator generator, int count) {
+        var identifiers = new HashSet<String>();
+        for (var i = 0; i < count; i++) {
+            identifiers.add(generator.next());
+        }
+        return identifiers;
+    }
+
+    private static void generateInto(Base62BlockIdGenerator generator, Set<String> identifiers) {
+        for (var i = 0; i < IDENTIFIERS_PER_THREAD; i++) {
+            identifiers.add(generator.next());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.bibsysdev.urlshortener.service.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ShortIdentifiersTest {
+
+    private static final String SHORT_PATH = "https://api.example.org/download/short/";
+
+    @ParameterizedTest(name = "Should round expiry {0} up to the minute")
+    @ValueSource(strings = {"2024-01-01T00:02:01Z", "2024-01-01T00:02:30Z", "2024-01-01T00:03:00Z"})
+    void shouldRoundExpiryUpToTheMinute(String expiresDate) {
+        var identifier = ShortIdentifiers.withExpiry(Instant.parse(expiresDate), "abc1234");
+
+        assertThat(ShortIdentifiers.expiryOf(URI.create(SHORT_PATH + identifier)),
+                   is(equalTo(Optional.of(Instant.parse("2024-01-01T00:03:00Z")))));
+    }
+
+    @Test
+    void shouldKeepExpiriesOutsideEncodableRangeWellFormed() {
+        var beforeEpoch = ShortIdentifiers.withExpiry(Instant.parse("1960-01-01T00:00:00Z"), "abc1234");
+        var farFuture = ShortIdentifiers.withExpiry(Instant.parse("9999-01-01T00:00:00Z"), "abc1234");
+
+        assertThat(ShortIdentifiers.expiryOf(URI.create(SHORT_PATH + beforeEpoch)),
+                   is(equalTo(Optional.of(Instant.EPOCH))));
+        assertThat(ShortIdentifiers.isWellFormed(URI.create(SHORT_PATH + farFuture)), is(true));
+        assertThat(ShortIdentifiers.expiryOf(URI.create(SHORT_PATH + farFuture)).orElseThrow()
+                       .isAfter(Instant.parse("3000-01-01T00:00:00Z")), is(true));
+    }
+
+    @ParameterizedTest(name = "Should find no expiry in identifier {0}")
+    @ValueSource(strings = {"abc1234", "AbCdEf0123", "018c1f2a3b4c-0d5b1bf2-5a2f-4f7c-9b3a-2f1c0e7d8a96", "abc.def"})
+    void shouldFindNoExpiryInIdentifiersWithoutIt(String identifier) {
+        assertThat(ShortIdentifiers.expiryOf(URI.create(SHORT_PATH + identifier)), is(equalTo(Optional.empty())));
+    }
+
+    @ParameterizedTest(name = "Should accept identifier {0}")
+    @ValueSource(strings = {"abc1234", "018c1f2a3b4c-0d5b1bf2-5a2f-4f7c-9b3a-2f1c0e7d8a96", "1A2b3abc1234",
+        "1A2b3AbCdEf0123"})
+    void shouldAcceptIdentifiersWithAndWithoutExpiry(String identifier) {
+        assertThat(ShortIdentifiers.isWellFormed(URI.create(SHORT_PATH + identifier)), is(true));
+    }
+
+    @Test
+    void shouldTellSortableIdentifiersFromBase62Identifiers() {
+        assertThat(ShortIdentifiers.isSortableIdentifier(
+            URI.create(SHORT_PATH + "018c1f2a3b4c-0d5b1bf2-5a2f-4f7c-9b3a-2f1c0e7d8a96")), is(true));
+        assertThat(ShortIdentifiers.isSortableIdentifier(URI.create(SHORT_PATH + "1A2b3AbCdEf0123")), is(false));
+        assertThat(ShortIdentifiers.isSortableIdentifier(URI.create(SHORT_PATH + "abc1234")), is(false));
+    }
+
+    @Test
+    void shouldHaveNoIdentifierWithoutPath() {
+        assertThat(ShortIdentifiers.identifierOf(URI.create("urn:abc1234")), is(equalTo("")));
+    }
+}
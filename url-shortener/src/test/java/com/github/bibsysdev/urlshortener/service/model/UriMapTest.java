@@ -6,9 +6,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.hamcrest.Matchers.matchesPattern;
 import java.net.URI;
-import no.unit.nva.identifiers.SortableIdentifier;
+import java.time.Instant;
+import java.util.Optional;
 import nva.commons.core.paths.UriWrapper;
 import org.junit.jupiter.api.Test;
 
@@ -25,6 +26,19 @@ public class UriMapTest {
         assertThat(uriMap.longUri(), is(equalTo(longUri)));
         assertThat(uriMap.shortenedUri().toString(), containsString(ID_NAMESPACE));
         var theRestOfTheShortUri = uriMap.shortenedUri().toString().replace(ID_NAMESPACE, "");
-        assertDoesNotThrow(() -> SortableIdentifier.fromUri(UriWrapper.fromUri(theRestOfTheShortUri).getUri()));
+        var identifierLength = ShortIdentifiers.EXPIRY_LENGTH + Base62BlockIdGenerator.DEFAULT_LENGTH;
+        assertThat(theRestOfTheShortUri, matchesPattern("[0-9A-Za-z]{" + identifierLength + "}"));
+    }
+
+    @Test
+    void shouldEndShortenedUriWithExpiryAndIdentifierFromGenerator() {
+        ShortIdGenerator idGenerator = () -> "abc1234";
+        var expiresDate = Instant.parse("2024-01-01T00:02:30Z");
+        var uriMap = UriMap.create(randomUri(), expiresDate, DOMAIN, idGenerator);
+
+        assertThat(uriMap.shortenedUri().toString(),
+                   is(equalTo(ID_NAMESPACE + ShortIdentifiers.withExpiry(expiresDate, "abc1234"))));
+        assertThat(ShortIdentifiers.expiryOf(uriMap.shortenedUri()),
+                   is(equalTo(Optional.of(Instant.parse("2024-01-01T00:03:00Z")))));
     }
 }
@@ -0,0 +1,202 @@
+package com.github.bibsysdev.urlshortener.service.storage;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static no.unit.nva.testutils.RandomDataGenerator.randomInstant;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.github.bibsysdev.urlshortener.service.model.UriMap;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class UriMapDaoTest {
+
+    private static final URI SHORTENED_URI = URI.create("https://api.example.org/download/short/abc1234");
+    private static final URI LONG_URI = URI.create("https://bucket.example.org/file.pdf?X-Amz-Signature=a%2Fb");
+    private static final Instant CREATED_DATE = Instant.parse("2024-01-02T03:04:05.123Z");
+    private static final long EXPIRES_DATE = 1_704_164_645L;
+    private static final int WRITE_UNIT_BYTES = 1024;
+    private static final int MAX_KEY_BYTES = 32;
+    private static final int SESSION_TOKEN_BYTES = 800;
+
+    @RepeatedTest(100)
+    void shouldReadBackRandomUriMap() {
+        var uriMap = new UriMap(randomUri(), randomUri(), randomInstant(), randomInstant().getEpochSecond());
+
+        assertThat(roundTrip(uriMap), is(equalTo(uriMap)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("partialUriMaps")
+    void shouldReadBackUriMapWithMissingValues(UriMap uriMap) {
+        assertThat(roundTrip(uriMap), is(equalTo(uriMap)));
+    }
+
+    @Test
+    void shouldWriteItemInCompactLayout() {
+        var item = new UriMapDao(new UriMap(SHORTENED_URI, LONG_URI, CREATED_DATE, EXPIRES_DATE)).toDynamoFormat();
+
+        assertThat(item.keySet(), is(equalTo(Set.of(UriMapDao.URI_MAP_PRIMARY_PARTITION_KEY,
+                                                    UriMapDao.DEFLATED_LONG_URI,
+                                                    UriMapDao.CREATED_EPOCH_MILLIS,
+                                                    UriMapDao.EXPIRES_DATE))));
+        assertThat(item.get(UriMapDao.URI_MAP_PRIMARY_PARTITION_KEY),
+                   is(equalTo(new AttributeValue().withS("abc1234"))));
+        assertThat(item.get(UriMapDao.CREATED_EPOCH_MILLIS), is(equalTo(new AttributeValue().withN("1704164645123"))));
+        assertThat(item.get(UriMapDao.EXPIRES_DATE), is(equalTo(new AttributeValue().withN("1704164645"))));
+    }
+
+    @Test
+    void shouldReadItemInLayoutWrittenBefore() {
+        var item = Map.of(
+            UriMapDao.URI_MAP_PRIMARY_PARTITION_KEY, new AttributeValue().withS(SHORTENED_URI.toString()),
+            UriMapDao.LEGACY_LONG_URI, new AttributeValue().withS(LONG_URI.toString()),
+            UriMapDao.LEGACY_CREATED_DATE, new AttributeValue().withS("2024-01-02T03:04:05.123456Z"),
+            UriMapDao.EXPIRES_DATE, new AttributeValue().withN("1704164645"));
+
+        assertThat(new UriMapDao(item, SHORTENED_URI).getUriMap(),
+                   is(equalTo(new UriMap(SHORTENED_URI, LONG_URI, Instant.parse("2024-01-02T03:04:05.123456Z"),
+                                         EXPIRES_DATE))));
+        assertThat(UriMapDao.createLegacyKey(SHORTENED_URI).get(UriMapDao.URI_MAP_PRIMARY_PARTITION_KEY),
+                   is(equalTo(item.get(UriMapDao.URI_MAP_PRIMARY_PARTITION_KEY))));
+    }
+
+    @Test
+    void shouldLeaveOutAttributesWithoutValue() {
+        var item = new UriMapDao(new UriMap(SHORTENED_URI, LONG_URI, null, null)).toDynamoFormat();
+
+        assertThat(item.keySet(), is(equalTo(Set.of(UriMapDao.URI_MAP_PRIMARY_PARTITION_KEY,
+                                                    UriMapDao.DEFLATED_LONG_URI))));
+    }
+
+    @Test
+    void shouldIgnoreUnknownAttributes() {
+        var item = new UriMapDao(new UriMap(SHORTENED_URI, LONG_URI, CREATED_DATE, EXPIRES_DATE)).toDynamoFormat();
+        item.put("unknown", new AttributeValue().withS("value"));
+
+        assertThat(new UriMapDao(item, SHORTENED_URI).getUriMap().longUri(), is(equalTo(LONG_URI)));
+    }
+
+    @Test
+    void shouldReadExpiryWithoutNumberAsMissing() {
+        var item = Map.of(UriMapDao.EXPIRES_DATE, new AttributeValue().withS("not a number"));
+
+        assertThat(new UriMapDao(item, SHORTENED_URI).getUriMap().expiresDate(), is(nullValue()));
+    }
+
+    @Test
+    void shouldFailOnUnparsableUri() {
+        var item = Map.of(UriMapDao.LEGACY_LONG_URI, new AttributeValue().withS("https://example.org/<unparsable>"));
+
+        assertThrows(IllegalArgumentException.class, () -> new UriMapDao(item, SHORTENED_URI));
+    }
+
+    @Test
+    void shouldFailOnTruncatedLongUri() {
+        var deflated = new UriMapDao(new UriMap(SHORTENED_URI, LONG_URI, null, null)).toDynamoFormat()
+                           .get(UriMapDao.DEFLATED_LONG_URI).getB();
+        var truncated = Arrays.copyOf(deflated.array(), deflated.remaining() / 2);
+        var item = Map.of(UriMapDao.DEFLATED_LONG_URI, new AttributeValue().withB(ByteBuffer.wrap(truncated)));
+
+        assertThrows(IllegalArgumentException.class, () -> new UriMapDao(item, SHORTENED_URI));
+    }
+
+    @Test
+    void shouldFailOnLongUriThatIsNotDeflated() {
+        var notDeflated = ByteBuffer.wrap(new byte[]{-1, -1});
+        var item = Map.of(UriMapDao.DEFLATED_LONG_URI, new AttributeValue().withB(notDeflated));
+
+        assertThrows(IllegalArgumentException.class, () -> new UriMapDao(item, SHORTENED_URI));
+    }
+
+    @Test
+    void shouldWriteSmallerItemsForPresignedUrisWithSessionToken() {
+        var shortenedUri = URI.create("https://api.example.org/download/short/1A2b3AbCdEf0123");
+        var uriMap = new UriMap(shortenedUri, presignedUriWithSessionToken(), CREATED_DATE, EXPIRES_DATE);
+
+        var compact = itemSize(new UriMapDao(uriMap).toDynamoFormat());
+        var legacy = itemSize(legacyItem(uriMap));
+
+        assertThat(legacy, is(greaterThan(WRITE_UNIT_BYTES)));
+        assertThat(compact, is(lessThan(legacy * 3 / 4)));
+        assertThat(itemSize(UriMapDao.createKey(shortenedUri)), is(lessThanOrEqualTo(MAX_KEY_BYTES)));
+    }
+
+    private static Stream<UriMap> partialUriMaps() {
+        return Stream.of(new UriMap(SHORTENED_URI, null, null, null),
+                         new UriMap(SHORTENED_URI, LONG_URI, CREATED_DATE, null),
+                         new UriMap(SHORTENED_URI, null, null, EXPIRES_DATE),
+                         new UriMap(null, null, null, null));
+    }
+
+    private static UriMap roundTrip(UriMap uriMap) {
+        return new UriMapDao(new UriMapDao(uriMap).toDynamoFormat(), uriMap.shortenedUri()).getUriMap();
+    }
+
+    private static URI presignedUriWithSessionToken() {
+        var random = new Random(1);
+        var sessionToken = new byte[SESSION_TOKEN_BYTES];
+        random.nextBytes(sessionToken);
+        var signature = new byte[32];
+        random.nextBytes(signature);
+        var fileIdentifier = UUID.randomUUID();
+        return URI.create("https://nva-resource-storage-123456789012.s3.eu-west-1.amazonaws.com/" + fileIdentifier
+                          + "?response-content-disposition=inline%3B%20filename%3D%22" + fileIdentifier + ".pdf%22"
+                          + "&response-content-type=application%2Fpdf"
+                          + "&X-Amz-Security-Token="
+                          + URLEncoder.encode(Base64.getEncoder().encodeToString(sessionToken), UTF_8)
+                          + "&X-Amz-Algorithm=AWS4-HMAC-SHA256&X-Amz-Date=20240101T000000Z"
+                          + "&X-Amz-SignedHeaders=host&X-Amz-Expires=180"
+                          + "&X-Amz-Credential=ASIAEXAMPLEEXAMPLE12%2F20240101%2Feu-west-1%2Fs3%2Faws4_request"
+                          + "&X-Amz-Signature=" + HexFormat.of().formatHex(signature));
+    }
+
+    private static Map<String, AttributeValue> legacyItem(UriMap uriMap) {
+        var item = new HashMap<>(UriMapDao.createLegacyKey(uriMap.shortenedUri()));
+        item.put(UriMapDao.LEGACY_LONG_URI, new AttributeValue().withS(uriMap.longUri().toString()));
+        item.put(UriMapDao.LEGACY_CREATED_DATE, new AttributeValue().withS(uriMap.createdDate().toString()));
+        item.put(UriMapDao.EXPIRES_DATE, new AttributeValue().withN(uriMap.expiresDate().toString()));
+        return item;
+    }
+
+    /**
+     * Size of an item as DynamoDB counts it: the UTF-8 bytes of attribute names and strings, the bytes of binaries, and
+     * about one byte per two significant digits of numbers plus one.
+     */
+    private static int itemSize(Map<String, AttributeValue> item) {
+        return item.entrySet().stream().mapToInt(entry -> entry.getKey().getBytes(UTF_8).length
+                                                           + valueSize(entry.getValue())).sum();
+    }
+
+    private static int valueSize(AttributeValue value) {
+        if (value.getS() != null) {
+            return value.getS().getBytes(UTF_8).length;
+        }
+        if (value.getB() != null) {
+            return value.getB().remaining();
+        }
+        return (value.getN().length() + 1) / 2 + 1;
+    }
+}
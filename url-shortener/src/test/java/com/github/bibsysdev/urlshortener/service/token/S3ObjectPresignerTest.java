@@ -0,0 +1,33 @@
+package com.github.bibsysdev.urlshortener.service.token;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.AmazonS3;
+import java.net.URI;
+import java.net.URL;
+import java.time.Instant;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+
+class S3ObjectPresignerTest {
+
+    private static final String BUCKET_NAME = "bucket";
+    private static final String KEY = "0d5b1bf2-5a2f-4f7c-9b3a-2f1c0e7d8a96";
+
+    @Test
+    void shouldPresignDownloadOfObjectInBucketUntilExpiration() throws Exception {
+        var s3Client = mock(AmazonS3.class);
+        var expiration = Instant.parse("2024-01-01T00:03:00Z");
+        var presignedUrl = new URL("https://bucket.s3.amazonaws.com/" + KEY + "?X-Amz-Signature=abc");
+        when(s3Client.generatePresignedUrl(BUCKET_NAME, KEY, Date.from(expiration), HttpMethod.GET))
+            .thenReturn(presignedUrl);
+
+        var presigned = new S3ObjectPresigner(s3Client, BUCKET_NAME).presign(KEY, expiration);
+
+        assertThat(presigned, is(equalTo(URI.create(presignedUrl.toString()))));
+    }
+}
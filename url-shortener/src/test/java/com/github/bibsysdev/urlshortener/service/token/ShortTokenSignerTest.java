@@ -0,0 +1,143 @@
+package com.github.bibsysdev.urlshortener.service.token;
+
+import static com.github.bibsysdev.urlshortener.service.token.ShortTokenSigner.SHORT_TOKEN_KEYS_ENV;
+import static com.github.bibsysdev.urlshortener.service.token.ShortTokenSigner.SHORT_TOKEN_SIGNING_KEY_VERSION_ENV;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ShortTokenSignerTest {
+
+    private static final Instant EXPIRES = Instant.parse("2024-01-01T00:03:00Z");
+    private static final ShortToken TOKEN = new ShortToken(UUID.randomUUID(), EXPIRES);
+
+    @Test
+    void shouldVerifyTokenItSigned() {
+        var signer = new ShortTokenSigner(Map.of(1, "secret"), 1);
+
+        var signedToken = signer.sign(TOKEN);
+
+        assertThat(signedToken, matchesPattern("[0-9A-Za-z_-]{30}\\.[0-9A-Za-z_-]{22}"));
+        assertThat(ShortTokenSigner.isToken(signedToken), is(true));
+        assertThat(signer.verify(signedToken), is(equalTo(Optional.of(TOKEN))));
+    }
+
+    @Test
+    void shouldKeepExpiryToTheSecond() {
+        var signer = new ShortTokenSigner(Map.of(1, "secret"), 1);
+        var token = new ShortToken(UUID.randomUUID(), EXPIRES.plusMillis(999));
+
+        assertThat(signer.verify(signer.sign(token)).map(ShortToken::expires), is(equalTo(Optional.of(EXPIRES))));
+    }
+
+    @Test
+    void shouldRejectTamperedPayload() {
+        var signer = new ShortTokenSigner(Map.of(1, "secret"), 1);
+        var signedToken = signer.sign(TOKEN);
+        var otherPayload = signer.sign(new ShortToken(UUID.randomUUID(), EXPIRES));
+
+        var tampered = otherPayload.substring(0, otherPayload.indexOf('.'))
+                       + signedToken.substring(signedToken.indexOf('.'));
+
+        assertThat(signer.verify(tampered), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithOtherKey() {
+        var signer = new ShortTokenSigner(Map.of(1, "secret"), 1);
+        var otherSigner = new ShortTokenSigner(Map.of(1, "other secret"), 1);
+
+        assertThat(signer.verify(otherSigner.sign(TOKEN)), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithUnknownKeyVersion() {
+        var signer = new ShortTokenSigner(Map.of(1, "secret"), 1);
+        var otherSigner = new ShortTokenSigner(Map.of(2, "secret"), 2);
+
+        assertThat(signer.verify(otherSigner.sign(TOKEN)), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldVerifyTokensSignedWithPreviousKeyAfterRotation() {
+        var before = new ShortTokenSigner(Map.of(1, "old secret"), 1);
+        var after = new ShortTokenSigner(Map.of(1, "old secret", 2, "new secret"), 2);
+
+        var signedBefore = before.sign(TOKEN);
+        var signedAfter = after.sign(TOKEN);
+
+        assertThat(signedAfter, is(not(equalTo(signedBefore))));
+        assertThat(after.verify(signedBefore), is(equalTo(Optional.of(TOKEN))));
+        assertThat(before.verify(signedAfter), is(equalTo(Optional.empty())));
+    }
+
+    @ParameterizedTest(name = "Should reject malformed token {0}")
+    @ValueSource(strings = {"", "abc1234", ".", "abc.def", "!!!.abc", "AQE.abc",
+        "AgEAAAAAAAAAAAAAAAAAAAAAAAAAAA.abc"})
+    void shouldRejectMalformedTokens(String signedToken) {
+        var signer = new ShortTokenSigner(Map.of(1, "secret"), 1);
+
+        assertThat(signer.verify(signedToken), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldRejectSigningKeyVersionWithoutKey() {
+        var keys = Map.of(1, "secret");
+
+        assertThrows(IllegalArgumentException.class, () -> new ShortTokenSigner(keys, 2));
+    }
+
+    @ParameterizedTest(name = "Should reject key version {0}")
+    @ValueSource(ints = {-1, 256})
+    void shouldRejectKeyVersionsOutsideRange(int version) {
+        var keys = Map.of(version, "secret");
+
+        assertThrows(IllegalArgumentException.class, () -> new ShortTokenSigner(keys, version));
+    }
+
+    @Test
+    void shouldNotSignTokensWhenNoKeysAreConfigured() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+
+        assertThat(ShortTokenSigner.fromEnvironment(environment), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldSignWithHighestKeyVersionByDefault() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        when(environment.readEnvOpt(SHORT_TOKEN_KEYS_ENV)).thenReturn(Optional.of("1:old secret, 2:new secret"));
+
+        var signer = ShortTokenSigner.fromEnvironment(environment).orElseThrow();
+
+        var newSigner = new ShortTokenSigner(Map.of(2, "new secret"), 2);
+        assertThat(newSigner.verify(signer.sign(TOKEN)), is(equalTo(Optional.of(TOKEN))));
+    }
+
+    @Test
+    void shouldSignWithConfiguredKeyVersion() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(SHORT_TOKEN_KEYS_ENV)).thenReturn(Optional.of("1:old secret,2:new secret"));
+        when(environment.readEnvOpt(SHORT_TOKEN_SIGNING_KEY_VERSION_ENV)).thenReturn(Optional.of("1"));
+
+        var signer = ShortTokenSigner.fromEnvironment(environment).orElseThrow();
+
+        var oldSigner = new ShortTokenSigner(Map.of(1, "old secret"), 1);
+        assertThat(oldSigner.verify(signer.sign(TOKEN)), is(equalTo(Optional.of(TOKEN))));
+    }
+}